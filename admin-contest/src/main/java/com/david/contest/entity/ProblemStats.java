@@ -9,8 +9,8 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
-@TableName("vw_problem_stats")
-public class ProblemStatsView {
+@TableName("problem_stats")
+public class ProblemStats {
 
     @TableField("problem_id")
     private Long problemId;
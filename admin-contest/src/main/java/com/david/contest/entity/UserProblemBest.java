@@ -8,8 +8,8 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Data
-@TableName("vw_user_problem_best")
-public class UserProblemBestView {
+@TableName("user_problem_best")
+public class UserProblemBest {
 
     @TableField("user_id")
     private Long userId;
@@ -1,9 +1,9 @@
 package com.david.contest.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import com.david.contest.entity.ProblemStatsView;
+import com.david.contest.entity.ProblemStats;
 
 import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
-public interface ProblemStatsViewMapper extends BaseMapper<ProblemStatsView> {}
+public interface ProblemStatsMapper extends BaseMapper<ProblemStats> {}
@@ -1,9 +1,9 @@
 package com.david.contest.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
-import com.david.contest.entity.UserProblemBestView;
+import com.david.contest.entity.UserProblemBest;
 
 import org.apache.ibatis.annotations.Mapper;
 
 @Mapper
-public interface UserProblemBestViewMapper extends BaseMapper<UserProblemBestView> {}
+public interface UserProblemBestMapper extends BaseMapper<UserProblemBest> {}
@@ -15,13 +15,13 @@ import com.david.contest.dto.PageResult;
 import com.david.contest.entity.Contest;
 import com.david.contest.entity.ContestProblem;
 import com.david.contest.entity.Submission;
-import com.david.contest.entity.UserProblemBestView;
+import com.david.contest.entity.UserProblemBest;
 import com.david.contest.enums.ContestKind;
 import com.david.contest.mapper.ContestMapper;
 import com.david.contest.mapper.ContestProblemMapper;
 import com.david.contest.mapper.SubmissionMapper;
 import com.david.contest.mapper.UserMapper;
-import com.david.contest.mapper.UserProblemBestViewMapper;
+import com.david.contest.mapper.UserProblemBestMapper;
 import com.david.core.exception.BusinessException;
 
 import lombok.Getter;
@@ -54,7 +54,7 @@ public class ContestOperationsService {
     private final ContestProblemMapper contestProblemMapper;
     private final SubmissionMapper submissionMapper;
     private final UserMapper userMapper;
-    private final UserProblemBestViewMapper userProblemBestViewMapper;
+    private final UserProblemBestMapper userProblemBestMapper;
     private final ContestPlanningService contestPlanningService;
 
     public ContestOperationsService(
@@ -62,13 +62,13 @@ public class ContestOperationsService {
             ContestProblemMapper contestProblemMapper,
             SubmissionMapper submissionMapper,
             UserMapper userMapper,
-            UserProblemBestViewMapper userProblemBestViewMapper,
+            UserProblemBestMapper userProblemBestMapper,
             ContestPlanningService contestPlanningService) {
         this.contestMapper = contestMapper;
         this.contestProblemMapper = contestProblemMapper;
         this.submissionMapper = submissionMapper;
         this.userMapper = userMapper;
-        this.userProblemBestViewMapper = userProblemBestViewMapper;
+        this.userProblemBestMapper = userProblemBestMapper;
         this.contestPlanningService = contestPlanningService;
     }
 
@@ -303,15 +303,15 @@ public class ContestOperationsService {
         if (participantIds.isEmpty() || problemIds.isEmpty()) {
             return Map.of();
         }
-        List<UserProblemBestView> bestList =
-                userProblemBestViewMapper.selectList(
-                        Wrappers.lambdaQuery(UserProblemBestView.class)
-                                .in(UserProblemBestView::getUserId, participantIds)
-                                .in(UserProblemBestView::getProblemId, problemIds));
+        List<UserProblemBest> bestList =
+                userProblemBestMapper.selectList(
+                        Wrappers.lambdaQuery(UserProblemBest.class)
+                                .in(UserProblemBest::getUserId, participantIds)
+                                .in(UserProblemBest::getProblemId, problemIds));
         Map<String, Integer> map = new LinkedHashMap<>();
-        for (UserProblemBestView view : bestList) {
-            String key = key(view.getUserId(), view.getProblemId());
-            map.put(key, view.getBestScore());
+        for (UserProblemBest best : bestList) {
+            String key = key(best.getUserId(), best.getProblemId());
+            map.put(key, best.getBestScore());
         }
         return map;
     }
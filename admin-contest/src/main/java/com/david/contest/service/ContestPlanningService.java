@@ -26,7 +26,7 @@ import com.david.contest.entity.ContestProblem;
 import com.david.contest.entity.ContestRegistration;
 import com.david.contest.entity.Problem;
 import com.david.contest.entity.ProblemStatement;
-import com.david.contest.entity.ProblemStatsView;
+import com.david.contest.entity.ProblemStats;
 import com.david.contest.entity.User;
 import com.david.contest.enums.ContestKind;
 import com.david.contest.enums.ContestRegistrationMode;
@@ -39,7 +39,7 @@ import com.david.contest.mapper.ContestProblemMapper;
 import com.david.contest.mapper.ContestRegistrationMapper;
 import com.david.contest.mapper.ProblemMapper;
 import com.david.contest.mapper.ProblemStatementMapper;
-import com.david.contest.mapper.ProblemStatsViewMapper;
+import com.david.contest.mapper.ProblemStatsMapper;
 import com.david.contest.mapper.SubmissionMapper;
 import com.david.contest.mapper.UserMapper;
 import com.david.core.exception.BusinessException;
@@ -72,7 +72,7 @@ public class ContestPlanningService {
     private final SubmissionMapper submissionMapper;
     private final ProblemMapper problemMapper;
     private final ProblemStatementMapper problemStatementMapper;
-    private final ProblemStatsViewMapper problemStatsViewMapper;
+    private final ProblemStatsMapper problemStatsMapper;
     private final UserMapper userMapper;
 
     public ContestPlanningService(
@@ -83,7 +83,7 @@ public class ContestPlanningService {
             SubmissionMapper submissionMapper,
             ProblemMapper problemMapper,
             ProblemStatementMapper problemStatementMapper,
-            ProblemStatsViewMapper problemStatsViewMapper,
+            ProblemStatsMapper problemStatsMapper,
             UserMapper userMapper) {
         this.contestMapper = contestMapper;
         this.contestProblemMapper = contestProblemMapper;
@@ -92,7 +92,7 @@ public class ContestPlanningService {
         this.submissionMapper = submissionMapper;
         this.problemMapper = problemMapper;
         this.problemStatementMapper = problemStatementMapper;
-        this.problemStatsViewMapper = problemStatsViewMapper;
+        this.problemStatsMapper = problemStatsMapper;
         this.userMapper = userMapper;
     }
 
@@ -751,13 +751,13 @@ public class ContestPlanningService {
                         .collect(Collectors.toMap(Problem::getId, problem -> problem));
 
         Map<Long, ProblemStatement> statementMap = loadProblemStatements(problemIds);
-        Map<Long, ProblemStatsView> statsMap = loadProblemStats(problemIds);
+        Map<Long, ProblemStats> statsMap = loadProblemStats(problemIds);
 
         List<ContestProblemView> views = new ArrayList<>(relations.size());
         for (ContestProblem relation : relations) {
             Problem problem = problemMap.get(relation.getProblemId());
             ProblemStatement statement = statementMap.get(relation.getProblemId());
-            ProblemStatsView stats = statsMap.get(relation.getProblemId());
+            ProblemStats stats = statsMap.get(relation.getProblemId());
             views.add(
                     new ContestProblemView(
                             relation.getContestId(),
@@ -797,18 +797,18 @@ public class ContestPlanningService {
                                 (left, right) -> left));
     }
 
-    private Map<Long, ProblemStatsView> loadProblemStats(List<Long> problemIds) {
+    private Map<Long, ProblemStats> loadProblemStats(List<Long> problemIds) {
         if (problemIds.isEmpty()) {
             return Map.of();
         }
-        List<ProblemStatsView> stats =
-                problemStatsViewMapper.selectList(
-                        Wrappers.lambdaQuery(ProblemStatsView.class)
-                                .in(ProblemStatsView::getProblemId, problemIds));
+        List<ProblemStats> stats =
+                problemStatsMapper.selectList(
+                        Wrappers.lambdaQuery(ProblemStats.class)
+                                .in(ProblemStats::getProblemId, problemIds));
         return stats.stream()
                 .collect(
                         Collectors.toMap(
-                                ProblemStatsView::getProblemId,
+                                ProblemStats::getProblemId,
                                 view -> view,
                                 (left, right) -> left));
     }
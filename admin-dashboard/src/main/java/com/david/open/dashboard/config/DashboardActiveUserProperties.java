@@ -0,0 +1,19 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Daily active-user sketches. Without a watermark the builder starts from submissions of the last
+ * {@code backfill}; the most recent {@code cachedDays} daily sketches are kept in memory.
+ */
+@ConfigurationProperties(prefix = "dashboard.active-users")
+public record DashboardActiveUserProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("120d") Duration backfill,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("120") int cachedDays
+) {
+}
@@ -0,0 +1,24 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The activity feed keeps the latest {@code ringCapacity} events of each source in memory, polls for
+ * new ones every {@code dashboard.activity.poll-interval-ms} and pushes them to at most
+ * {@code maxSubscribers} SSE connections, each closed after {@code streamTimeout}. Writes happen on
+ * {@code senderThreads} threads; a connection with more than {@code maxPendingEvents} unsent events
+ * is dropped as too slow.
+ */
+@ConfigurationProperties(prefix = "dashboard.activity")
+public record DashboardActivityProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("200") int ringCapacity,
+        @DefaultValue("200") int maxSubscribers,
+        @DefaultValue("30m") Duration streamTimeout,
+        @DefaultValue("4") int senderThreads,
+        @DefaultValue("1000") int maxPendingEvents
+) {
+}
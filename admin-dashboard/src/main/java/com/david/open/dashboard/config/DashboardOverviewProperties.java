@@ -0,0 +1,31 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Widgets of the composite overview run on a fixed pool of {@code poolSize} threads with at most
+ * {@code queueCapacity} waiting tasks. Each widget gets {@code widgetTimeout} measured from the start
+ * of the request unless {@code widgetTimeouts} overrides it by widget name.
+ */
+@ConfigurationProperties(prefix = "dashboard.overview")
+public record DashboardOverviewProperties(
+        @DefaultValue("8") int poolSize,
+        @DefaultValue("64") int queueCapacity,
+        @DefaultValue("3s") Duration widgetTimeout,
+        Map<String, Duration> widgetTimeouts
+) {
+
+    public Duration timeoutFor(String widget) {
+        if (widgetTimeouts != null) {
+            Duration override = widgetTimeouts.get(widget);
+            if (override != null) {
+                return override;
+            }
+        }
+        return widgetTimeout;
+    }
+}
@@ -0,0 +1,21 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Submission rollup job. Each run folds at most {@code maxBatchesPerRun} batches of {@code batchSize}
+ * submissions past the watermark; submissions younger than {@code settleDelay} are left for a later run
+ * so they are counted with their final verdict. Hourly buckets older than {@code hourlyRetention} are purged.
+ */
+@ConfigurationProperties(prefix = "dashboard.rollup")
+public record DashboardRollupProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("50") int maxBatchesPerRun,
+        @DefaultValue("10m") Duration settleDelay,
+        @DefaultValue("90d") Duration hourlyRetention
+) {
+}
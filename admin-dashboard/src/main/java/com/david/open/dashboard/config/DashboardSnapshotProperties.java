@@ -0,0 +1,17 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Widget responses are reused for {@code maxAge} before the next request recomputes them; at most
+ * {@code maxEntries} distinct widget/parameter combinations are kept.
+ */
+@ConfigurationProperties(prefix = "dashboard.snapshot")
+public record DashboardSnapshotProperties(
+        @DefaultValue("15s") Duration maxAge,
+        @DefaultValue("256") int maxEntries
+) {
+}
@@ -0,0 +1,16 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * The summary snapshot is rebuilt in the background every {@code dashboard.summary.refresh-interval-ms};
+ * a request never sees a snapshot older than {@code maxStaleness} unless rebuilding it fails.
+ */
+@ConfigurationProperties(prefix = "dashboard.summary")
+public record DashboardSummaryProperties(
+        @DefaultValue("2m") Duration maxStaleness
+) {
+}
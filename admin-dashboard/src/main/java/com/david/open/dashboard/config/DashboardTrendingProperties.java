@@ -0,0 +1,27 @@
+package com.david.open.dashboard.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Trending problems. Every submission adds 1 (an accepted one adds {@code acceptedWeight}) to its
+ * problem's score, which halves every {@code halfLife}. Without a persisted checkpoint the tracker
+ * replays the last {@code warmup} of submissions; scores below {@code minScore} are dropped. Submissions
+ * younger than {@code settleDelay} are left for a later poll so their verdict is final when weighted.
+ * Only the instance holding the writer lease checkpoints; an unrenewed lease expires after {@code writerLease}.
+ */
+@ConfigurationProperties(prefix = "dashboard.trending")
+public record DashboardTrendingProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("6h") Duration halfLife,
+        @DefaultValue("2") double acceptedWeight,
+        @DefaultValue("3d") Duration warmup,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("10m") Duration settleDelay,
+        @DefaultValue("0.01") double minScore,
+        @DefaultValue("50") int topSize,
+        @DefaultValue("15m") Duration writerLease
+) {
+}
@@ -1,60 +1,262 @@
 package com.david.open.dashboard.controller;
 
+import com.david.open.dashboard.model.ActiveUserStats;
+import com.david.open.dashboard.model.ActivityFeedPage;
 import com.david.open.dashboard.model.ApiResponse;
 import com.david.open.dashboard.model.DashboardActivityGroup;
+import com.david.open.dashboard.model.DashboardOverviewResponse;
 import com.david.open.dashboard.model.DashboardSummaryResponse;
 import com.david.open.dashboard.model.DashboardTrendPoint;
 import com.david.open.dashboard.model.RecentSubmission;
+import com.david.open.dashboard.model.SubmissionTrendSeries;
 import com.david.open.dashboard.model.TrendingProblem;
+import com.david.open.dashboard.service.ActiveUserSketchService;
+import com.david.open.dashboard.service.ActivityFeedService;
+import com.david.open.dashboard.service.DashboardOverviewService;
 import com.david.open.dashboard.service.DashboardService;
+import com.david.open.dashboard.service.DashboardSummaryCache;
+import com.david.open.dashboard.service.SubmissionRollupService;
+import com.david.open.dashboard.service.TrendGranularity;
+import com.david.open.dashboard.service.WidgetDataVersions;
+import com.david.open.dashboard.service.WidgetSnapshotCache;
+import com.david.open.dashboard.service.WidgetSnapshotCache.WidgetSnapshot;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/admin/dashboard")
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final DashboardSummaryCache summaryCache;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final DashboardOverviewService overviewService;
+    private final ActivityFeedService activityFeedService;
+    private final WidgetSnapshotCache snapshotCache;
+    private final SubmissionRollupService rollupService;
+    private final WidgetDataVersions dataVersions;
 
-    public DashboardController(DashboardService dashboardService) {
+    public DashboardController(
+            DashboardService dashboardService,
+            DashboardSummaryCache summaryCache,
+            ActiveUserSketchService activeUserSketchService,
+            DashboardOverviewService overviewService,
+            ActivityFeedService activityFeedService,
+            WidgetSnapshotCache snapshotCache,
+            SubmissionRollupService rollupService,
+            WidgetDataVersions dataVersions) {
         this.dashboardService = dashboardService;
+        this.summaryCache = summaryCache;
+        this.activeUserSketchService = activeUserSketchService;
+        this.overviewService = overviewService;
+        this.activityFeedService = activityFeedService;
+        this.snapshotCache = snapshotCache;
+        this.rollupService = rollupService;
+        this.dataVersions = dataVersions;
     }
 
     @GetMapping("/summary")
-    public ApiResponse<DashboardSummaryResponse> getSummary() {
-        return ApiResponse.success(dashboardService.getSummary());
+    public ApiResponse<DashboardSummaryResponse> getSummary(ServletWebRequest request) {
+        // generatedAt moves on every refresh, only the cards decide whether the summary changed
+        return conditional(request, "summary", summaryCache::getSummary, DashboardSummaryResponse::cards);
+    }
+
+    @GetMapping("/overview")
+    public ApiResponse<DashboardOverviewResponse> getOverview(
+            @RequestParam(name = "recentLimit", defaultValue = "6") int recentLimit,
+            @RequestParam(name = "trendingLimit", defaultValue = "6") int trendingLimit,
+            @RequestParam(name = "days", defaultValue = "8") int days,
+            @RequestParam(name = "activitySize", defaultValue = "9") int activitySize,
+            ServletWebRequest request
+    ) {
+        int safeRecent = clamp(recentLimit, 3, 20);
+        int safeTrending = clamp(trendingLimit, 3, 12);
+        int safeDays = clamp(days, 1, 90);
+        int safeActivity = clamp(activitySize, 4, 24);
+        return conditional(
+                request,
+                "overview:" + safeRecent + ":" + safeTrending + ":" + safeDays + ":" + safeActivity,
+                () -> overviewService.load(safeRecent, safeTrending, safeDays, safeActivity),
+                overview -> Arrays.asList(
+                        overview.summary() != null ? overview.summary().cards() : null,
+                        overview.recentSubmissions(),
+                        overview.trendingProblems(),
+                        overview.submissionTrends(),
+                        overview.activities()),
+                () -> Arrays.asList(
+                        summaryCache.getSummary().cards(),
+                        dataVersions.latestSubmissions(safeRecent),
+                        dataVersions.trendingProblems(safeTrending),
+                        dataVersions.rollups(),
+                        dataVersions.activities()),
+                // a widget that failed or timed out is retried on the next load
+                overview -> overview.summary() != null
+                        && overview.recentSubmissions() != null
+                        && overview.trendingProblems() != null
+                        && overview.submissionTrends() != null
+                        && overview.activities() != null);
     }
 
     @GetMapping("/recent-submissions")
     public ApiResponse<List<RecentSubmission>> getRecentSubmissions(
-            @RequestParam(name = "limit", defaultValue = "6") int limit
+            @RequestParam(name = "limit", defaultValue = "6") int limit,
+            ServletWebRequest request
     ) {
         int safeLimit = clamp(limit, 3, 20);
-        return ApiResponse.success(dashboardService.getRecentSubmissions(safeLimit));
+        return conditional(request, "recent-submissions:" + safeLimit,
+                () -> dashboardService.getRecentSubmissions(safeLimit),
+                () -> dataVersions.latestSubmissions(safeLimit));
     }
 
     @GetMapping("/trending-problems")
     public ApiResponse<List<TrendingProblem>> getTrendingProblems(
-            @RequestParam(name = "limit", defaultValue = "6") int limit
+            @RequestParam(name = "limit", defaultValue = "6") int limit,
+            ServletWebRequest request
     ) {
         int safeLimit = clamp(limit, 3, 12);
-        return ApiResponse.success(dashboardService.getTrendingProblems(safeLimit));
+        return conditional(request, "trending-problems:" + safeLimit,
+                () -> dashboardService.getTrendingProblems(safeLimit),
+                () -> dataVersions.trendingProblems(safeLimit));
     }
 
     @GetMapping("/submission-trends")
-    public ApiResponse<List<DashboardTrendPoint>> getSubmissionTrends() {
-        return ApiResponse.success(dashboardService.getSubmissionTrends());
+    public ApiResponse<List<DashboardTrendPoint>> getSubmissionTrends(
+            @RequestParam(name = "days", defaultValue = "8") int days,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            ServletWebRequest request
+    ) {
+        int safeDays = clamp(days, 1, 90);
+        return conditional(request, "submission-trends:" + safeDays + ":" + from + ":" + to,
+                () -> dashboardService.getSubmissionTrends(from, to, safeDays),
+                dataVersions::rollups);
+    }
+
+    @GetMapping("/submission-trends/series")
+    public ApiResponse<SubmissionTrendSeries> getSubmissionTrendSeries(
+            @RequestParam(name = "granularity", defaultValue = "day") String granularity,
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            ServletWebRequest request
+    ) {
+        TrendGranularity resolved = TrendGranularity.fromCode(granularity);
+        return conditional(request, "submission-trend-series:" + resolved + ":" + from + ":" + to,
+                () -> dashboardService.getSubmissionTrendSeries(resolved, from, to),
+                () -> dataVersions.trendSeries(resolved, to));
+    }
+
+    @GetMapping("/active-users")
+    public ApiResponse<ActiveUserStats> getActiveUsers(
+            @RequestParam(name = "days", defaultValue = "30") int days,
+            ServletWebRequest request
+    ) {
+        int safeDays = clamp(days, 7, 90);
+        return conditional(request, "active-users:" + safeDays, () -> activeUserSketchService.stats(safeDays));
     }
 
     @GetMapping("/activities")
     public ApiResponse<List<DashboardActivityGroup>> getActivities(
-            @RequestParam(name = "size", defaultValue = "9") int size
+            @RequestParam(name = "size", defaultValue = "9") int size,
+            ServletWebRequest request
     ) {
         int safeSize = clamp(size, 4, 24);
-        return ApiResponse.success(dashboardService.getActivityTimeline(safeSize));
+        return conditional(request, "activities:" + safeSize,
+                () -> dashboardService.getActivityTimeline(safeSize),
+                dataVersions::activities);
+    }
+
+    @GetMapping("/activities/feed")
+    public ApiResponse<ActivityFeedPage> getActivityFeed(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            ServletWebRequest request
+    ) {
+        int safeSize = clamp(size, 5, 50);
+        try {
+            // only the first page is served purely from the rings; deeper pages may read the database
+            return conditional(request, "activity-feed:" + safeSize + ":" + cursor,
+                    () -> activityFeedService.page(cursor, safeSize),
+                    cursor == null ? dataVersions::activities : null);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "无效的分页游标");
+        }
+    }
+
+    @GetMapping(path = "/activities/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamActivities(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return activityFeedService.subscribe(lastEventId);
+    }
+
+    @PostMapping("/problem-stats/rebuild")
+    public ApiResponse<Integer> rebuildProblemStats() {
+        return ApiResponse.success(rollupService.rebuildProblemStats());
+    }
+
+    private <T> ApiResponse<T> conditional(ServletWebRequest request, String key, Supplier<T> loader) {
+        return conditional(request, key, loader, Function.identity(), null, value -> true);
+    }
+
+    private <T> ApiResponse<T> conditional(
+            ServletWebRequest request, String key, Supplier<T> loader, Supplier<?> dataVersion) {
+        return conditional(request, key, loader, Function.identity(), dataVersion, value -> true);
+    }
+
+    private <T> ApiResponse<T> conditional(
+            ServletWebRequest request, String key, Supplier<T> loader, Function<T, ?> versionKey) {
+        return conditional(request, key, loader, versionKey, null, value -> true);
+    }
+
+    /**
+     * Serves the widget from its snapshot and answers 304 when the client already holds it. With a
+     * {@code dataVersion}, an expired snapshot whose data did not move is renewed without running the
+     * loader. Returning null after {@code checkNotModified} lets Spring send the empty 304 response.
+     */
+    private <T> ApiResponse<T> conditional(
+            ServletWebRequest request,
+            String key,
+            Supplier<T> loader,
+            Function<T, ?> versionKey,
+            Supplier<?> dataVersion,
+            Predicate<T> reusable) {
+        WidgetSnapshot<ApiResponse<T>> snapshot = snapshotCache.get(
+                key,
+                () -> ApiResponse.success(loader.get()),
+                response -> versionKey.apply(response.data()),
+                dataVersion,
+                response -> reusable.test(response.data()));
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, private");
+        }
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        return snapshot.body();
     }
 
     private int clamp(int value, int min, int max) {
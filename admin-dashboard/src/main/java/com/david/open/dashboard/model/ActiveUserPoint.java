@@ -0,0 +1,11 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDate;
+
+public record ActiveUserPoint(
+        LocalDate date,
+        long dailyActive,
+        long weeklyActive,
+        long monthlyActive
+) {
+}
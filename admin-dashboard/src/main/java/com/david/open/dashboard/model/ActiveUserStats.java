@@ -0,0 +1,14 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record ActiveUserStats(
+        LocalDate asOf,
+        long last7Days,
+        long last30Days,
+        long last90Days,
+        double relativeStandardError,
+        List<ActiveUserPoint> series
+) {
+}
@@ -0,0 +1,17 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDateTime;
+
+public record ActivityFeedItem(
+        String source,
+        long sourceId,
+        String message,
+        String icon,
+        String accent,
+        LocalDateTime occurredAt
+) {
+
+    public DashboardActivity toActivity() {
+        return new DashboardActivity(message, icon, accent, occurredAt);
+    }
+}
@@ -0,0 +1,10 @@
+package com.david.open.dashboard.model;
+
+import java.util.List;
+
+/** {@code nextCursor} is null on the last page. */
+public record ActivityFeedPage(
+        List<ActivityFeedItem> items,
+        String nextCursor
+) {
+}
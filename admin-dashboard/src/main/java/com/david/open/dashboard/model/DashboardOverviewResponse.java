@@ -0,0 +1,17 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Widgets that failed or timed out are {@code null}; {@code widgets} says why. */
+public record DashboardOverviewResponse(
+        DashboardSummaryResponse summary,
+        List<RecentSubmission> recentSubmissions,
+        List<TrendingProblem> trendingProblems,
+        List<DashboardTrendPoint> submissionTrends,
+        List<DashboardActivityGroup> activities,
+        List<DashboardWidgetTiming> widgets,
+        long totalElapsedMs,
+        LocalDateTime generatedAt
+) {
+}
@@ -1,8 +1,10 @@
 package com.david.open.dashboard.model;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public record DashboardSummaryResponse(
-        List<DashboardSummaryCard> cards
+        List<DashboardSummaryCard> cards,
+        LocalDateTime generatedAt
 ) {
 }
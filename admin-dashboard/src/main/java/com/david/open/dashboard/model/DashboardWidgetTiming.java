@@ -0,0 +1,9 @@
+package com.david.open.dashboard.model;
+
+public record DashboardWidgetTiming(
+        String widget,
+        String status,
+        long elapsedMs,
+        String message
+) {
+}
@@ -0,0 +1,12 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDateTime;
+
+public record SubmissionTrendBucket(
+        LocalDateTime bucketStart,
+        String label,
+        long submissionCount,
+        long acceptedCount,
+        long wrongCount
+) {
+}
@@ -0,0 +1,12 @@
+package com.david.open.dashboard.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SubmissionTrendSeries(
+        String granularity,
+        LocalDateTime from,
+        LocalDateTime to,
+        List<SubmissionTrendBucket> buckets
+) {
+}
@@ -8,6 +8,7 @@ public record TrendingProblem(
         long submissionCount,
         long solvedCount,
         Double acceptanceRate,
-        String accent
+        String accent,
+        Double trendingScore
 ) {
 }
@@ -0,0 +1,276 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardActiveUserProperties;
+import com.david.open.dashboard.model.ActiveUserPoint;
+import com.david.open.dashboard.model.ActiveUserStats;
+import com.david.open.dashboard.service.sketch.HyperLogLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds one {@link HyperLogLog} of submitting users per day from submissions past a watermark and
+ * answers "active users over N days" by merging the daily sketches. Adding a user to a sketch is
+ * idempotent and stored sketches are merged under a row lock before being rewritten, so replays and
+ * concurrent instances never inflate or lose counts.
+ */
+@Service
+public class ActiveUserSketchService {
+
+    static final String WATERMARK = "active_user_sketch";
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveUserSketchService.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardActiveUserProperties properties;
+    // Entries are replaced, never mutated, so readers can merge them without locking.
+    private final Map<LocalDate, HyperLogLog> cache = new ConcurrentHashMap<>();
+    private long lastSubmissionId = -1;
+    private volatile boolean caughtUp;
+
+    public ActiveUserSketchService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DashboardActiveUserProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    /** True once the sketches cover every submission seen at the last poll. */
+    public boolean isReady() {
+        return properties.enabled() && caughtUp;
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.active-users.initial-delay-ms:5000}",
+            fixedDelayString = "${dashboard.active-users.poll-interval-ms:60000}")
+    public synchronized void poll() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            if (lastSubmissionId < 0) {
+                lastSubmissionId = loadWatermark();
+            }
+            int batchSize = Math.max(properties.batchSize(), 1);
+            int read;
+            do {
+                read = consumeBatch(batchSize);
+            } while (read == batchSize);
+            caughtUp = true;
+            LocalDate oldest = LocalDate.now().minusDays(properties.cachedDays());
+            cache.keySet().removeIf(date -> date.isBefore(oldest));
+        } catch (RuntimeException ex) {
+            log.error("更新活跃用户统计失败", ex);
+        }
+    }
+
+    public long activeUsers(LocalDate end, int days) {
+        LocalDate start = end.minusDays(days - 1L);
+        Map<LocalDate, HyperLogLog> sketches = sketchesBetween(start, end);
+        return mergeRange(sketches, start, end).estimate();
+    }
+
+    public ActiveUserStats stats(int seriesDays) {
+        LocalDate asOf = resolveLatestDate();
+        LocalDate seriesStart = asOf.minusDays(seriesDays - 1L);
+        LocalDate earliest = seriesStart.minusDays(29);
+        LocalDate ninetyStart = asOf.minusDays(89);
+        Map<LocalDate, HyperLogLog> sketches =
+                sketchesBetween(earliest.isBefore(ninetyStart) ? earliest : ninetyStart, asOf);
+
+        List<ActiveUserPoint> series = new ArrayList<>(seriesDays);
+        for (LocalDate day = seriesStart; !day.isAfter(asOf); day = day.plusDays(1)) {
+            series.add(new ActiveUserPoint(
+                    day,
+                    mergeRange(sketches, day, day).estimate(),
+                    mergeRange(sketches, day.minusDays(6), day).estimate(),
+                    mergeRange(sketches, day.minusDays(29), day).estimate()));
+        }
+        return new ActiveUserStats(
+                asOf,
+                mergeRange(sketches, asOf.minusDays(6), asOf).estimate(),
+                mergeRange(sketches, asOf.minusDays(29), asOf).estimate(),
+                mergeRange(sketches, ninetyStart, asOf).estimate(),
+                HyperLogLog.RELATIVE_STANDARD_ERROR,
+                series);
+    }
+
+    private HyperLogLog mergeRange(Map<LocalDate, HyperLogLog> sketches, LocalDate start, LocalDate end) {
+        HyperLogLog merged = new HyperLogLog();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            HyperLogLog sketch = sketches.get(day);
+            if (sketch != null) {
+                merged.merge(sketch);
+            }
+        }
+        return merged;
+    }
+
+    private Map<LocalDate, HyperLogLog> sketchesBetween(LocalDate start, LocalDate end) {
+        Map<LocalDate, HyperLogLog> result = new HashMap<>();
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            HyperLogLog cached = cache.get(day);
+            if (cached != null) {
+                result.put(day, cached);
+            } else {
+                missing.add(day);
+            }
+        }
+        if (!missing.isEmpty()) {
+            LocalDate oldestCached = LocalDate.now().minusDays(properties.cachedDays());
+            Map<LocalDate, HyperLogLog> loaded = loadSketches(missing, false);
+            loaded.forEach((day, sketch) -> {
+                result.put(day, sketch);
+                if (!day.isBefore(oldestCached)) {
+                    cache.putIfAbsent(day, sketch);
+                }
+            });
+        }
+        return result;
+    }
+
+    private int consumeBatch(int batchSize) {
+        List<UserActivity> rows = jdbcTemplate.query(
+                """
+                        SELECT id, user_id, created_at
+                        FROM submissions
+                        WHERE id > :lastId
+                        ORDER BY id
+                        LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("lastId", lastSubmissionId)
+                        .addValue("limit", batchSize),
+                (rs, rowNum) -> new UserActivity(
+                        rs.getLong("id"),
+                        rs.getObject("user_id", Long.class),
+                        rs.getObject("created_at", LocalDateTime.class)));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<LocalDate, HyperLogLog> deltas = new HashMap<>();
+        for (UserActivity row : rows) {
+            if (row.userId() != null && row.createdAt() != null) {
+                deltas.computeIfAbsent(row.createdAt().toLocalDate(), day -> new HyperLogLog())
+                        .add(row.userId());
+            }
+        }
+        long upperId = rows.get(rows.size() - 1).id();
+        Map<LocalDate, HyperLogLog> merged = transactionTemplate.execute(status -> {
+            Map<LocalDate, HyperLogLog> stored = deltas.isEmpty()
+                    ? Map.of()
+                    : loadSketches(new ArrayList<>(deltas.keySet()), true);
+            Map<LocalDate, HyperLogLog> updated = new HashMap<>();
+            List<SqlParameterSource> writes = new ArrayList<>(deltas.size());
+            LocalDateTime now = LocalDateTime.now();
+            deltas.forEach((day, delta) -> {
+                HyperLogLog sketch = stored.containsKey(day) ? stored.get(day).copy() : new HyperLogLog();
+                sketch.merge(delta);
+                updated.put(day, sketch);
+                writes.add(new MapSqlParameterSource()
+                        .addValue("statDate", day)
+                        .addValue("registers", sketch.toBytes())
+                        .addValue("now", now));
+            });
+            if (!writes.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        """
+                                INSERT INTO user_activity_sketches (stat_date, registers, updated_at)
+                                VALUES (:statDate, :registers, :now)
+                                ON DUPLICATE KEY UPDATE registers = VALUES(registers), updated_at = VALUES(updated_at)
+                                """,
+                        writes.toArray(SqlParameterSource[]::new));
+            }
+            jdbcTemplate.update(
+                    """
+                            INSERT INTO dashboard_rollup_watermarks (name, last_id, updated_at)
+                            VALUES (:name, :lastId, :now)
+                            ON DUPLICATE KEY UPDATE last_id = GREATEST(last_id, VALUES(last_id)),
+                                                    updated_at = VALUES(updated_at)
+                            """,
+                    new MapSqlParameterSource()
+                            .addValue("name", WATERMARK)
+                            .addValue("lastId", upperId)
+                            .addValue("now", now));
+            return updated;
+        });
+        lastSubmissionId = upperId;
+        if (merged != null) {
+            LocalDate oldestCached = LocalDate.now().minusDays(properties.cachedDays());
+            merged.forEach((day, sketch) -> {
+                if (!day.isBefore(oldestCached)) {
+                    cache.put(day, sketch);
+                }
+            });
+        }
+        return rows.size();
+    }
+
+    private Map<LocalDate, HyperLogLog> loadSketches(List<LocalDate> days, boolean forUpdate) {
+        Map<LocalDate, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT stat_date, registers FROM user_activity_sketches WHERE stat_date IN (:days)"
+                        + (forUpdate ? " FOR UPDATE" : ""),
+                new MapSqlParameterSource("days", days),
+                rs -> {
+                    sketches.put(
+                            rs.getObject("stat_date", LocalDate.class),
+                            HyperLogLog.fromBytes(rs.getBytes("registers")));
+                });
+        return sketches;
+    }
+
+    private long loadWatermark() {
+        List<Long> watermark = jdbcTemplate.queryForList(
+                "SELECT last_id FROM dashboard_rollup_watermarks WHERE name = :name",
+                new MapSqlParameterSource("name", WATERMARK),
+                Long.class);
+        if (!watermark.isEmpty() && watermark.get(0) != null) {
+            return watermark.get(0);
+        }
+        Long firstId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM submissions WHERE created_at >= :since",
+                new MapSqlParameterSource("since", LocalDateTime.now().minus(properties.backfill())),
+                Long.class);
+        if (firstId != null) {
+            return firstId - 1;
+        }
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM submissions", new MapSqlParameterSource(), Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    private LocalDate resolveLatestDate() {
+        LocalDate value;
+        try {
+            value = jdbcTemplate.queryForObject(
+                    "SELECT MAX(stat_date) FROM user_activity_sketches",
+                    new MapSqlParameterSource(),
+                    LocalDate.class);
+        } catch (EmptyResultDataAccessException ex) {
+            value = null;
+        }
+        return value != null ? value : LocalDate.now();
+    }
+
+    private record UserActivity(long id, Long userId, LocalDateTime createdAt) {
+    }
+}
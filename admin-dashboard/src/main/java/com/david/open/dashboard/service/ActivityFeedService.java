@@ -0,0 +1,424 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardActivityProperties;
+import com.david.open.dashboard.model.ActivityFeedItem;
+import com.david.open.dashboard.model.ActivityFeedPage;
+import com.david.open.dashboard.service.ProblemTitleDictionary.Titled;
+import com.david.open.dashboard.service.activity.ActivityCursor;
+import com.david.open.dashboard.service.activity.ActivityMerger;
+import com.david.open.dashboard.service.activity.ActivityRing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Activity feed over submissions, comments, upcoming contests and security audit logs. The newest
+ * events of each source sit in a ring buffer refreshed by a poller, pages are produced by k-way merging
+ * the per-source lists, and events found by the poller are pushed to SSE subscribers. Rows that change
+ * after insert are re-read on every poll and pushed again when their rendering changes. Paging past
+ * what a ring still holds reads that source from the database.
+ */
+@Service
+public class ActivityFeedService {
+
+    static final String SUBMISSION = "submission";
+    static final String COMMENT = "comment";
+    static final String CONTEST = "contest";
+    static final String AUDIT = "audit";
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityFeedService.class);
+    private static final DateTimeFormatter CONTEST_TIME_FORMATTER = DateTimeFormatter.ofPattern("MM-dd HH:mm");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProblemTitleDictionary problemTitles;
+    private final ActivityStreamService streamService;
+    private final DashboardActivityProperties properties;
+    private final List<EventSource> eventSources;
+    private final Map<String, ActivityRing> rings = new LinkedHashMap<>();
+    // poller state, guarded by the monitor
+    private final Map<String, Long> lastIds = new HashMap<>();
+    // bumped whenever a ring changes, so cached pages can tell they are still current
+    private final AtomicLong version = new AtomicLong();
+    private volatile boolean loaded;
+
+    public ActivityFeedService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            ProblemTitleDictionary problemTitles,
+            ActivityStreamService streamService,
+            DashboardActivityProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.problemTitles = problemTitles;
+        this.streamService = streamService;
+        this.properties = properties;
+        this.eventSources = List.of(
+                new EventSource(SUBMISSION, "s", """
+                        SELECT s.id,
+                               s.verdict,
+                               s.created_at,
+                               s.problem_id,
+                               u.username
+                        FROM submissions s
+                        JOIN users u ON u.id = s.user_id
+                        """, this::mapSubmission, true),
+                new EventSource(COMMENT, "c", """
+                        SELECT c.id,
+                               c.status,
+                               c.created_at,
+                               c.entity_type,
+                               c.entity_id,
+                               u.username
+                        FROM comments c
+                        JOIN users u ON u.id = c.user_id
+                        """, this::mapComment, true),
+                new EventSource(AUDIT, "a", """
+                        SELECT a.id,
+                               a.actor_username,
+                               a.action,
+                               a.object_type,
+                               a.object_id,
+                               a.created_at
+                        FROM security_audit_logs a
+                        """, this::mapAudit, false));
+        int capacity = Math.max(properties.ringCapacity(), 1);
+        for (EventSource source : eventSources) {
+            rings.put(source.name(), new ActivityRing(capacity));
+        }
+        rings.put(CONTEST, new ActivityRing(capacity));
+    }
+
+    /** Events strictly older than {@code cursorToken}, newest first. */
+    public ActivityFeedPage page(String cursorToken, int size) {
+        ActivityCursor cursor = ActivityCursor.decode(cursorToken);
+        ensureLoaded();
+        List<List<ActivityFeedItem>> candidates = new ArrayList<>(rings.size());
+        for (EventSource source : eventSources) {
+            candidates.add(candidates(source, cursor, size));
+        }
+        candidates.add(after(contestEvents(), cursor));
+        List<ActivityFeedItem> items = ActivityMerger.merge(candidates, size);
+        String nextCursor = items.size() == size
+                ? ActivityCursor.of(items.get(items.size() - 1)).encode()
+                : null;
+        return new ActivityFeedPage(items, nextCursor);
+    }
+
+    /** Changes whenever the ring contents change; pages that only read the rings are stable between bumps. */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Opens a push connection. A client reconnecting with {@code Last-Event-ID} first receives the
+     * events it missed, as far as the rings still hold them. The replay is collected and queued under
+     * the poller's lock, so no poll can publish in between: nothing is lost and nothing is sent twice.
+     * Only queueing happens under the lock; the stream service writes to the client on its own threads.
+     */
+    public synchronized SseEmitter subscribe(String lastEventId) {
+        ActivityCursor since;
+        try {
+            since = ActivityCursor.decode(lastEventId);
+        } catch (IllegalArgumentException ex) {
+            since = null;
+        }
+        if (!properties.enabled()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "实时动态未启用");
+        }
+        List<ActivityFeedItem> missed = new ArrayList<>();
+        if (since != null && loaded) {
+            List<List<ActivityFeedItem>> newer = new ArrayList<>(rings.size());
+            for (ActivityRing ring : rings.values()) {
+                List<ActivityFeedItem> items = new ArrayList<>();
+                for (ActivityFeedItem item : ring.newestFirst()) {
+                    if (!since.isPrecededBy(item)) {
+                        break;
+                    }
+                    items.add(item);
+                }
+                newer.add(items);
+            }
+            missed.addAll(ActivityMerger.merge(newer, properties.ringCapacity()));
+            Collections.reverse(missed);
+        }
+        return streamService.register(missed);
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.activity.initial-delay-ms:0}",
+            fixedDelayString = "${dashboard.activity.poll-interval-ms:5000}")
+    public synchronized void poll() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            if (!loaded) {
+                load();
+                return;
+            }
+            List<ActivityFeedItem> fresh = new ArrayList<>();
+            for (EventSource source : eventSources) {
+                if (source.mutable()) {
+                    fresh.addAll(refreshSource(source));
+                }
+                fresh.addAll(pollSource(source));
+            }
+            fresh.addAll(refreshContests());
+            if (!fresh.isEmpty()) {
+                version.incrementAndGet();
+            }
+            if (!fresh.isEmpty() && streamService.subscriberCount() > 0) {
+                fresh.sort(ActivityCursor.NEWEST_FIRST.reversed());
+                int from = Math.max(0, fresh.size() - properties.ringCapacity());
+                streamService.publish(fresh.subList(from, fresh.size()));
+            }
+        } catch (RuntimeException ex) {
+            log.error("刷新动态流失败", ex);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded && properties.enabled()) {
+            synchronized (this) {
+                if (!loaded) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private void load() {
+        int capacity = Math.max(properties.ringCapacity(), 1);
+        for (EventSource source : eventSources) {
+            List<ActivityFeedItem> latest = query(source, "", new MapSqlParameterSource(),
+                    source.alias() + ".id DESC", capacity);
+            rings.get(source.name()).replaceAll(latest, latest.size() < capacity);
+            lastIds.put(source.name(), latest.stream().mapToLong(ActivityFeedItem::sourceId).max().orElse(0L));
+        }
+        refreshContests();
+        version.incrementAndGet();
+        loaded = true;
+    }
+
+    private List<ActivityFeedItem> pollSource(EventSource source) {
+        int capacity = Math.max(properties.ringCapacity(), 1);
+        ActivityRing ring = rings.get(source.name());
+        List<ActivityFeedItem> fresh = new ArrayList<>();
+        List<ActivityFeedItem> batch;
+        do {
+            batch = query(source, source.alias() + ".id > :lastId",
+                    new MapSqlParameterSource("lastId", lastIds.get(source.name())),
+                    source.alias() + ".id", capacity);
+            for (ActivityFeedItem item : batch) {
+                ring.append(item);
+                lastIds.merge(source.name(), item.sourceId(), Math::max);
+            }
+            fresh.addAll(batch);
+        } while (batch.size() == capacity);
+        return fresh;
+    }
+
+    /**
+     * Re-reads the rows a ring already holds and swaps in those whose rendering changed, e.g. a
+     * submission first seen while still judging. Changed events are pushed again under the same id.
+     */
+    private List<ActivityFeedItem> refreshSource(EventSource source) {
+        ActivityRing ring = rings.get(source.name());
+        List<Long> ids = ring.newestFirst().stream().map(ActivityFeedItem::sourceId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<ActivityFeedItem> current = query(source, source.alias() + ".id IN (:ids)",
+                new MapSqlParameterSource("ids", ids), source.alias() + ".id", ids.size());
+        List<ActivityFeedItem> changed = new ArrayList<>();
+        for (ActivityFeedItem item : current) {
+            if (ring.replace(item)) {
+                changed.add(item);
+            }
+        }
+        return changed;
+    }
+
+    private List<ActivityFeedItem> refreshContests() {
+        ActivityRing ring = rings.get(CONTEST);
+        List<ActivityFeedItem> before = ring.newestFirst();
+        Set<Long> known = new HashSet<>();
+        for (ActivityFeedItem item : before) {
+            known.add(item.sourceId());
+        }
+        List<ActivityFeedItem> contests = fetchContests();
+        if (!before.equals(contests)) {
+            version.incrementAndGet();
+        }
+        ring.replaceAll(contests, true);
+        return contests.stream().filter(item -> !known.contains(item.sourceId())).toList();
+    }
+
+    private List<ActivityFeedItem> contestEvents() {
+        return loaded ? rings.get(CONTEST).newestFirst() : fetchContests();
+    }
+
+    private List<ActivityFeedItem> candidates(EventSource source, ActivityCursor cursor, int size) {
+        ActivityRing ring = rings.get(source.name());
+        if (loaded) {
+            List<ActivityFeedItem> cached = after(ring.newestFirst(), cursor);
+            // the ring holds a contiguous run of the newest events, so a full page from it is exact
+            if (ring.isComplete() || cached.size() >= size) {
+                return cached;
+            }
+        }
+        return older(source, cursor, size);
+    }
+
+    private List<ActivityFeedItem> older(EventSource source, ActivityCursor cursor, int limit) {
+        String alias = source.alias();
+        String order = alias + ".created_at DESC, " + alias + ".id DESC";
+        if (cursor == null) {
+            return query(source, "", new MapSqlParameterSource(), order, limit);
+        }
+        int sourceOrder = source.name().compareTo(cursor.source());
+        String condition;
+        if (sourceOrder < 0) {
+            condition = alias + ".created_at < :before";
+        } else if (sourceOrder > 0) {
+            condition = alias + ".created_at <= :before";
+        } else {
+            condition = "(" + alias + ".created_at < :before OR ("
+                    + alias + ".created_at = :before AND " + alias + ".id < :beforeId))";
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("before", cursor.occurredAt())
+                .addValue("beforeId", cursor.sourceId());
+        List<ActivityFeedItem> items = query(source, condition, params, order, limit);
+        return after(items, cursor);
+    }
+
+    private List<ActivityFeedItem> query(
+            EventSource source, String condition, MapSqlParameterSource params, String order, int limit) {
+        String sql = source.select()
+                + (condition.isEmpty() ? "" : "WHERE " + condition + "\n")
+                + "ORDER BY " + order + "\n"
+                + "LIMIT :limit";
+        params.addValue("limit", limit);
+        List<ActivityFeedItem> items = problemTitles.resolve(jdbcTemplate.query(sql, params, source.mapper()));
+        return items.stream().sorted(ActivityCursor.NEWEST_FIRST).toList();
+    }
+
+    private List<ActivityFeedItem> after(List<ActivityFeedItem> items, ActivityCursor cursor) {
+        if (cursor == null) {
+            return items;
+        }
+        return items.stream().filter(cursor::isFollowedBy).toList();
+    }
+
+    private List<ActivityFeedItem> fetchContests() {
+        // Anchored on the latest contest rather than the clock so seeded data still shows up.
+        LocalDateTime anchor = jdbcTemplate.queryForObject(
+                "SELECT MAX(start_time) FROM contests", new MapSqlParameterSource(), LocalDateTime.class);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("threshold", (anchor != null ? anchor : LocalDateTime.now()).minusDays(1))
+                .addValue("limit", Math.max(properties.ringCapacity(), 1));
+        return jdbcTemplate.query(
+                """
+                        SELECT id,
+                               title,
+                               start_time
+                        FROM contests
+                        WHERE start_time >= :threshold
+                        ORDER BY start_time ASC
+                        LIMIT :limit
+                        """,
+                params,
+                (rs, rowNum) -> {
+                    LocalDateTime startTime = rs.getObject("start_time", LocalDateTime.class);
+                    String message = String.format(
+                            Locale.CHINA,
+                            "比赛「%s」即将在 %s 开赛",
+                            rs.getString("title"),
+                            CONTEST_TIME_FORMATTER.format(startTime));
+                    return new ActivityFeedItem(
+                            CONTEST, rs.getLong("id"), message, "pi pi-calendar", "teal", startTime);
+                })
+                .stream()
+                .sorted(ActivityCursor.NEWEST_FIRST)
+                .toList();
+    }
+
+    private Titled<ActivityFeedItem> mapSubmission(ResultSet rs, int rowNum) throws SQLException {
+        long id = rs.getLong("id");
+        String verdict = rs.getString("verdict");
+        String username = rs.getString("username");
+        LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+        boolean accepted = Objects.equals("AC", verdict);
+        String icon = accepted ? "pi pi-check-circle" : "pi pi-exclamation-triangle";
+        String accent = accepted ? "green" : "pink";
+        return new Titled<>(rs.getObject("problem_id", Long.class), title -> {
+            String message = accepted
+                    ? String.format(Locale.CHINA, "%s 通过了「%s」", username, title)
+                    : String.format(Locale.CHINA, "%s 提交「%s」判定为 %s", username, title, verdict);
+            return new ActivityFeedItem(SUBMISSION, id, message, icon, accent, createdAt);
+        });
+    }
+
+    private Titled<ActivityFeedItem> mapComment(ResultSet rs, int rowNum) throws SQLException {
+        long id = rs.getLong("id");
+        String status = rs.getString("status");
+        LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+        String username = rs.getString("username");
+        long entityId = rs.getLong("entity_id");
+        Long problemId = Objects.equals("problem", rs.getString("entity_type")) ? entityId : null;
+        boolean pending = Objects.equals("pending", status);
+        String icon = pending ? "pi pi-inbox" : "pi pi-comments";
+        String accent = pending ? "orange" : "blue";
+        return new Titled<>(problemId, resolved -> {
+            String title = resolved != null ? resolved : "Problem #" + entityId;
+            String message = pending
+                    ? String.format(Locale.CHINA, "评论 #%d 待审核：%s 在「%s」的回复", id, username, title)
+                    : String.format(Locale.CHINA, "%s 在「%s」发布了评论", username, title);
+            return new ActivityFeedItem(COMMENT, id, message, icon, accent, createdAt);
+        });
+    }
+
+    private Titled<ActivityFeedItem> mapAudit(ResultSet rs, int rowNum) throws SQLException {
+        long id = rs.getLong("id");
+        String message = String.format(Locale.CHINA, "%s 调整了 %s(%s)：%s",
+                rs.getString("actor_username"),
+                rs.getString("object_type"),
+                rs.getString("object_id"),
+                rs.getString("action"));
+        LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+        ActivityFeedItem item = new ActivityFeedItem(AUDIT, id, message, "pi pi-shield", "cyan", createdAt);
+        return new Titled<>(null, ignored -> item);
+    }
+
+    private record EventSource(
+            String name,
+            String alias,
+            String select,
+            RowMapper<Titled<ActivityFeedItem>> mapper,
+            // rows change after insert (verdicts get judged, comments moderated)
+            boolean mutable
+    ) {
+    }
+}
@@ -0,0 +1,186 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardActivityProperties;
+import com.david.open.dashboard.model.ActivityFeedItem;
+import com.david.open.dashboard.service.activity.ActivityCursor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open SSE connections of dashboards watching the activity feed. Callers only enqueue: every
+ * connection has its own FIFO queue, drained by a small sender pool, so a slow client delays nobody
+ * else and events reach each client in the order they were enqueued.
+ */
+@Service
+public class ActivityStreamService {
+
+    static final String EVENT_NAME = "activity";
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityStreamService.class);
+
+    private final DashboardActivityProperties properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor sender;
+
+    public ActivityStreamService(DashboardActivityProperties properties) {
+        this.properties = properties;
+        int threads = Math.max(properties.senderThreads(), 1);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // at most one drain task per subscriber is ever queued
+        this.sender = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(properties.maxSubscribers(), 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-activity-sse-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /** Registers a connection; {@code replay} is queued ahead of anything published afterwards. */
+    public SseEmitter register(List<ActivityFeedItem> replay) {
+        if (subscribers.size() >= properties.maxSubscribers()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "实时动态订阅数已达上限");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.streamTimeout().toMillis()));
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        enqueue(subscriber, replay);
+        return emitter;
+    }
+
+    /** Queues events, oldest first, for every open connection; never blocks on a client. */
+    public void publish(List<ActivityFeedItem> oldestFirst) {
+        if (oldestFirst.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, oldestFirst);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // keeps idle connections open through proxies and notices clients that left without closing
+    @Scheduled(fixedDelayString = "${dashboard.activity.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, List.of(SseEmitter.event().comment("ping")));
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        log.info("已关闭全部实时动态连接");
+    }
+
+    private void enqueue(Subscriber subscriber, List<ActivityFeedItem> oldestFirst) {
+        if (oldestFirst.isEmpty()) {
+            return;
+        }
+        offer(subscriber, oldestFirst.stream()
+                .map(item -> SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(ActivityCursor.of(item).encode())
+                        .data(item))
+                .toList());
+    }
+
+    private void offer(Subscriber subscriber, List<SseEmitter.SseEventBuilder> events) {
+        if (subscriber.closed.get()) {
+            return;
+        }
+        if (subscriber.pendingCount.addAndGet(events.size()) > properties.maxPendingEvents()) {
+            drop(subscriber, new IllegalStateException("实时动态连接积压过多，已断开"));
+            return;
+        }
+        subscriber.pending.addAll(events);
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (!subscriber.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException ex) {
+            subscriber.draining.set(false);
+            drop(subscriber, ex);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscriber.closed.get() && (event = subscriber.pending.poll()) != null) {
+                subscriber.pendingCount.decrementAndGet();
+                subscriber.emitter.send(event);
+            }
+        } catch (IOException | IllegalStateException ex) {
+            drop(subscriber, ex);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // an offer may have landed after the last poll but before draining was cleared
+        if (!subscriber.closed.get() && !subscriber.pending.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.remove(subscriber);
+        subscriber.pending.clear();
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardOverviewProperties;
+import com.david.open.dashboard.model.DashboardActivityGroup;
+import com.david.open.dashboard.model.DashboardOverviewResponse;
+import com.david.open.dashboard.model.DashboardSummaryResponse;
+import com.david.open.dashboard.model.DashboardTrendPoint;
+import com.david.open.dashboard.model.DashboardWidgetTiming;
+import com.david.open.dashboard.model.RecentSubmission;
+import com.david.open.dashboard.model.TrendingProblem;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Loads every widget of the admin home page in one request. Widgets run concurrently on a bounded
+ * pool; a widget that errors, times out or cannot be queued is left empty instead of failing the
+ * whole response, and its outcome and timing are reported alongside the data.
+ */
+@Service
+public class DashboardOverviewService {
+
+    static final String SUMMARY = "summary";
+    static final String RECENT_SUBMISSIONS = "recentSubmissions";
+    static final String TRENDING_PROBLEMS = "trendingProblems";
+    static final String SUBMISSION_TRENDS = "submissionTrends";
+    static final String ACTIVITIES = "activities";
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardOverviewService.class);
+
+    private final DashboardService dashboardService;
+    private final DashboardSummaryCache summaryCache;
+    private final DashboardOverviewProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardOverviewService(
+            DashboardService dashboardService,
+            DashboardSummaryCache summaryCache,
+            DashboardOverviewProperties properties) {
+        this.dashboardService = dashboardService;
+        this.summaryCache = summaryCache;
+        this.properties = properties;
+        int poolSize = Math.max(properties.poolSize(), 1);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(properties.queueCapacity(), 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-widget-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public DashboardOverviewResponse load(int recentLimit, int trendingLimit, int trendDays, int activitySize) {
+        long started = System.nanoTime();
+        Widget<DashboardSummaryResponse> summary = submit(SUMMARY, summaryCache::getSummary, started);
+        Widget<List<RecentSubmission>> recent = submit(
+                RECENT_SUBMISSIONS, () -> dashboardService.getRecentSubmissions(recentLimit), started);
+        Widget<List<TrendingProblem>> trending = submit(
+                TRENDING_PROBLEMS, () -> dashboardService.getTrendingProblems(trendingLimit), started);
+        Widget<List<DashboardTrendPoint>> trends = submit(
+                SUBMISSION_TRENDS, () -> dashboardService.getSubmissionTrends(null, null, trendDays), started);
+        Widget<List<DashboardActivityGroup>> activities = submit(
+                ACTIVITIES, () -> dashboardService.getActivityTimeline(activitySize), started);
+
+        List<DashboardWidgetTiming> timings = new ArrayList<>(5);
+        DashboardSummaryResponse summaryValue = summary.await(timings);
+        List<RecentSubmission> recentValue = recent.await(timings);
+        List<TrendingProblem> trendingValue = trending.await(timings);
+        List<DashboardTrendPoint> trendsValue = trends.await(timings);
+        List<DashboardActivityGroup> activitiesValue = activities.await(timings);
+        return new DashboardOverviewResponse(
+                summaryValue,
+                recentValue,
+                trendingValue,
+                trendsValue,
+                activitiesValue,
+                timings,
+                elapsedMs(started),
+                LocalDateTime.now());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> Widget<T> submit(String name, Supplier<T> loader, long requestStarted) {
+        long deadline = requestStarted + properties.timeoutFor(name).toNanos();
+        AtomicLong runNanos = new AtomicLong(-1);
+        try {
+            Future<T> future = executor.submit(() -> {
+                long begin = System.nanoTime();
+                try {
+                    return loader.get();
+                } finally {
+                    runNanos.set(System.nanoTime() - begin);
+                }
+            });
+            return new Widget<>(name, future, deadline, runNanos, requestStarted);
+        } catch (RejectedExecutionException ex) {
+            log.warn("仪表盘组件 {} 排队已满，本次跳过", name);
+            return new Widget<>(name, null, deadline, runNanos, requestStarted);
+        }
+    }
+
+    private static long elapsedMs(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+
+    private record Widget<T>(
+            String name,
+            Future<T> future,
+            long deadlineNanos,
+            AtomicLong runNanos,
+            long requestStarted
+    ) {
+
+        T await(List<DashboardWidgetTiming> timings) {
+            if (future == null) {
+                timings.add(new DashboardWidgetTiming(name, "rejected", 0, "服务繁忙，请稍后重试"));
+                return null;
+            }
+            try {
+                T value = future.get(Math.max(deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                timings.add(new DashboardWidgetTiming(
+                        name, "ok", TimeUnit.NANOSECONDS.toMillis(runNanos.get()), null));
+                return value;
+            } catch (TimeoutException ex) {
+                future.cancel(true);
+                log.warn("仪表盘组件 {} 加载超时", name);
+                timings.add(new DashboardWidgetTiming(name, "timeout", elapsedMs(requestStarted), "加载超时"));
+            } catch (ExecutionException ex) {
+                log.warn("仪表盘组件 {} 加载失败", name, ex.getCause());
+                timings.add(new DashboardWidgetTiming(
+                        name, "error", TimeUnit.NANOSECONDS.toMillis(Math.max(runNanos.get(), 0)), "加载失败"));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                timings.add(new DashboardWidgetTiming(name, "cancelled", elapsedMs(requestStarted), "请求已取消"));
+            }
+            return null;
+        }
+    }
+}
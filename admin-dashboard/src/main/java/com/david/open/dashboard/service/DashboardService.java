@@ -1,12 +1,16 @@
 package com.david.open.dashboard.service;
 
+import com.david.open.dashboard.model.ActivityFeedItem;
 import com.david.open.dashboard.model.DashboardActivity;
 import com.david.open.dashboard.model.DashboardActivityGroup;
 import com.david.open.dashboard.model.DashboardSummaryCard;
 import com.david.open.dashboard.model.DashboardSummaryResponse;
 import com.david.open.dashboard.model.DashboardTrendPoint;
 import com.david.open.dashboard.model.RecentSubmission;
+import com.david.open.dashboard.model.SubmissionTrendBucket;
+import com.david.open.dashboard.model.SubmissionTrendSeries;
 import com.david.open.dashboard.model.TrendingProblem;
+import com.david.open.dashboard.service.ProblemTitleDictionary.Titled;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
@@ -34,6 +38,7 @@ public class DashboardService {
 
     private static final Map<String, String> DIFFICULTY_ACCENT;
     private static final DateTimeFormatter TREND_LABEL_FORMATTER = DateTimeFormatter.ofPattern("MM-dd");
+    private static final int MAX_TREND_DAYS = 366;
 
     static {
         Map<String, String> accentMap = new HashMap<>();
@@ -44,12 +49,25 @@ public class DashboardService {
     }
 
     private final NamedParameterJdbcTemplate jdbcTemplate;
-
-    public DashboardService(NamedParameterJdbcTemplate jdbcTemplate) {
+    private final TrendingProblemTracker trendingProblemTracker;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final ProblemTitleDictionary problemTitles;
+    private final ActivityFeedService activityFeedService;
+
+    public DashboardService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TrendingProblemTracker trendingProblemTracker,
+            ActiveUserSketchService activeUserSketchService,
+            ProblemTitleDictionary problemTitles,
+            ActivityFeedService activityFeedService) {
         this.jdbcTemplate = jdbcTemplate;
+        this.trendingProblemTracker = trendingProblemTracker;
+        this.activeUserSketchService = activeUserSketchService;
+        this.problemTitles = problemTitles;
+        this.activityFeedService = activityFeedService;
     }
 
-    public DashboardSummaryResponse getSummary() {
+    public DashboardSummaryResponse computeSummary() {
         long publicProblems = queryForLong(
                 "SELECT COUNT(*) FROM problems WHERE is_public = 1",
                 MapSqlParameterSourceUtils.empty());
@@ -85,13 +103,15 @@ public class DashboardService {
                 "SELECT COUNT(*) FROM users",
                 MapSqlParameterSourceUtils.empty());
 
-        long activeUsers = queryForLong(
-                """
-                        SELECT COUNT(DISTINCT user_id)
-                        FROM submissions
-                        WHERE created_at >= :threshold
-                        """,
-                new MapSqlParameterSource("threshold", submissionThreshold));
+        long activeUsers = activeUserSketchService.isReady()
+                ? activeUserSketchService.activeUsers(submissionAnchor.toLocalDate(), 30)
+                : queryForLong(
+                        """
+                                SELECT COUNT(DISTINCT user_id)
+                                FROM submissions
+                                WHERE created_at >= :threshold
+                                """,
+                        new MapSqlParameterSource("threshold", submissionThreshold));
 
         long commentCount = queryForLong(
                 """
@@ -161,14 +181,14 @@ public class DashboardService {
                         "purple")
         );
 
-        return new DashboardSummaryResponse(cards);
+        return new DashboardSummaryResponse(cards, LocalDateTime.now());
     }
 
     public List<RecentSubmission> getRecentSubmissions(int limit) {
         String sql = """
                 SELECT s.id,
+                       p.id                             AS problem_id,
                        p.slug,
-                       COALESCE(ps_zh.title, ps_en.title, CONCAT('Problem #', p.id)) AS title,
                        d.code                           AS difficulty_code,
                        l.display_name                   AS language,
                        s.verdict,
@@ -177,10 +197,6 @@ public class DashboardService {
                        s.created_at
                 FROM submissions s
                 JOIN problems p ON p.id = s.problem_id
-                LEFT JOIN problem_statements ps_zh
-                          ON ps_zh.problem_id = p.id AND ps_zh.lang_code = 'zh-CN'
-                LEFT JOIN problem_statements ps_en
-                          ON ps_en.problem_id = p.id AND ps_en.lang_code = 'en'
                 LEFT JOIN difficulties d ON d.id = p.difficulty_id
                 JOIN languages l ON l.id = s.language_id
                 JOIN users u ON u.id = s.user_id
@@ -189,104 +205,218 @@ public class DashboardService {
                 """;
 
         MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new RecentSubmission(
-                rs.getLong("id"),
-                rs.getString("slug"),
-                rs.getString("title"),
-                rs.getString("difficulty_code"),
-                rs.getString("language"),
-                rs.getString("verdict"),
-                getScore(rs),
-                rs.getString("username"),
-                rs.getObject("created_at", LocalDateTime.class)
-        ));
+        List<Titled<RecentSubmission>> rows = jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            long id = rs.getLong("id");
+            String slug = rs.getString("slug");
+            String difficulty = rs.getString("difficulty_code");
+            String language = rs.getString("language");
+            String verdict = rs.getString("verdict");
+            Integer score = getScore(rs);
+            String username = rs.getString("username");
+            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+            return new Titled<>(rs.getLong("problem_id"), title -> new RecentSubmission(
+                    id, slug, title, difficulty, language, verdict, score, username, createdAt));
+        });
+        return problemTitles.resolve(rows);
     }
 
+    /**
+     * Problems ranked by time-decayed submission activity. Falls back to lifetime submission counts
+     * while the tracker has nothing recent to rank.
+     */
     public List<TrendingProblem> getTrendingProblems(int limit) {
+        // over-fetch: hidden problems are tracked too and dropped by the query below
+        List<TrendingProblemTracker.TrendingScore> ranked = trendingProblemTracker.top(limit * 2);
+        if (ranked.isEmpty()) {
+            return getMostSubmittedProblems(limit);
+        }
         String sql = """
                 SELECT p.id,
                        p.slug,
-                       COALESCE(ps_zh.title, ps_en.title, CONCAT('Problem #', p.id)) AS title,
                        d.code                                                               AS difficulty_code,
-                       COALESCE(vps.submission_count, 0)                                    AS submission_count,
-                       COALESCE(vps.solved_count, 0)                                        AS solved_count,
-                       vps.acceptance_rate                                                  AS acceptance_rate
+                       COALESCE(ps.submission_count, 0)                                     AS submission_count,
+                       COALESCE(ps.solved_count, 0)                                         AS solved_count,
+                       ps.acceptance_rate                                                   AS acceptance_rate
                 FROM problems p
-                LEFT JOIN vw_problem_stats vps ON vps.problem_id = p.id
-                LEFT JOIN problem_statements ps_zh
-                          ON ps_zh.problem_id = p.id AND ps_zh.lang_code = 'zh-CN'
-                LEFT JOIN problem_statements ps_en
-                          ON ps_en.problem_id = p.id AND ps_en.lang_code = 'en'
+                LEFT JOIN problem_stats ps ON ps.problem_id = p.id
                 LEFT JOIN difficulties d ON d.id = p.difficulty_id
                 WHERE p.is_public = 1
-                ORDER BY COALESCE(vps.submission_count, 0) DESC, p.id ASC
+                  AND p.id IN (:ids)
+                """;
+        Map<Long, Double> scoreById = new LinkedHashMap<>();
+        for (TrendingProblemTracker.TrendingScore score : ranked) {
+            scoreById.put(score.problemId(), score.score());
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", scoreById.keySet());
+        Map<Long, Titled<TrendingProblem>> byId = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            long id = rs.getLong("id");
+            byId.put(id, mapTrendingProblem(rs, scoreById.get(id)));
+        });
+        return problemTitles.resolve(scoreById.keySet()
+                .stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .limit(limit)
+                .collect(Collectors.toList()));
+    }
+
+    private List<TrendingProblem> getMostSubmittedProblems(int limit) {
+        String sql = """
+                SELECT p.id,
+                       p.slug,
+                       d.code                                                               AS difficulty_code,
+                       COALESCE(ps.submission_count, 0)                                     AS submission_count,
+                       COALESCE(ps.solved_count, 0)                                         AS solved_count,
+                       ps.acceptance_rate                                                   AS acceptance_rate
+                FROM problems p
+                LEFT JOIN problem_stats ps ON ps.problem_id = p.id
+                LEFT JOIN difficulties d ON d.id = p.difficulty_id
+                WHERE p.is_public = 1
+                ORDER BY COALESCE(ps.submission_count, 0) DESC, p.id ASC
                 LIMIT :limit
                 """;
         MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new TrendingProblem(
-                rs.getLong("id"),
-                rs.getString("slug"),
-                rs.getString("title"),
-                rs.getString("difficulty_code"),
-                rs.getLong("submission_count"),
-                rs.getLong("solved_count"),
-                getNullableDouble(rs, "acceptance_rate"),
-                accentForDifficulty(rs.getString("difficulty_code"))
+        return problemTitles.resolve(jdbcTemplate.query(sql, params, (rs, rowNum) -> mapTrendingProblem(rs, null)));
+    }
+
+    private Titled<TrendingProblem> mapTrendingProblem(ResultSet rs, Double trendingScore) throws SQLException {
+        long id = rs.getLong("id");
+        String slug = rs.getString("slug");
+        String difficulty = rs.getString("difficulty_code");
+        long submissionCount = rs.getLong("submission_count");
+        long solvedCount = rs.getLong("solved_count");
+        Double acceptanceRate = getNullableDouble(rs, "acceptance_rate");
+        return new Titled<>(id, title -> new TrendingProblem(
+                id,
+                slug,
+                title,
+                difficulty,
+                submissionCount,
+                solvedCount,
+                acceptanceRate,
+                accentForDifficulty(difficulty),
+                trendingScore
         ));
     }
 
-    public List<DashboardTrendPoint> getSubmissionTrends() {
+    /**
+     * Daily verdict counts for [from, to], read from the submission_daily_stats rollup. Without an
+     * explicit end the range ends at the latest rolled-up day; days without submissions are zero-filled.
+     */
+    public List<DashboardTrendPoint> getSubmissionTrends(LocalDate from, LocalDate to, int days) {
+        LocalDate end = to != null ? to : resolveLatestRollupDate();
+        LocalDate start = from != null ? from : end.minusDays(days - 1L);
+        if (start.isAfter(end)) {
+            LocalDate swap = start;
+            start = end;
+            end = swap;
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_TREND_DAYS) {
+            start = end.minusDays(MAX_TREND_DAYS - 1L);
+        }
+
         String sql = """
-                SELECT DATE(s.created_at) AS period,
-                       SUM(CASE WHEN s.verdict = 'AC' THEN 1 ELSE 0 END) AS accepted_count,
-                       SUM(CASE WHEN s.verdict = 'WA' THEN 1 ELSE 0 END) AS wrong_count,
-                       SUM(CASE WHEN s.verdict NOT IN ('AC', 'WA') THEN 1 ELSE 0 END) AS pending_count
-                FROM submissions s
-                GROUP BY DATE(s.created_at)
-                ORDER BY period DESC
-                LIMIT 8
+                SELECT stat_date AS period,
+                       SUM(CASE WHEN verdict = 'AC' THEN submission_count ELSE 0 END) AS accepted_count,
+                       SUM(CASE WHEN verdict = 'WA' THEN submission_count ELSE 0 END) AS wrong_count,
+                       SUM(CASE WHEN verdict NOT IN ('AC', 'WA') THEN submission_count ELSE 0 END) AS pending_count
+                FROM submission_daily_stats
+                WHERE stat_date BETWEEN :start AND :end
+                GROUP BY stat_date
                 """;
-
-        List<TrendRow> rows = jdbcTemplate.query(sql, MapSqlParameterSourceUtils.empty(), this::mapTrendRow);
-        LocalDate referenceDate = rows.stream()
-                .map(TrendRow::period)
-                .max(Comparator.naturalOrder())
-                .orElseGet(() -> resolveLatestTimestamp("submissions", "created_at").toLocalDate());
-
-        if (rows.isEmpty()) {
-            referenceDate = resolveLatestTimestamp("submissions", "created_at").toLocalDate();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end);
+        Map<LocalDate, TrendRow> rowMap = jdbcTemplate.query(sql, params, this::mapTrendRow)
+                .stream()
+                .collect(Collectors.toMap(TrendRow::period, row -> row, (a, b) -> a));
+
+        List<DashboardTrendPoint> points = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            TrendRow row = rowMap.getOrDefault(day, new TrendRow(day, 0, 0, 0));
+            points.add(new DashboardTrendPoint(
+                    TREND_LABEL_FORMATTER.format(day),
+                    row.accepted(),
+                    row.wrong(),
+                    row.pending()));
         }
+        return points;
+    }
 
-        LinkedHashMap<LocalDate, TrendRow> rowMap = new LinkedHashMap<>();
-        for (TrendRow row : rows) {
-            rowMap.putIfAbsent(row.period(), row);
+    /**
+     * Submission counts per hour, day or week over [from, to], read from the matching rollup table.
+     * Missing buckets are zero-filled; the range is capped per granularity.
+     */
+    public SubmissionTrendSeries getSubmissionTrendSeries(
+            TrendGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = granularity.truncate(to != null ? to : LocalDateTime.now());
+        LocalDateTime start = from != null
+                ? granularity.truncate(from)
+                : granularity.minus(end, granularity.defaultBuckets() - 1L);
+        if (start.isAfter(end)) {
+            LocalDateTime swap = start;
+            start = end;
+            end = swap;
+        }
+        LocalDateTime earliest = granularity.minus(end, granularity.maxBuckets() - 1L);
+        if (start.isBefore(earliest)) {
+            start = earliest;
         }
 
-        // Ensure at least four periods for the chart.
-        for (int i = 0; i < 4; i++) {
-            LocalDate day = referenceDate.minusDays(3 - i);
-            rowMap.putIfAbsent(day, new TrendRow(day, 0, 0, 0));
+        String sql = """
+                SELECT TIMESTAMP(%1$s) AS bucket,
+                       SUM(submission_count) AS submission_count,
+                       SUM(CASE WHEN verdict = 'AC' THEN submission_count ELSE 0 END) AS accepted_count,
+                       SUM(CASE WHEN verdict = 'WA' THEN submission_count ELSE 0 END) AS wrong_count
+                FROM %2$s
+                WHERE %1$s BETWEEN :start AND :end
+                GROUP BY %1$s
+                """.formatted(granularity.bucketColumn(), granularity.table());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("start", start)
+                .addValue("end", end);
+        Map<LocalDateTime, SubmissionTrendBucket> buckets = new HashMap<>();
+        jdbcTemplate.query(sql, params, rs -> {
+            LocalDateTime bucket = rs.getObject("bucket", LocalDateTime.class);
+            buckets.put(bucket, new SubmissionTrendBucket(
+                    bucket,
+                    granularity.label(bucket),
+                    rs.getLong("submission_count"),
+                    rs.getLong("accepted_count"),
+                    rs.getLong("wrong_count")));
+        });
+
+        List<SubmissionTrendBucket> series = new ArrayList<>();
+        for (LocalDateTime bucket = start; !bucket.isAfter(end); bucket = granularity.next(bucket)) {
+            SubmissionTrendBucket value = buckets.get(bucket);
+            series.add(value != null
+                    ? value
+                    : new SubmissionTrendBucket(bucket, granularity.label(bucket), 0, 0, 0));
         }
+        return new SubmissionTrendSeries(granularity.code(), start, end, series);
+    }
 
-        return rowMap.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> new DashboardTrendPoint(
-                        TREND_LABEL_FORMATTER.format(entry.getKey()),
-                        entry.getValue().accepted(),
-                        entry.getValue().wrong(),
-                        entry.getValue().pending()))
-                .collect(Collectors.toList());
+    private LocalDate resolveLatestRollupDate() {
+        LocalDate value;
+        try {
+            value = jdbcTemplate.queryForObject(
+                    "SELECT MAX(stat_date) FROM submission_daily_stats",
+                    MapSqlParameterSourceUtils.empty(),
+                    LocalDate.class);
+        } catch (EmptyResultDataAccessException ex) {
+            value = null;
+        }
+        return value != null ? value : LocalDate.now();
     }
 
+    /** The newest {@code size} feed events, already in order, grouped into relative-day buckets. */
     public List<DashboardActivityGroup> getActivityTimeline(int size) {
-        List<DashboardActivity> events = new ArrayList<>();
-        events.addAll(fetchRecentSubmissionsForActivity(Math.max(2, size / 3)));
-        events.addAll(fetchRecentCommentsForActivity(Math.max(2, size / 3)));
-        events.addAll(fetchUpcomingContestsForActivity(2));
-        events.addAll(fetchSecurityAuditsForActivity(2));
-
-        events.sort(Comparator.comparing(DashboardActivity::occurredAt).reversed());
+        List<DashboardActivity> events = activityFeedService.page(null, size)
+                .items()
+                .stream()
+                .map(ActivityFeedItem::toActivity)
+                .collect(Collectors.toList());
 
         if (events.isEmpty()) {
             return List.of();
@@ -316,134 +446,10 @@ public class DashboardService {
 
         return grouped.entrySet()
                 .stream()
-                .map(entry -> new DashboardActivityGroup(
-                        entry.getKey(),
-                        entry.getValue()
-                                .stream()
-                                .sorted(Comparator.comparing(DashboardActivity::occurredAt).reversed())
-                                .collect(Collectors.toList())))
+                .map(entry -> new DashboardActivityGroup(entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
     }
 
-    private List<DashboardActivity> fetchRecentSubmissionsForActivity(int limit) {
-        String sql = """
-                SELECT s.verdict,
-                       s.created_at,
-                       u.username,
-                       p.slug,
-                       COALESCE(ps_zh.title, ps_en.title, CONCAT('Problem #', p.id)) AS title
-                FROM submissions s
-                JOIN users u ON u.id = s.user_id
-                JOIN problems p ON p.id = s.problem_id
-                LEFT JOIN problem_statements ps_zh
-                          ON ps_zh.problem_id = p.id AND ps_zh.lang_code = 'zh-CN'
-                LEFT JOIN problem_statements ps_en
-                          ON ps_en.problem_id = p.id AND ps_en.lang_code = 'en'
-                ORDER BY s.created_at DESC
-                LIMIT :limit
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
-            String verdict = rs.getString("verdict");
-            String username = rs.getString("username");
-            String title = rs.getString("title");
-            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
-            boolean accepted = Objects.equals("AC", verdict);
-            String icon = accepted ? "pi pi-check-circle" : "pi pi-exclamation-triangle";
-            String accent = accepted ? "green" : "pink";
-            String message = accepted
-                    ? String.format(Locale.CHINA, "%s 通过了「%s」", username, title)
-                    : String.format(Locale.CHINA, "%s 提交「%s」判定为 %s", username, title, verdict);
-            return new DashboardActivity(message, icon, accent, createdAt);
-        });
-    }
-
-    private List<DashboardActivity> fetchRecentCommentsForActivity(int limit) {
-        String sql = """
-                SELECT c.id,
-                       c.status,
-                       c.created_at,
-                       c.entity_type,
-                       c.entity_id,
-                       u.username,
-                       COALESCE(ps_zh.title, ps_en.title, CONCAT('Problem #', c.entity_id)) AS title
-                FROM comments c
-                JOIN users u ON u.id = c.user_id
-                LEFT JOIN problems p ON c.entity_type = 'problem' AND c.entity_id = p.id
-                LEFT JOIN problem_statements ps_zh
-                          ON ps_zh.problem_id = p.id AND ps_zh.lang_code = 'zh-CN'
-                LEFT JOIN problem_statements ps_en
-                          ON ps_en.problem_id = p.id AND ps_en.lang_code = 'en'
-                ORDER BY c.created_at DESC
-                LIMIT :limit
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
-            long id = rs.getLong("id");
-            String status = rs.getString("status");
-            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
-            String username = rs.getString("username");
-            String title = rs.getString("title");
-            boolean pending = Objects.equals("pending", status);
-            String icon = pending ? "pi pi-inbox" : "pi pi-comments";
-            String accent = pending ? "orange" : "blue";
-            String message = pending
-                    ? String.format(Locale.CHINA, "评论 #%d 待审核：%s 在「%s」的回复", id, username, title)
-                    : String.format(Locale.CHINA, "%s 在「%s」发布了评论", username, title);
-            return new DashboardActivity(message, icon, accent, createdAt);
-        });
-    }
-
-    private List<DashboardActivity> fetchUpcomingContestsForActivity(int limit) {
-        String sql = """
-                SELECT title,
-                       start_time
-                FROM contests
-                WHERE start_time >= :threshold
-                ORDER BY start_time ASC
-                LIMIT :limit
-                """;
-        LocalDateTime nowAnchor = resolveLatestTimestamp("contests", "start_time");
-        MapSqlParameterSource params = new MapSqlParameterSource()
-                .addValue("limit", limit)
-                .addValue("threshold", nowAnchor.minusDays(1));
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM-dd HH:mm");
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
-            String title = rs.getString("title");
-            LocalDateTime startTime = rs.getObject("start_time", LocalDateTime.class);
-            String message = String.format(
-                    Locale.CHINA,
-                    "比赛「%s」即将在 %s 开赛",
-                    title,
-                    formatter.format(startTime));
-            return new DashboardActivity(message, "pi pi-calendar", "teal", startTime);
-        });
-    }
-
-    private List<DashboardActivity> fetchSecurityAuditsForActivity(int limit) {
-        String sql = """
-                SELECT actor_username,
-                       action,
-                       object_type,
-                       object_id,
-                       created_at
-                FROM security_audit_logs
-                ORDER BY created_at DESC
-                LIMIT :limit
-                """;
-        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
-        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
-            String actor = rs.getString("actor_username");
-            String action = rs.getString("action");
-            String objectType = rs.getString("object_type");
-            String objectId = rs.getString("object_id");
-            LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
-            String message = String.format(Locale.CHINA, "%s 调整了 %s(%s)：%s",
-                    actor, objectType, objectId, action);
-            return new DashboardActivity(message, "pi pi-shield", "cyan", createdAt);
-        });
-    }
-
     private long queryForLong(String sql, MapSqlParameterSource params) {
         Long value;
         try {
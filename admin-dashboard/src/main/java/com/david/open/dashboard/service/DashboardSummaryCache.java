@@ -0,0 +1,114 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardSummaryProperties;
+import com.david.open.dashboard.model.DashboardSummaryResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serves the dashboard summary from an immutable in-memory snapshot. A scheduled task rebuilds it;
+ * a reader that finds it older than the staleness bound still gets it immediately and only starts a
+ * background rebuild. Readers wait solely before the first snapshot exists, and then share a single
+ * rebuild instead of each running the count queries.
+ */
+@Service
+public class DashboardSummaryCache {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSummaryCache.class);
+
+    private final DashboardService dashboardService;
+    private final DashboardSummaryProperties properties;
+    private final AtomicReference<DashboardSummaryResponse> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<DashboardSummaryResponse>> inFlight =
+            new AtomicReference<>();
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-summary-refresh");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public DashboardSummaryCache(DashboardService dashboardService, DashboardSummaryProperties properties) {
+        this.dashboardService = dashboardService;
+        this.properties = properties;
+    }
+
+    public DashboardSummaryResponse getSummary() {
+        DashboardSummaryResponse current = snapshot.get();
+        if (current == null) {
+            return refresh();
+        }
+        if (isStale(current) && inFlight.get() == null) {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException ex) {
+                    log.warn("刷新仪表盘概览失败，继续使用 {} 生成的旧快照", current.generatedAt(), ex);
+                }
+            });
+        }
+        return current;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.summary.initial-delay-ms:0}",
+            fixedDelayString = "${dashboard.summary.refresh-interval-ms:30000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.error("后台刷新仪表盘概览失败", ex);
+        }
+    }
+
+    private DashboardSummaryResponse refresh() {
+        CompletableFuture<DashboardSummaryResponse> mine = new CompletableFuture<>();
+        CompletableFuture<DashboardSummaryResponse> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            DashboardSummaryResponse fresh = dashboardService.computeSummary();
+            snapshot.set(fresh);
+            mine.complete(fresh);
+            return fresh;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.set(null);
+        }
+    }
+
+    private boolean isStale(DashboardSummaryResponse summary) {
+        Duration age = Duration.between(summary.generatedAt(), LocalDateTime.now());
+        return age.compareTo(properties.maxStaleness()) > 0;
+    }
+}
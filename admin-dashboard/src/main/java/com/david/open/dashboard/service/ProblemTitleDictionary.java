@@ -0,0 +1,193 @@
+package com.david.open.dashboard.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory problem id -> title dictionary (zh-CN, falling back to en), so dashboard queries don't
+ * join problem_statements twice per row. Loaded in full on first use and hourly, and topped up from
+ * rows whose {@code updated_at} moved past the last one seen. Ids that are not in the dictionary yet
+ * are looked up on demand.
+ */
+@Service
+public class ProblemTitleDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemTitleDictionary.class);
+
+    private static final String ZH = "zh-CN";
+    private static final String EN = "en";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private volatile Map<Long, Titles> titles = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark;
+
+    public ProblemTitleDictionary(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Builds each row's result once the titles of all rows have been resolved in one pass. */
+    public <T> List<T> resolve(List<Titled<T>> rows) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Titled<T> row : rows) {
+            if (row.problemId() != null) {
+                ids.add(row.problemId());
+            }
+        }
+        Map<Long, String> resolved = titles(ids);
+        List<T> result = new ArrayList<>(rows.size());
+        for (Titled<T> row : rows) {
+            result.add(row.build().apply(row.problemId() == null ? null : resolved.get(row.problemId())));
+        }
+        return result;
+    }
+
+    public Map<Long, String> titles(Collection<Long> problemIds) {
+        ensureLoaded();
+        Map<Long, Titles> current = titles;
+        List<Long> missing = problemIds.stream().filter(id -> !current.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            loadMissing(current, missing);
+        }
+        Map<Long, String> result = new HashMap<>();
+        for (Long id : problemIds) {
+            result.put(id, current.getOrDefault(id, Titles.NONE).display(id));
+        }
+        return result;
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.problem-titles.initial-delay-ms:0}",
+            fixedDelayString = "${dashboard.problem-titles.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            if (watermark == null) {
+                ensureLoaded();
+            } else {
+                refreshChanged();
+            }
+        } catch (RuntimeException ex) {
+            log.error("刷新题目标题字典失败", ex);
+        }
+    }
+
+    // Incremental refresh never sees deleted statements; the periodic full reload drops them.
+    @Scheduled(
+            initialDelayString = "${dashboard.problem-titles.full-reload-interval-ms:3600000}",
+            fixedDelayString = "${dashboard.problem-titles.full-reload-interval-ms:3600000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException ex) {
+            log.error("重新加载题目标题字典失败", ex);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (watermark == null) {
+            synchronized (this) {
+                if (watermark == null) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private synchronized void reload() {
+        Map<Long, Titles> loaded = new ConcurrentHashMap<>();
+        LocalDateTime latest = apply(loaded, """
+                SELECT problem_id, lang_code, title, updated_at
+                FROM problem_statements
+                WHERE lang_code IN ('zh-CN', 'en')
+                """, new MapSqlParameterSource());
+        titles = loaded;
+        watermark = latest != null ? latest : LocalDateTime.MIN;
+        log.info("已加载 {} 道题目的标题", loaded.size());
+    }
+
+    private synchronized void refreshChanged() {
+        // >= rather than >: rows sharing the watermark's timestamp may have committed after the last pass
+        LocalDateTime latest = apply(titles, """
+                SELECT problem_id, lang_code, title, updated_at
+                FROM problem_statements
+                WHERE lang_code IN ('zh-CN', 'en')
+                  AND updated_at >= :since
+                """, new MapSqlParameterSource("since", watermark));
+        if (latest != null && latest.isAfter(watermark)) {
+            watermark = latest;
+        }
+    }
+
+    private void loadMissing(Map<Long, Titles> target, List<Long> problemIds) {
+        for (Long id : problemIds) {
+            target.putIfAbsent(id, Titles.NONE);
+        }
+        apply(target, """
+                SELECT problem_id, lang_code, title, updated_at
+                FROM problem_statements
+                WHERE lang_code IN ('zh-CN', 'en')
+                  AND problem_id IN (:ids)
+                """, new MapSqlParameterSource("ids", problemIds));
+    }
+
+    private LocalDateTime apply(Map<Long, Titles> target, String sql, MapSqlParameterSource params) {
+        LocalDateTime[] latest = new LocalDateTime[1];
+        jdbcTemplate.query(sql, params, rs -> {
+            long problemId = rs.getLong("problem_id");
+            String lang = rs.getString("lang_code");
+            String title = rs.getString("title");
+            target.merge(problemId, Titles.NONE.with(lang, title), Titles::overlay);
+            LocalDateTime updatedAt = rs.getObject("updated_at", LocalDateTime.class);
+            if (updatedAt != null && (latest[0] == null || updatedAt.isAfter(latest[0]))) {
+                latest[0] = updatedAt;
+            }
+        });
+        return latest[0];
+    }
+
+    /** A query row whose result needs the problem title; {@code build} gets null when {@code problemId} is null. */
+    public record Titled<T>(Long problemId, Function<String, T> build) {
+    }
+
+    private record Titles(String zh, String en) {
+
+        static final Titles NONE = new Titles(null, null);
+
+        Titles with(String lang, String title) {
+            if (ZH.equals(lang)) {
+                return new Titles(title, en);
+            }
+            if (EN.equals(lang)) {
+                return new Titles(zh, title);
+            }
+            return this;
+        }
+
+        Titles overlay(Titles update) {
+            return new Titles(
+                    update.zh != null ? update.zh : zh,
+                    update.en != null ? update.en : en);
+        }
+
+        String display(long problemId) {
+            if (zh != null) {
+                return zh;
+            }
+            return en != null ? en : "Problem #" + problemId;
+        }
+    }
+}
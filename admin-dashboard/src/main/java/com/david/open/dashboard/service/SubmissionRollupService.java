@@ -0,0 +1,356 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardRollupProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Folds new submissions into the rollup tables (hourly, daily, weekly, per-problem). Each table has its own
+ * watermark; every batch locks it, aggregates the next contiguous id range with
+ * INSERT ... SELECT ... ON DUPLICATE KEY UPDATE and moves the watermark in the same transaction, so each
+ * submission is counted exactly once even with several instances running. A newly added table backfills
+ * on its own from id 0, except the hourly table, which starts at the hourly retention boundary. Runs go to
+ * a dedicated thread so a long backfill never holds up the shared scheduler.
+ */
+@Service
+public class SubmissionRollupService {
+
+    static final String DAILY_ROLLUP = "submission_daily_stats";
+    static final String HOURLY_ROLLUP = "submission_hourly_stats";
+    static final String WEEKLY_ROLLUP = "submission_weekly_stats";
+    static final String PROBLEM_STATS = "problem_stats";
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionRollupService.class);
+
+    private static final String PROBLEM_SOLVERS_FOLD_SQL = """
+            INSERT IGNORE INTO problem_solvers (problem_id, user_id, first_submission_id, first_accepted_at)
+            SELECT s.problem_id, s.user_id, MIN(s.id), MIN(s.created_at)
+            FROM submissions s
+            WHERE s.id > :lastId
+              AND s.id <= :upperId
+              AND s.verdict = 'AC'
+              AND s.problem_id IS NOT NULL
+              AND s.user_id IS NOT NULL
+            GROUP BY s.problem_id, s.user_id
+            """;
+
+    private static final List<RollupTarget> TARGETS = List.of(
+            new RollupTarget(DAILY_ROLLUP, List.of("""
+                    INSERT INTO submission_daily_stats
+                        (stat_date, verdict, language_id, problem_id, submission_count)
+                    SELECT DATE(s.created_at),
+                           COALESCE(s.verdict, ''),
+                           COALESCE(s.language_id, 0),
+                           COALESCE(s.problem_id, 0),
+                           COUNT(*)
+                    FROM submissions s
+                    WHERE s.id > :lastId
+                      AND s.id <= :upperId
+                      AND s.created_at IS NOT NULL
+                    GROUP BY DATE(s.created_at), COALESCE(s.verdict, ''),
+                             COALESCE(s.language_id, 0), COALESCE(s.problem_id, 0)
+                    ON DUPLICATE KEY UPDATE
+                        submission_count = submission_count + VALUES(submission_count)
+                    """)),
+            new RollupTarget(HOURLY_ROLLUP, List.of("""
+                    INSERT INTO submission_hourly_stats (stat_hour, verdict, submission_count)
+                    SELECT TIMESTAMP(DATE(s.created_at), MAKETIME(HOUR(s.created_at), 0, 0)) AS stat_hour,
+                           COALESCE(s.verdict, '') AS verdict,
+                           COUNT(*)
+                    FROM submissions s
+                    WHERE s.id > :lastId
+                      AND s.id <= :upperId
+                      AND s.created_at IS NOT NULL
+                    GROUP BY stat_hour, COALESCE(s.verdict, '')
+                    ON DUPLICATE KEY UPDATE
+                        submission_count = submission_count + VALUES(submission_count)
+                    """)),
+            new RollupTarget(WEEKLY_ROLLUP, List.of("""
+                    INSERT INTO submission_weekly_stats (week_start, verdict, submission_count)
+                    SELECT DATE(s.created_at) - INTERVAL WEEKDAY(s.created_at) DAY AS week_start,
+                           COALESCE(s.verdict, '') AS verdict,
+                           COUNT(*)
+                    FROM submissions s
+                    WHERE s.id > :lastId
+                      AND s.id <= :upperId
+                      AND s.created_at IS NOT NULL
+                    GROUP BY week_start, COALESCE(s.verdict, '')
+                    ON DUPLICATE KEY UPDATE
+                        submission_count = submission_count + VALUES(submission_count)
+                    """)),
+            // Solvers first, so the second statement can count the users whose first AC is in this range.
+            new RollupTarget(PROBLEM_STATS, List.of(PROBLEM_SOLVERS_FOLD_SQL, """
+                    INSERT INTO problem_stats
+                        (problem_id, submission_count, accepted_count, solved_count,
+                         acceptance_rate, last_submission_at, updated_at)
+                    SELECT b.problem_id,
+                           b.submission_count,
+                           b.accepted_count,
+                           COALESCE(n.new_solvers, 0),
+                           ROUND(100 * b.accepted_count / b.submission_count, 2),
+                           b.last_submission_at,
+                           NOW()
+                    FROM (SELECT s.problem_id,
+                                 COUNT(*)                  AS submission_count,
+                                 SUM(s.verdict = 'AC')     AS accepted_count,
+                                 MAX(s.created_at)         AS last_submission_at
+                          FROM submissions s
+                          WHERE s.id > :lastId
+                            AND s.id <= :upperId
+                            AND s.problem_id IS NOT NULL
+                          GROUP BY s.problem_id) b
+                    LEFT JOIN (SELECT problem_id, COUNT(*) AS new_solvers
+                               FROM problem_solvers
+                               WHERE first_submission_id > :lastId
+                                 AND first_submission_id <= :upperId
+                               GROUP BY problem_id) n ON n.problem_id = b.problem_id
+                    ON DUPLICATE KEY UPDATE
+                        submission_count   = submission_count + VALUES(submission_count),
+                        accepted_count     = accepted_count + VALUES(accepted_count),
+                        solved_count       = solved_count + VALUES(solved_count),
+                        acceptance_rate    = ROUND(100 * accepted_count / submission_count, 2),
+                        last_submission_at = GREATEST(COALESCE(last_submission_at, VALUES(last_submission_at)),
+                                                      VALUES(last_submission_at)),
+                        updated_at         = VALUES(updated_at)
+                    """))
+    );
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardRollupProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1,
+            1,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-rollup");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public SubmissionRollupService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DashboardRollupProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.rollup.initial-delay-ms:10000}",
+            fixedDelayString = "${dashboard.rollup.interval-ms:60000}")
+    public void rollup() {
+        if (!properties.enabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::runRollup);
+        } catch (RuntimeException ex) {
+            running.set(false);
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runRollup() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.settleDelay());
+            for (RollupTarget target : TARGETS) {
+                try {
+                    rollup(target, cutoff);
+                } catch (RuntimeException ex) {
+                    log.error("提交统计汇总失败: {}", target.name(), ex);
+                }
+            }
+            purgeExpiredHours();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void rollup(RollupTarget target, LocalDateTime cutoff) {
+        ensureWatermark(target.name());
+        int folded = 0;
+        for (int i = 0; i < Math.max(properties.maxBatchesPerRun(), 1); i++) {
+            Integer batch = transactionTemplate.execute(status -> foldNextBatch(target, cutoff));
+            if (batch == null || batch == 0) {
+                break;
+            }
+            folded += batch;
+        }
+        if (folded > 0) {
+            log.debug("{} 已累加 {} 条提交", target.name(), folded);
+        }
+    }
+
+    private int foldNextBatch(RollupTarget target, LocalDateTime cutoff) {
+        long lastId = lockWatermark(target.name());
+        List<SubmissionStamp> candidates = jdbcTemplate.query(
+                """
+                        SELECT id, created_at
+                        FROM submissions
+                        WHERE id > :lastId
+                        ORDER BY id
+                        LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("lastId", lastId)
+                        .addValue("limit", Math.max(properties.batchSize(), 1)),
+                (rs, rowNum) -> new SubmissionStamp(
+                        rs.getLong("id"),
+                        rs.getObject("created_at", LocalDateTime.class)));
+
+        int count = settledPrefix(candidates, cutoff);
+        if (count == 0) {
+            return 0;
+        }
+        long upperId = candidates.get(count - 1).id();
+
+        MapSqlParameterSource range = new MapSqlParameterSource()
+                .addValue("lastId", lastId)
+                .addValue("upperId", upperId);
+        for (String sql : target.foldSql()) {
+            jdbcTemplate.update(sql, range);
+        }
+        jdbcTemplate.update(
+                """
+                        UPDATE dashboard_rollup_watermarks
+                        SET last_id = :upperId, updated_at = :now
+                        WHERE name = :name
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("upperId", upperId)
+                        .addValue("now", LocalDateTime.now())
+                        .addValue("name", target.name()));
+        return count;
+    }
+
+    /**
+     * Length of the leading run of settled submissions; folding stops at the first unsettled one so the
+     * range stays contiguous. A submission without created_at never settles later, so it counts as settled
+     * (the time-bucketed tables skip it) rather than holding the watermark back forever.
+     */
+    static int settledPrefix(List<SubmissionStamp> candidates, LocalDateTime cutoff) {
+        int count = 0;
+        for (SubmissionStamp candidate : candidates) {
+            if (candidate.createdAt() != null && !candidate.createdAt().isBefore(cutoff)) {
+                break;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private void purgeExpiredHours() {
+        try {
+            int deleted = jdbcTemplate.update(
+                    "DELETE FROM submission_hourly_stats WHERE stat_hour < :threshold LIMIT 10000",
+                    new MapSqlParameterSource(
+                            "threshold", LocalDateTime.now().minus(properties.hourlyRetention())));
+            if (deleted > 0) {
+                log.debug("清理过期小时统计 {} 行", deleted);
+            }
+        } catch (RuntimeException ex) {
+            log.error("清理过期小时统计失败", ex);
+        }
+    }
+
+    private void ensureWatermark(String name) {
+        long startId = 0L;
+        if (HOURLY_ROLLUP.equals(name) && !watermarkExists(name)) {
+            // Hours older than the retention would be purged right after folding; start past them.
+            startId = lastIdBefore(LocalDateTime.now().minus(properties.hourlyRetention()));
+        }
+        jdbcTemplate.update(
+                """
+                        INSERT IGNORE INTO dashboard_rollup_watermarks (name, last_id, updated_at)
+                        VALUES (:name, :startId, :now)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("name", name)
+                        .addValue("startId", startId)
+                        .addValue("now", LocalDateTime.now()));
+    }
+
+    private boolean watermarkExists(String name) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM dashboard_rollup_watermarks WHERE name = :name",
+                new MapSqlParameterSource("name", name),
+                Integer.class);
+        return count != null && count > 0;
+    }
+
+    private long lastIdBefore(LocalDateTime threshold) {
+        Long lastId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM submissions WHERE created_at < :threshold",
+                new MapSqlParameterSource("threshold", threshold),
+                Long.class);
+        return lastId == null ? 0L : lastId;
+    }
+
+    private long lockWatermark(String name) {
+        Long lastId = jdbcTemplate.queryForObject(
+                "SELECT last_id FROM dashboard_rollup_watermarks WHERE name = :name FOR UPDATE",
+                new MapSqlParameterSource("name", name),
+                Long.class);
+        return lastId == null ? 0L : lastId;
+    }
+
+    /**
+     * Recomputes problem_stats and problem_solvers from every submission up to the current watermark.
+     * Holds the watermark lock for the whole rebuild, so incremental folds wait and then continue from
+     * the same point; readers keep seeing the old rows until the transaction commits.
+     */
+    public int rebuildProblemStats() {
+        ensureWatermark(PROBLEM_STATS);
+        Integer rebuilt = transactionTemplate.execute(status -> {
+            long upperId = lockWatermark(PROBLEM_STATS);
+            MapSqlParameterSource range = new MapSqlParameterSource()
+                    .addValue("lastId", 0L)
+                    .addValue("upperId", upperId);
+            jdbcTemplate.update("DELETE FROM problem_solvers", range);
+            jdbcTemplate.update("DELETE FROM problem_stats", range);
+            for (String sql : problemStatsTarget().foldSql()) {
+                jdbcTemplate.update(sql, range);
+            }
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM problem_stats", range, Integer.class);
+        });
+        log.info("已重建题目统计，共 {} 道题目", rebuilt);
+        return rebuilt == null ? 0 : rebuilt;
+    }
+
+    private static RollupTarget problemStatsTarget() {
+        return TARGETS.stream()
+                .filter(target -> PROBLEM_STATS.equals(target.name()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private record RollupTarget(String name, List<String> foldSql) {
+    }
+
+    record SubmissionStamp(long id, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.david.open.dashboard.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Bucket sizes for the submission trend series, each backed by its own rollup table.
+ */
+public enum TrendGranularity {
+    HOUR("submission_hourly_stats", "stat_hour", 48, 24 * 31, DateTimeFormatter.ofPattern("MM-dd HH:00")),
+    DAY("submission_daily_stats", "stat_date", 30, 366, DateTimeFormatter.ofPattern("MM-dd")),
+    WEEK("submission_weekly_stats", "week_start", 52, 53 * 5, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+
+    private final String table;
+    private final String bucketColumn;
+    private final int defaultBuckets;
+    private final int maxBuckets;
+    private final DateTimeFormatter labelFormatter;
+
+    TrendGranularity(
+            String table,
+            String bucketColumn,
+            int defaultBuckets,
+            int maxBuckets,
+            DateTimeFormatter labelFormatter) {
+        this.table = table;
+        this.bucketColumn = bucketColumn;
+        this.defaultBuckets = defaultBuckets;
+        this.maxBuckets = maxBuckets;
+        this.labelFormatter = labelFormatter;
+    }
+
+    public static TrendGranularity fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            return DAY;
+        }
+        return switch (code.trim().toLowerCase(Locale.ROOT)) {
+            case "hour", "hourly" -> HOUR;
+            case "week", "weekly" -> WEEK;
+            default -> DAY;
+        };
+    }
+
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    String table() {
+        return table;
+    }
+
+    String bucketColumn() {
+        return bucketColumn;
+    }
+
+    int defaultBuckets() {
+        return defaultBuckets;
+    }
+
+    int maxBuckets() {
+        return maxBuckets;
+    }
+
+    String label(LocalDateTime bucketStart) {
+        return labelFormatter.format(bucketStart);
+    }
+
+    LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS)
+                    .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    LocalDateTime next(LocalDateTime bucketStart) {
+        return switch (this) {
+            case HOUR -> bucketStart.plusHours(1);
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+        };
+    }
+
+    LocalDateTime minus(LocalDateTime bucketStart, long buckets) {
+        return switch (this) {
+            case HOUR -> bucketStart.minusHours(buckets);
+            case DAY -> bucketStart.minusDays(buckets);
+            case WEEK -> bucketStart.minusWeeks(buckets);
+        };
+    }
+}
@@ -0,0 +1,303 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardTrendingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Exponentially decayed submission activity per problem. Scores use forward decay: an event at time t
+ * adds {@code w * e^(λ(t - reference))}, so all scores share the same pending decay factor and their
+ * order only changes when events arrive. After each poll the top list is rebuilt once, and readers get
+ * it in constant time. Scores and the submission watermark are checkpointed to the database together, by
+ * one instance at a time: the checkpoint only proceeds while this instance holds the writer lease.
+ */
+@Service
+public class TrendingProblemTracker {
+
+    static final String WATERMARK = "problem_trending";
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingProblemTracker.class);
+    // rebase well before e^x overflows (x > 709)
+    private static final double MAX_EXPONENT = 200;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DashboardTrendingProperties properties;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final String instanceId = UUID.randomUUID().toString();
+    private final double lambdaPerMs;
+    private final Map<Long, double[]> scores = new HashMap<>();
+    private long referenceMs;
+    private long lastSubmissionId;
+    private boolean loaded;
+    private volatile List<TrendingScore> top = List.of();
+
+    public TrendingProblemTracker(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DashboardTrendingProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.lambdaPerMs = Math.log(2) / Math.max(properties.halfLife().toMillis(), 1);
+        this.referenceMs = System.currentTimeMillis();
+    }
+
+    /** Highest scores as of the last poll, best first; never touches the database. */
+    public List<TrendingScore> top(int limit) {
+        List<TrendingScore> current = top;
+        return current.subList(0, Math.min(limit, current.size()));
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.trending.initial-delay-ms:5000}",
+            fixedDelayString = "${dashboard.trending.poll-interval-ms:30000}")
+    public synchronized void poll() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+            int batchSize = Math.max(properties.batchSize(), 1);
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.settleDelay());
+            int read;
+            do {
+                read = consumeBatch(batchSize, cutoff);
+            } while (read == batchSize);
+            publishTop(System.currentTimeMillis());
+        } catch (RuntimeException ex) {
+            log.error("更新热门题目评分失败", ex);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${dashboard.trending.persist-interval-ms:300000}",
+            fixedDelayString = "${dashboard.trending.persist-interval-ms:300000}")
+    public synchronized void persist() {
+        if (!properties.enabled() || !loaded) {
+            return;
+        }
+        try {
+            long nowMs = System.currentTimeMillis();
+            LocalDateTime scoredAt = toLocalDateTime(nowMs);
+            List<SqlParameterSource> rows = new ArrayList<>(scores.size());
+            scores.forEach((problemId, value) -> rows.add(new MapSqlParameterSource()
+                    .addValue("problemId", problemId)
+                    .addValue("score", decayed(value[0], nowMs))
+                    .addValue("scoredAt", scoredAt)));
+            long watermark = lastSubmissionId;
+            Boolean written = transactionTemplate.execute(status -> {
+                if (!acquireWriterLease(scoredAt)) {
+                    return false;
+                }
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(
+                            """
+                                    INSERT INTO problem_trending_scores (problem_id, score, scored_at)
+                                    VALUES (:problemId, :score, :scoredAt)
+                                    ON DUPLICATE KEY UPDATE score = VALUES(score), scored_at = VALUES(scored_at)
+                                    """,
+                            rows.toArray(SqlParameterSource[]::new));
+                }
+                jdbcTemplate.update(
+                        "DELETE FROM problem_trending_scores WHERE scored_at < :scoredAt",
+                        new MapSqlParameterSource("scoredAt", scoredAt));
+                jdbcTemplate.update(
+                        """
+                                INSERT INTO dashboard_rollup_watermarks (name, last_id, updated_at)
+                                VALUES (:name, :lastId, :now)
+                                ON DUPLICATE KEY UPDATE last_id = VALUES(last_id), updated_at = VALUES(updated_at)
+                                """,
+                        new MapSqlParameterSource()
+                                .addValue("name", WATERMARK)
+                                .addValue("lastId", watermark)
+                                .addValue("now", scoredAt));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(written)) {
+                log.debug("热门题目评分由其他实例保存，本实例跳过");
+            }
+        } catch (RuntimeException ex) {
+            log.error("保存热门题目评分失败", ex);
+        }
+    }
+
+    /** Locks the lease row and renews it when this instance owns it or the owner let it expire. */
+    private boolean acquireWriterLease(LocalDateTime now) {
+        jdbcTemplate.update(
+                """
+                        INSERT IGNORE INTO dashboard_writer_leases (name, owner, expires_at)
+                        VALUES (:name, :owner, :now)
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("name", WATERMARK)
+                        .addValue("owner", instanceId)
+                        .addValue("now", now));
+        Boolean available = jdbcTemplate.query(
+                "SELECT owner, expires_at FROM dashboard_writer_leases WHERE name = :name FOR UPDATE",
+                new MapSqlParameterSource("name", WATERMARK),
+                rs -> rs.next()
+                        && (instanceId.equals(rs.getString("owner"))
+                                || !rs.getObject("expires_at", LocalDateTime.class).isAfter(now)));
+        if (!Boolean.TRUE.equals(available)) {
+            return false;
+        }
+        jdbcTemplate.update(
+                "UPDATE dashboard_writer_leases SET owner = :owner, expires_at = :expiresAt WHERE name = :name",
+                new MapSqlParameterSource()
+                        .addValue("name", WATERMARK)
+                        .addValue("owner", instanceId)
+                        .addValue("expiresAt", now.plus(properties.writerLease())));
+        return true;
+    }
+
+    private void load() {
+        long nowMs = System.currentTimeMillis();
+        referenceMs = nowMs;
+        List<Long> watermark = jdbcTemplate.queryForList(
+                "SELECT last_id FROM dashboard_rollup_watermarks WHERE name = :name",
+                new MapSqlParameterSource("name", WATERMARK),
+                Long.class);
+        if (!watermark.isEmpty() && watermark.get(0) != null) {
+            lastSubmissionId = watermark.get(0);
+            jdbcTemplate.query(
+                    "SELECT problem_id, score, scored_at FROM problem_trending_scores",
+                    new MapSqlParameterSource(),
+                    rs -> {
+                        long scoredAtMs = toEpochMillis(rs.getObject("scored_at", LocalDateTime.class));
+                        // the stored score is already decayed to scored_at; move it into the forward frame
+                        double value = rs.getDouble("score") * Math.exp(lambdaPerMs * (scoredAtMs - referenceMs));
+                        scores.put(rs.getLong("problem_id"), new double[] {value});
+                    });
+            log.info("已恢复热门题目评分: problems={}, watermark={}", scores.size(), lastSubmissionId);
+            return;
+        }
+        Long firstId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM submissions WHERE created_at >= :since",
+                new MapSqlParameterSource("since", toLocalDateTime(nowMs - properties.warmup().toMillis())),
+                Long.class);
+        lastSubmissionId = firstId == null ? maxSubmissionId() : firstId - 1;
+        log.info("热门题目评分从提交 {} 之后开始预热", lastSubmissionId);
+    }
+
+    private long maxSubmissionId() {
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM submissions", new MapSqlParameterSource(), Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    /** Consumes settled submissions only, stopping at the first one still inside the settle delay. */
+    private int consumeBatch(int batchSize, LocalDateTime cutoff) {
+        List<SubmissionEvent> events = jdbcTemplate.query(
+                """
+                        SELECT id, problem_id, verdict, created_at
+                        FROM submissions
+                        WHERE id > :lastId
+                        ORDER BY id
+                        LIMIT :limit
+                        """,
+                new MapSqlParameterSource()
+                        .addValue("lastId", lastSubmissionId)
+                        .addValue("limit", batchSize),
+                (rs, rowNum) -> new SubmissionEvent(
+                        rs.getLong("id"),
+                        rs.getObject("problem_id", Long.class),
+                        rs.getString("verdict"),
+                        rs.getObject("created_at", LocalDateTime.class)));
+        int consumed = 0;
+        for (SubmissionEvent event : events) {
+            if (event.createdAt() != null && !event.createdAt().isBefore(cutoff)) {
+                break;
+            }
+            lastSubmissionId = event.id();
+            consumed++;
+            if (event.problemId() == null || event.createdAt() == null) {
+                continue;
+            }
+            double weight = Objects.equals("AC", event.verdict()) ? properties.acceptedWeight() : 1.0;
+            add(event.problemId(), toEpochMillis(event.createdAt()), weight);
+        }
+        return consumed;
+    }
+
+    private void add(long problemId, long eventMs, double weight) {
+        double exponent = lambdaPerMs * (eventMs - referenceMs);
+        if (exponent > MAX_EXPONENT) {
+            rebase(eventMs);
+            exponent = 0;
+        }
+        scores.computeIfAbsent(problemId, id -> new double[1])[0] += weight * Math.exp(exponent);
+    }
+
+    private void rebase(long newReferenceMs) {
+        double factor = Math.exp(-lambdaPerMs * (newReferenceMs - referenceMs));
+        for (double[] value : scores.values()) {
+            value[0] *= factor;
+        }
+        referenceMs = newReferenceMs;
+    }
+
+    private void publishTop(long nowMs) {
+        if (lambdaPerMs * (nowMs - referenceMs) > MAX_EXPONENT) {
+            rebase(nowMs);
+        }
+        int size = Math.max(properties.topSize(), 1);
+        PriorityQueue<TrendingScore> heap = new PriorityQueue<>(Comparator.comparingDouble(TrendingScore::score));
+        Iterator<Map.Entry<Long, double[]>> iterator = scores.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, double[]> entry = iterator.next();
+            double score = decayed(entry.getValue()[0], nowMs);
+            if (score < properties.minScore()) {
+                iterator.remove();
+                continue;
+            }
+            heap.offer(new TrendingScore(entry.getKey(), score));
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        List<TrendingScore> ranked = new ArrayList<>(heap);
+        ranked.sort(Comparator.comparingDouble(TrendingScore::score).reversed());
+        top = List.copyOf(ranked);
+    }
+
+    private double decayed(double forwardValue, long nowMs) {
+        return forwardValue * Math.exp(-lambdaPerMs * (nowMs - referenceMs));
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), zone);
+    }
+
+    public record TrendingScore(long problemId, double score) {
+    }
+
+    private record SubmissionEvent(long id, Long problemId, String verdict, LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.david.open.dashboard.service;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Cheap stand-ins for widget content, compared by {@link WidgetSnapshotCache} before it reruns a
+ * widget's loader. Each returns a value that changes whenever the widget's data can have changed.
+ */
+@Service
+public class WidgetDataVersions {
+
+    private static final List<String> ROLLUPS = List.of(
+            SubmissionRollupService.DAILY_ROLLUP,
+            SubmissionRollupService.HOURLY_ROLLUP,
+            SubmissionRollupService.WEEKLY_ROLLUP,
+            SubmissionRollupService.PROBLEM_STATS);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TrendingProblemTracker trendingProblemTracker;
+    private final ActivityFeedService activityFeedService;
+
+    public WidgetDataVersions(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TrendingProblemTracker trendingProblemTracker,
+            ActivityFeedService activityFeedService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trendingProblemTracker = trendingProblemTracker;
+        this.activityFeedService = activityFeedService;
+    }
+
+    /** Rollup tables only change when their watermark moves. */
+    public List<String> rollups() {
+        return jdbcTemplate.query(
+                """
+                        SELECT name, last_id
+                        FROM dashboard_rollup_watermarks
+                        WHERE name IN (:names)
+                        ORDER BY name
+                        """,
+                new MapSqlParameterSource("names", ROLLUPS),
+                (rs, rowNum) -> rs.getString("name") + ":" + rs.getLong("last_id"));
+    }
+
+    /** An open range ends at the current bucket, which moves with the clock. */
+    public List<Object> trendSeries(TrendGranularity granularity, LocalDateTime to) {
+        return List.of(rollups(), to != null ? to : granularity.truncate(LocalDateTime.now()));
+    }
+
+    /** Ids and verdicts of the newest submissions, without the joins of the widget query. */
+    public List<String> latestSubmissions(int limit) {
+        return jdbcTemplate.query(
+                """
+                        SELECT id, verdict, score
+                        FROM submissions
+                        ORDER BY created_at DESC
+                        LIMIT :limit
+                        """,
+                new MapSqlParameterSource("limit", limit),
+                (rs, rowNum) -> rs.getLong("id") + ":" + rs.getString("verdict") + ":" + rs.getObject("score"));
+    }
+
+    public List<Object> trendingProblems(int limit) {
+        return List.of(trendingProblemTracker.top(limit * 2), rollups());
+    }
+
+    public long activities() {
+        return activityFeedService.version();
+    }
+}
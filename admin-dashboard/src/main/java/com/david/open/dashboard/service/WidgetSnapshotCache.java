@@ -0,0 +1,129 @@
+package com.david.open.dashboard.service;
+
+import com.david.open.dashboard.config.DashboardSnapshotProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived snapshots of dashboard widget responses, each tagged with a weak ETag derived from the
+ * part of its content that matters (summary and overview leave out their generation time, so the bytes
+ * may differ while the data is the same). While a snapshot is fresh, requests are answered from memory,
+ * so a matching {@code If-None-Match} costs no database work at all. Once it ages past {@code maxAge}, a
+ * widget with a cheap data version (a watermark, the ids of its newest rows) compares that first and
+ * keeps the snapshot when nothing moved, so the full loader only runs when the data changed. A
+ * recomputed value with the same content keeps the previous snapshot. Being content-derived, the tag
+ * also agrees across instances behind the gateway.
+ */
+@Service
+public class WidgetSnapshotCache {
+
+    private final ObjectMapper objectMapper;
+    private final DashboardSnapshotProperties properties;
+    private final Map<String, WidgetSnapshot<?>> snapshots;
+    private final Map<String, CompletableFuture<WidgetSnapshot<?>>> inFlight = new ConcurrentHashMap<>();
+
+    public WidgetSnapshotCache(ObjectMapper objectMapper, DashboardSnapshotProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        int maxEntries = Math.max(properties.maxEntries(), 1);
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, WidgetSnapshot<?>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the fresh snapshot for {@code key}, or loads one. Concurrent requests for an expired
+     * key share a single load. {@code versionKey} selects the part of the value the ETag covers.
+     */
+    public <T> WidgetSnapshot<T> get(String key, Supplier<T> loader, Function<T, ?> versionKey) {
+        return get(key, loader, versionKey, null, value -> true);
+    }
+
+    /**
+     * Like {@link #get(String, Supplier, Function)}, but an expired snapshot is renewed without
+     * loading while {@code dataVersion} returns the value it had at the last load and the cached value
+     * is {@code reusable}. A {@code null} data version always reloads.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> WidgetSnapshot<T> get(
+            String key,
+            Supplier<T> loader,
+            Function<T, ?> versionKey,
+            Supplier<?> dataVersion,
+            Predicate<T> reusable) {
+        WidgetSnapshot<T> current;
+        synchronized (snapshots) {
+            current = (WidgetSnapshot<T>) snapshots.get(key);
+        }
+        long now = System.nanoTime();
+        if (current != null && now - current.loadedAtNanos() < properties.maxAge().toNanos()) {
+            return current;
+        }
+        // read before loading: a change that lands during the load shows up as a new version next time
+        Object version = dataVersion != null ? dataVersion.get() : null;
+        if (current != null
+                && version != null
+                && version.equals(current.dataVersion())
+                && reusable.test(current.body())) {
+            WidgetSnapshot<T> renewed = new WidgetSnapshot<>(current.body(), current.etag(), version, now);
+            synchronized (snapshots) {
+                snapshots.put(key, renewed);
+            }
+            return renewed;
+        }
+        CompletableFuture<WidgetSnapshot<?>> mine = new CompletableFuture<>();
+        CompletableFuture<WidgetSnapshot<?>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return (WidgetSnapshot<T>) running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            T value = loader.get();
+            String etag = etagOf(versionKey.apply(value));
+            WidgetSnapshot<T> next = current != null && current.etag().equals(etag)
+                    ? new WidgetSnapshot<>(current.body(), etag, version, System.nanoTime())
+                    : new WidgetSnapshot<>(value, etag, version, System.nanoTime());
+            synchronized (snapshots) {
+                snapshots.put(key, next);
+            }
+            mine.complete(next);
+            return next;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private String etagOf(Object version) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(version));
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot compute widget ETag", ex);
+        }
+    }
+
+    public record WidgetSnapshot<T>(T body, String etag, Object dataVersion, long loadedAtNanos) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.david.open.dashboard.service.activity;
+
+import com.david.open.dashboard.model.ActivityFeedItem;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position in the feed. The feed is ordered newest first by occurrence time, then by source name and
+ * source id descending, so every event has exactly one position even when timestamps collide.
+ */
+public record ActivityCursor(LocalDateTime occurredAt, String source, long sourceId) {
+
+    public static final Comparator<ActivityFeedItem> NEWEST_FIRST =
+            Comparator.comparing(ActivityFeedItem::occurredAt, Comparator.reverseOrder())
+                    .thenComparing(ActivityFeedItem::source)
+                    .thenComparing(ActivityFeedItem::sourceId, Comparator.reverseOrder());
+
+    public static ActivityCursor of(ActivityFeedItem item) {
+        return new ActivityCursor(item.occurredAt(), item.source(), item.sourceId());
+    }
+
+    /** Returns null for a blank token; throws {@link IllegalArgumentException} for a malformed one. */
+    public static ActivityCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed activity cursor");
+            }
+            return new ActivityCursor(LocalDateTime.parse(parts[0]), parts[1], Long.parseLong(parts[2]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Malformed activity cursor", ex);
+        }
+    }
+
+    public String encode() {
+        String raw = occurredAt + "|" + source + "|" + sourceId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** True when {@code item} comes after this position, i.e. it belongs to an older page. */
+    public boolean isFollowedBy(ActivityFeedItem item) {
+        return NEWEST_FIRST.compare(asItem(), item) < 0;
+    }
+
+    /** True when {@code item} is newer than this position. */
+    public boolean isPrecededBy(ActivityFeedItem item) {
+        return NEWEST_FIRST.compare(item, asItem()) < 0;
+    }
+
+    private ActivityFeedItem asItem() {
+        return new ActivityFeedItem(source, sourceId, null, null, null, occurredAt);
+    }
+}
@@ -0,0 +1,44 @@
+package com.david.open.dashboard.service.activity;
+
+import com.david.open.dashboard.model.ActivityFeedItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public final class ActivityMerger {
+
+    private ActivityMerger() {
+    }
+
+    /**
+     * K-way merge of per-source lists that are each already in feed order, stopping after
+     * {@code limit} events: O(limit · log k) instead of concatenating and sorting everything.
+     */
+    public static List<ActivityFeedItem> merge(List<List<ActivityFeedItem>> sources, int limit) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(
+                Math.max(sources.size(), 1),
+                (a, b) -> ActivityCursor.NEWEST_FIRST.compare(a.current(), b.current()));
+        for (List<ActivityFeedItem> source : sources) {
+            if (!source.isEmpty()) {
+                heads.add(new Head(source, 0));
+            }
+        }
+        List<ActivityFeedItem> merged = new ArrayList<>(Math.min(limit, 64));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.current());
+            if (head.index() + 1 < head.items().size()) {
+                heads.add(new Head(head.items(), head.index() + 1));
+            }
+        }
+        return merged;
+    }
+
+    private record Head(List<ActivityFeedItem> items, int index) {
+
+        ActivityFeedItem current() {
+            return items.get(index);
+        }
+    }
+}
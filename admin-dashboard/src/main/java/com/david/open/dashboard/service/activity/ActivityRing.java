@@ -0,0 +1,100 @@
+package com.david.open.dashboard.service.activity;
+
+import com.david.open.dashboard.model.ActivityFeedItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size circular buffer holding the newest events of one source in feed order. Appending past
+ * capacity evicts the oldest event; events that arrive slightly out of order are slotted into place.
+ */
+public class ActivityRing {
+
+    private final ActivityFeedItem[] slots;
+    private int head;
+    private int size;
+    private boolean complete = true;
+
+    public ActivityRing(int capacity) {
+        this.slots = new ActivityFeedItem[Math.max(capacity, 1)];
+    }
+
+    public synchronized void append(ActivityFeedItem item) {
+        int pos = size;
+        while (pos > 0 && ActivityCursor.NEWEST_FIRST.compare(get(pos - 1), item) < 0) {
+            pos--;
+        }
+        if (pos > 0 && ActivityCursor.NEWEST_FIRST.compare(get(pos - 1), item) == 0) {
+            return;
+        }
+        if (size == slots.length) {
+            complete = false;
+            if (pos == 0) {
+                // older than everything retained
+                return;
+            }
+            slots[head] = null;
+            head = (head + 1) % slots.length;
+            size--;
+            pos--;
+        }
+        for (int i = size; i > pos; i--) {
+            set(i, get(i - 1));
+        }
+        set(pos, item);
+        size++;
+    }
+
+    /** Replaces the contents; {@code complete} says whether the source has no events beyond these. */
+    public synchronized void replaceAll(List<ActivityFeedItem> items, boolean complete) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+        }
+        head = 0;
+        size = 0;
+        for (ActivityFeedItem item : items) {
+            append(item);
+        }
+        this.complete = complete && items.size() <= slots.length;
+    }
+
+    public synchronized List<ActivityFeedItem> newestFirst() {
+        List<ActivityFeedItem> items = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            items.add(get(i));
+        }
+        return items;
+    }
+
+    /** False once events of the source may exist that are no longer (or were never) held here. */
+    public synchronized boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Swaps in a re-rendered version of an event already held here (same position in feed order).
+     * Returns whether anything changed; events no longer in the ring are ignored.
+     */
+    public synchronized boolean replace(ActivityFeedItem item) {
+        for (int i = 0; i < size; i++) {
+            ActivityFeedItem current = get(i);
+            if (ActivityCursor.NEWEST_FIRST.compare(current, item) == 0) {
+                if (current.equals(item)) {
+                    return false;
+                }
+                set(i, item);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ActivityFeedItem get(int index) {
+        return slots[(head + index) % slots.length];
+    }
+
+    private void set(int index, ActivityFeedItem item) {
+        slots[(head + index) % slots.length] = item;
+    }
+}
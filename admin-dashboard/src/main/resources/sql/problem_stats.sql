@@ -0,0 +1,26 @@
+-- Per-problem statistics maintained by SubmissionRollupService, replacing the vw_problem_stats view
+-- that aggregated submissions on every read. Counts settled submissions up to the 'problem_stats'
+-- watermark in dashboard_rollup_watermarks; POST /api/admin/dashboard/problem-stats/rebuild
+-- recomputes both tables from scratch.
+CREATE TABLE IF NOT EXISTS problem_stats (
+    problem_id         BIGINT        NOT NULL PRIMARY KEY,
+    submission_count   INT           NOT NULL DEFAULT 0,
+    accepted_count     INT           NOT NULL DEFAULT 0,
+    solved_count       INT           NOT NULL DEFAULT 0,
+    -- accepted submissions / all submissions, in percent
+    acceptance_rate    DECIMAL(5, 2) NULL,
+    last_submission_at DATETIME      NULL,
+    updated_at         DATETIME      NOT NULL,
+    KEY idx_problem_stats_submissions (submission_count)
+);
+
+-- First accepted submission of each user per problem, so solved_count counts distinct users
+-- without rescanning submissions.
+CREATE TABLE IF NOT EXISTS problem_solvers (
+    problem_id          BIGINT   NOT NULL,
+    user_id             BIGINT   NOT NULL,
+    first_submission_id BIGINT   NOT NULL,
+    first_accepted_at   DATETIME NOT NULL,
+    PRIMARY KEY (problem_id, user_id),
+    KEY idx_problem_solvers_submission (first_submission_id)
+);
@@ -0,0 +1,17 @@
+-- Exponentially decayed trending scores, persisted periodically by TrendingProblemTracker so a
+-- restart resumes from the last checkpoint instead of replaying the warmup window. The tracker's
+-- submission watermark is kept in dashboard_rollup_watermarks under 'problem_trending'.
+CREATE TABLE IF NOT EXISTS problem_trending_scores (
+    problem_id BIGINT      NOT NULL PRIMARY KEY,
+    score      DOUBLE      NOT NULL,
+    scored_at  DATETIME(3) NOT NULL
+);
+
+-- Single-writer lease. Every instance keeps its own scores in memory, but only the holder of the
+-- 'problem_trending' lease checkpoints them; the row is locked while checking and renewing, and an
+-- instance takes over once the holder has not renewed it before expires_at.
+CREATE TABLE IF NOT EXISTS dashboard_writer_leases (
+    name       VARCHAR(64) NOT NULL PRIMARY KEY,
+    owner      VARCHAR(64) NOT NULL,
+    expires_at DATETIME(3) NOT NULL
+);
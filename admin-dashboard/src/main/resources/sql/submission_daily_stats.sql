@@ -0,0 +1,34 @@
+-- Daily submission rollup maintained by SubmissionRollupService. One row per
+-- day x verdict x language x problem; trends read this instead of scanning submissions.
+CREATE TABLE IF NOT EXISTS submission_daily_stats (
+    stat_date        DATE        NOT NULL,
+    verdict          VARCHAR(16) NOT NULL,
+    language_id      INT         NOT NULL,
+    problem_id       BIGINT      NOT NULL,
+    submission_count BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_date, verdict, language_id, problem_id)
+);
+
+-- Last submission id folded into each rollup.
+CREATE TABLE IF NOT EXISTS dashboard_rollup_watermarks (
+    name       VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_id    BIGINT      NOT NULL DEFAULT 0,
+    updated_at DATETIME    NOT NULL
+);
+
+-- Hourly buckets for contest-time charts; older rows are purged after
+-- dashboard.rollup.hourly-retention.
+CREATE TABLE IF NOT EXISTS submission_hourly_stats (
+    stat_hour        DATETIME    NOT NULL,
+    verdict          VARCHAR(16) NOT NULL,
+    submission_count BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (stat_hour, verdict)
+);
+
+-- Weekly buckets (week_start is the Monday) for year-long reports.
+CREATE TABLE IF NOT EXISTS submission_weekly_stats (
+    week_start       DATE        NOT NULL,
+    verdict          VARCHAR(16) NOT NULL,
+    submission_count BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (week_start, verdict)
+);
@@ -0,0 +1,7 @@
+-- One HyperLogLog sketch (2^14 one-byte registers) of submitting users per day, maintained by
+-- ActiveUserSketchService. Active users over any range are estimated by merging the daily rows.
+CREATE TABLE IF NOT EXISTS user_activity_sketches (
+    stat_date  DATE     NOT NULL PRIMARY KEY,
+    registers  BLOB     NOT NULL,
+    updated_at DATETIME NOT NULL
+);
@@ -0,0 +1,39 @@
+package com.david.open.dashboard.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.david.open.dashboard.service.SubmissionRollupService.SubmissionStamp;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+class SubmissionRollupServiceTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void stopsAtFirstUnsettledSubmission() {
+        List<SubmissionStamp> candidates = List.of(
+                new SubmissionStamp(1, CUTOFF.minusMinutes(5)),
+                new SubmissionStamp(2, CUTOFF.minusMinutes(1)),
+                new SubmissionStamp(3, CUTOFF),
+                new SubmissionStamp(4, CUTOFF.minusMinutes(9)));
+
+        assertThat(SubmissionRollupService.settledPrefix(candidates, CUTOFF)).isEqualTo(2);
+    }
+
+    @Test
+    void missingCreatedAtDoesNotHoldTheWatermark() {
+        List<SubmissionStamp> candidates = List.of(
+                new SubmissionStamp(1, null),
+                new SubmissionStamp(2, CUTOFF.minusMinutes(1)),
+                new SubmissionStamp(3, null),
+                new SubmissionStamp(4, CUTOFF.plusMinutes(1)));
+
+        assertThat(SubmissionRollupService.settledPrefix(candidates, CUTOFF)).isEqualTo(3);
+        assertThat(SubmissionRollupService.settledPrefix(List.of(new SubmissionStamp(7, null)), CUTOFF))
+                .isEqualTo(1);
+    }
+}
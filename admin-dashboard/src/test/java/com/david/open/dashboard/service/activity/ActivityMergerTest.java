@@ -0,0 +1,83 @@
+package com.david.open.dashboard.service.activity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.david.open.dashboard.model.ActivityFeedItem;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class ActivityMergerTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void mergesSourcesAndPagesWithoutGapsOrDuplicates() {
+        ActivityRing submissions = new ActivityRing(50);
+        ActivityRing comments = new ActivityRing(50);
+        List<ActivityFeedItem> all = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            // every third comment shares its timestamp with a submission
+            ActivityFeedItem submission = item("submission", i, BASE.plusMinutes(i));
+            ActivityFeedItem comment = item("comment", i, BASE.plusMinutes(i % 3 == 0 ? i : i + 100));
+            submissions.append(submission);
+            comments.append(comment);
+            all.add(submission);
+            all.add(comment);
+        }
+        all.sort(ActivityCursor.NEWEST_FIRST);
+
+        List<ActivityFeedItem> paged = new ArrayList<>();
+        ActivityCursor cursor = null;
+        while (true) {
+            ActivityCursor position = cursor;
+            List<List<ActivityFeedItem>> sources = List.of(
+                    submissions.newestFirst().stream().filter(it -> position == null || position.isFollowedBy(it)).toList(),
+                    comments.newestFirst().stream().filter(it -> position == null || position.isFollowedBy(it)).toList());
+            List<ActivityFeedItem> page = ActivityMerger.merge(sources, 7);
+            if (page.isEmpty()) {
+                break;
+            }
+            paged.addAll(page);
+            cursor = ActivityCursor.decode(ActivityCursor.of(page.get(page.size() - 1)).encode());
+        }
+
+        assertThat(paged).containsExactlyElementsOf(all);
+    }
+
+    @Test
+    void ringKeepsNewestEventsInOrder() {
+        ActivityRing ring = new ActivityRing(3);
+        ring.append(item("audit", 1, BASE.plusMinutes(1)));
+        ring.append(item("audit", 3, BASE.plusMinutes(3)));
+        ring.append(item("audit", 2, BASE.plusMinutes(2)));
+        assertThat(ring.isComplete()).isTrue();
+
+        ring.append(item("audit", 4, BASE.plusMinutes(4)));
+        ring.append(item("audit", 0, BASE));
+
+        assertThat(ring.newestFirst()).extracting(ActivityFeedItem::sourceId).containsExactly(4L, 3L, 2L);
+        assertThat(ring.isComplete()).isFalse();
+    }
+
+    @Test
+    void ringReplacesRerenderedEventInPlace() {
+        ActivityRing ring = new ActivityRing(3);
+        ring.append(item("submission", 1, BASE));
+        ring.append(item("submission", 2, BASE.plusMinutes(1)));
+
+        ActivityFeedItem judged = new ActivityFeedItem("submission", 1, "judged", "pi", "green", BASE);
+        assertThat(ring.replace(judged)).isTrue();
+        assertThat(ring.replace(judged)).isFalse();
+        assertThat(ring.replace(item("submission", 9, BASE.plusMinutes(9)))).isFalse();
+
+        assertThat(ring.newestFirst()).extracting(ActivityFeedItem::message).containsExactly("submission 2", "judged");
+    }
+
+    private static ActivityFeedItem item(String source, long id, LocalDateTime at) {
+        return new ActivityFeedItem(source, id, source + " " + id, "pi", "blue", at);
+    }
+}
@@ -0,0 +1,43 @@
+package com.david.open.dashboard.service.sketch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesStayWithinThreeStandardErrors() {
+        for (long cardinality : new long[] {10, 1_000, 50_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (long id = 1; id <= cardinality; id++) {
+                sketch.add(id);
+                sketch.add(id);
+            }
+            double tolerance = Math.max(1, cardinality * 3 * HyperLogLog.RELATIVE_STANDARD_ERROR);
+            assertThat(sketch.estimate()).isCloseTo(cardinality, within((long) Math.ceil(tolerance)));
+        }
+    }
+
+    @Test
+    void mergeMatchesSketchOfUnion() {
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (long id = 1; id <= 30_000; id++) {
+            monday.add(id);
+            both.add(id);
+        }
+        for (long id = 20_001; id <= 60_000; id++) {
+            tuesday.add(id);
+            both.add(id);
+        }
+
+        HyperLogLog merged = monday.copy();
+        merged.merge(tuesday);
+
+        assertThat(merged).isEqualTo(both);
+        assertThat(HyperLogLog.fromBytes(merged.toBytes())).isEqualTo(merged);
+    }
+}
@@ -0,0 +1,19 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Finished-job feed and latency analytics. On startup the feed replays {@code warmup} of history;
+ * each poll reads at most {@code maxBatchesPerPoll} pages of {@code batchSize} rows. At most
+ * {@code maxProblemKeys} problems get their own histogram, later ones are folded into key 0.
+ */
+@ConfigurationProperties(prefix = "judge.analytics")
+public record JudgeAnalyticsProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("20") int maxBatchesPerPoll,
+        @DefaultValue("24h") Duration warmup,
+        @DefaultValue("200") int maxProblemKeys) {}
@@ -0,0 +1,19 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Finished/failed jobs whose finished_at is older than {@code retention} move to
+ * judge_jobs_archive, {@code batchSize} rows per transaction with {@code batchPause} between
+ * batches. A run stops after {@code maxBatchesPerRun} and resumes from its checkpoint next time.
+ */
+@ConfigurationProperties(prefix = "judge.archive")
+public record JudgeArchiveProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("90d") Duration retention,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("200ms") Duration batchPause,
+        @DefaultValue("2000") int maxBatchesPerRun) {}
@@ -0,0 +1,11 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Each node proves its identity on claim with a token derived from {@code nodeSecret} and its id.
+ * Claims are refused while no secret is configured.
+ */
+@ConfigurationProperties(prefix = "judge.dispatch")
+public record JudgeDispatchProperties(@DefaultValue("") String nodeSecret) {}
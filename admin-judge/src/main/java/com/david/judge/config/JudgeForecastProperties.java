@@ -0,0 +1,14 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Queue drain forecast. The queued backlog is re-aggregated every {@code
+ * judge.forecast.refresh-interval-ms}; throughput uses the 5-minute completion window once it holds
+ * at least {@code minRecentCompletions} jobs and falls back to the hourly window otherwise.
+ */
+@ConfigurationProperties(prefix = "judge.forecast")
+public record JudgeForecastProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") long minRecentCompletions) {}
@@ -0,0 +1,20 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bulk rejudge throttle. Each batch enqueues at most {@code batchSize} submissions, then pauses for
+ * {@code batchInterval}; while the global queued backlog is at or above {@code maxQueuedBacklog}
+ * the task waits, so live submissions are not starved. Rejudge jobs are enqueued with {@code
+ * priority}, which should be below the priority of live traffic.
+ */
+@ConfigurationProperties(prefix = "judge.rejudge")
+public record JudgeRejudgeProperties(
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("500ms") Duration batchInterval,
+        @DefaultValue("2000") long maxQueuedBacklog,
+        @DefaultValue("-10") int priority,
+        @DefaultValue("50") int retainedTasks) {}
@@ -0,0 +1,10 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/** Where {@code files.storage_key} is resolved; {@code local} maps keys under {@code localRoot}. */
+@ConfigurationProperties(prefix = "judge.storage")
+public record JudgeStorageProperties(
+        @DefaultValue("local") String type,
+        @DefaultValue("/var/lib/ulticode/files") String localRoot) {}
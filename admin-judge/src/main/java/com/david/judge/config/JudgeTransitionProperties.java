@@ -0,0 +1,20 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Job transition log writer. Transitions wait in a queue of {@code queueCapacity} entries and are
+ * flushed in multi-row inserts of up to {@code batchSize}; when the queue is full new entries are
+ * dropped and counted instead of blocking the job path. A timeline returns at most {@code
+ * timelineLimit} entries. Terminal states are read from judge_jobs {@code terminalBatchSize} rows
+ * at a time, at most {@code terminalMaxBatchesPerPoll} batches per poll.
+ */
+@ConfigurationProperties(prefix = "judge.transitions")
+public record JudgeTransitionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20000") int queueCapacity,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("500") int timelineLimit,
+        @DefaultValue("1000") int terminalBatchSize,
+        @DefaultValue("20") int terminalMaxBatchesPerPoll) {}
@@ -0,0 +1,21 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * user_problem_best maintenance. Finished jobs are read from judge_jobs {@code batchSize} at a time
+ * (at most {@code maxBatchesPerPoll} per poll) behind a persisted watermark, which starts
+ * {@code warmup} back on first run, and folded in chunks of {@code upsertChunkSize} submissions; a
+ * backfill walks the submission id space {@code backfillBatchSize} ids at a time.
+ */
+@ConfigurationProperties(prefix = "judge.user-problem-best")
+public record JudgeUserProblemBestProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("24h") Duration warmup,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("20") int maxBatchesPerPoll,
+        @DefaultValue("500") int upsertChunkSize,
+        @DefaultValue("5000") int backfillBatchSize) {}
@@ -0,0 +1,16 @@
+package com.david.judge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Nodes whose last heartbeat is older than {@code heartbeatTimeout} are marked offline and their
+ * running jobs are requeued {@code batchSize} rows at a time.
+ */
+@ConfigurationProperties(prefix = "judge.watchdog")
+public record JudgeWatchdogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("90s") Duration heartbeatTimeout,
+        @DefaultValue("200") int batchSize) {}
@@ -0,0 +1,48 @@
+package com.david.judge.controller;
+
+import com.david.core.http.ApiResponse;
+import com.david.judge.dto.LatencySliceView;
+import com.david.judge.dto.QueueForecastView;
+import com.david.judge.service.JudgeLatencyAnalyticsService;
+import com.david.judge.service.JudgeQueueForecastService;
+import com.david.judge.service.analytics.LatencyWindow;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Validated
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('platform_admin')")
+@RequestMapping("/api/admin/judge/analytics")
+public class JudgeAnalyticsController {
+
+    private final JudgeLatencyAnalyticsService latencyAnalyticsService;
+    private final JudgeQueueForecastService queueForecastService;
+
+    @GetMapping("/latency")
+    public ApiResponse<List<LatencySliceView>> latency(
+            @RequestParam(defaultValue = "language") String dimension,
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(200) int limit) {
+        return ApiResponse.success(
+                latencyAnalyticsService.slice(
+                        dimension.trim().toLowerCase(), LatencyWindow.fromCode(window), limit));
+    }
+
+    @GetMapping("/queue-forecast")
+    public ApiResponse<QueueForecastView> queueForecast() {
+        return ApiResponse.success(queueForecastService.forecast());
+    }
+}
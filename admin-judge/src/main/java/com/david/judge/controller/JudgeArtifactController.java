@@ -0,0 +1,132 @@
+package com.david.judge.controller;
+
+import com.david.judge.dto.ArtifactDescriptor;
+import com.david.judge.service.ArtifactDownloadService;
+import com.david.judge.storage.ByteRange;
+import com.david.judge.storage.StoredObject;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('platform_admin')")
+@RequestMapping("/api/admin/judge/artifacts")
+public class JudgeArtifactController {
+
+    private final ArtifactDownloadService artifactDownloadService;
+
+    @GetMapping("/{artifactId}/content")
+    public ResponseEntity<StreamingResponseBody> download(
+            @PathVariable Long artifactId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                    String ifNoneMatch) {
+        ArtifactDescriptor descriptor = artifactDownloadService.describe(artifactId);
+        String etag =
+                StringUtils.hasText(descriptor.sha256()) ? '"' + descriptor.sha256() + '"' : null;
+        if (etag != null && matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        StoredObject object = artifactDownloadService.open(descriptor);
+        long size;
+        try {
+            size = object.size();
+        } catch (IOException ex) {
+            closeQuietly(object);
+            throw new UncheckedIOException(ex);
+        }
+        ByteRange range;
+        try {
+            range = ByteRange.parse(rangeHeader, size);
+        } catch (ByteRange.UnsatisfiableRangeException ex) {
+            closeQuietly(object);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        long start = range == null ? 0 : range.start();
+        long length = range == null ? size : range.length();
+        StreamingResponseBody body =
+                output -> {
+                    try (object) {
+                        object.transferTo(start, length, Channels.newChannel(output));
+                    }
+                };
+        ResponseEntity.BodyBuilder builder =
+                ResponseEntity.status(range == null ? HttpStatus.OK : HttpStatus.PARTIAL_CONTENT)
+                        .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                        .header(
+                                HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment()
+                                        .filename(descriptor.fileName(), StandardCharsets.UTF_8)
+                                        .build()
+                                        .toString())
+                        .contentType(resolveMediaType(descriptor.mimeType()))
+                        .contentLength(length);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (range != null) {
+            builder.header(
+                    HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.end() + "/" + size);
+        }
+        return builder.body(body);
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (!StringUtils.hasText(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            if ("*".equals(trimmed) || etag.equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MediaType resolveMediaType(String mimeType) {
+        if (!StringUtils.hasText(mimeType)) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(mimeType);
+        } catch (IllegalArgumentException ex) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    private void closeQuietly(StoredObject object) {
+        try {
+            object.close();
+        } catch (IOException ignored) {
+            // nothing left to release
+        }
+    }
+}
@@ -3,18 +3,28 @@ package com.david.judge.controller;
 import com.david.core.forward.ForwardedUser;
 import com.david.core.http.ApiResponse;
 import com.david.core.security.CurrentForwardedUser;
+import com.david.judge.dto.JobTimelineView;
 import com.david.judge.dto.JudgeJobDetailView;
+import com.david.judge.dto.JudgeJobFilter;
 import com.david.judge.dto.JudgeJobQuery;
 import com.david.judge.dto.JudgeJobView;
 import com.david.judge.dto.PageResult;
+import com.david.judge.dto.SubmissionTestMessageView;
+import com.david.judge.dto.SubmissionTestView;
+import com.david.judge.service.JudgeJobExportService;
 import com.david.judge.service.JudgeJobService;
 import com.david.judge.service.SensitiveOperationGuard;
+import com.david.judge.service.export.JudgeJobExportFormat;
 
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -24,6 +34,9 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @Validated
 @RestController
@@ -33,6 +46,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class JudgeJobController {
 
     private final JudgeJobService judgeJobService;
+    private final JudgeJobExportService judgeJobExportService;
     private final SensitiveOperationGuard sensitiveOperationGuard;
 
     @GetMapping
@@ -43,17 +57,89 @@ public class JudgeJobController {
             @RequestParam(required = false) Long nodeId,
             @RequestParam(defaultValue = "false") boolean onlyUnassigned,
             @RequestParam(required = false) Long submissionId,
-            @RequestParam(required = false) String keyword) {
-        JudgeJobQuery query = new JudgeJobQuery(page, size, status, nodeId, onlyUnassigned, submissionId, keyword);
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime createdTo,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        JudgeJobQuery query =
+                new JudgeJobQuery(
+                        page,
+                        size,
+                        status,
+                        nodeId,
+                        onlyUnassigned,
+                        submissionId,
+                        keyword,
+                        createdFrom,
+                        createdTo,
+                        archived);
         PageResult<JudgeJobView> result = judgeJobService.pageJobs(query);
         return ApiResponse.success(result);
     }
 
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportJobs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long nodeId,
+            @RequestParam(defaultValue = "false") boolean onlyUnassigned,
+            @RequestParam(required = false) Long submissionId,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime createdTo,
+            @RequestParam(defaultValue = "false") boolean archived) {
+        JudgeJobExportFormat exportFormat = JudgeJobExportFormat.fromCode(format);
+        JudgeJobFilter filter =
+                new JudgeJobFilter(
+                        status,
+                        nodeId,
+                        onlyUnassigned,
+                        submissionId,
+                        keyword,
+                        createdFrom,
+                        createdTo,
+                        archived);
+        StreamingResponseBody body =
+                output -> judgeJobExportService.export(filter, exportFormat, output);
+        String fileName = "judge-jobs." + exportFormat.code();
+        return ResponseEntity.ok()
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .contentType(exportFormat.mediaType())
+                .body(body);
+    }
+
     @GetMapping("/{jobId}")
     public ApiResponse<JudgeJobDetailView> getJobDetail(@PathVariable Long jobId) {
         return ApiResponse.success(judgeJobService.getJobDetail(jobId));
     }
 
+    @GetMapping("/{jobId}/timeline")
+    public ApiResponse<JobTimelineView> getJobTimeline(@PathVariable Long jobId) {
+        return ApiResponse.success(judgeJobService.getJobTimeline(jobId));
+    }
+
+    @GetMapping("/{jobId}/tests")
+    public ApiResponse<PageResult<SubmissionTestView>> pageJobTests(
+            @PathVariable Long jobId,
+            @RequestParam(required = false) Long groupId,
+            @RequestParam(defaultValue = "1") @Min(1) int page,
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int size) {
+        return ApiResponse.success(
+                judgeJobService.pageSubmissionTests(jobId, groupId, page, size));
+    }
+
+    @GetMapping("/{jobId}/tests/{testId}/message")
+    public ApiResponse<SubmissionTestMessageView> getJobTestMessage(
+            @PathVariable Long jobId, @PathVariable Long testId) {
+        return ApiResponse.success(judgeJobService.getSubmissionTestMessage(jobId, testId));
+    }
+
     @PostMapping("/{jobId}/retry")
     public ApiResponse<Void> retryJob(
             @CurrentForwardedUser ForwardedUser principal,
@@ -0,0 +1,41 @@
+package com.david.judge.controller;
+
+import com.david.core.forward.ForwardedUser;
+import com.david.core.http.ApiResponse;
+import com.david.core.security.CurrentForwardedUser;
+import com.david.judge.dto.UserProblemBestBackfillView;
+import com.david.judge.service.SensitiveOperationGuard;
+import com.david.judge.service.UserProblemBestService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('platform_admin')")
+@RequestMapping("/api/admin/judge/maintenance")
+public class JudgeMaintenanceController {
+
+    private final UserProblemBestService userProblemBestService;
+    private final SensitiveOperationGuard sensitiveOperationGuard;
+
+    @PostMapping("/user-problem-best/backfill")
+    public ApiResponse<UserProblemBestBackfillView> startUserProblemBestBackfill(
+            @CurrentForwardedUser ForwardedUser principal,
+            @RequestHeader("X-Sensitive-Action-Token") String sensitiveToken) {
+        sensitiveOperationGuard.ensureValid(principal.id(), sensitiveToken);
+        return ApiResponse.success(
+                userProblemBestService.startBackfill(principal.id(), principal.username()));
+    }
+
+    @GetMapping("/user-problem-best/backfill")
+    public ApiResponse<UserProblemBestBackfillView> getUserProblemBestBackfill() {
+        return ApiResponse.success(userProblemBestService.backfillStatus());
+    }
+}
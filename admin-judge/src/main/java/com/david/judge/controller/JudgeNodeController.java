@@ -1,14 +1,23 @@
 package com.david.judge.controller;
 
+import com.david.core.forward.ForwardedUser;
 import com.david.core.http.ApiResponse;
+import com.david.core.security.CurrentForwardedUser;
 import com.david.judge.dto.JudgeNodeView;
+import com.david.judge.service.JudgeNodeCredentialService;
 import com.david.judge.service.JudgeNodeService;
+import com.david.judge.service.SensitiveOperationGuard;
+
+import jakarta.validation.constraints.Min;
 
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -23,12 +32,27 @@ import java.util.List;
 public class JudgeNodeController {
 
     private final JudgeNodeService judgeNodeService;
+    private final JudgeNodeCredentialService judgeNodeCredentialService;
+    private final SensitiveOperationGuard sensitiveOperationGuard;
 
     @GetMapping
     public ApiResponse<List<JudgeNodeView>> listNodes(
             @RequestParam(required = false) String status,
-            @RequestParam(required = false) String keyword) {
-        List<JudgeNodeView> nodes = judgeNodeService.listNodes(status, keyword);
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String language,
+            @RequestParam(required = false) @Min(1) Integer minCpu) {
+        List<JudgeNodeView> nodes = judgeNodeService.listNodes(status, keyword, language, minCpu);
         return ApiResponse.success(nodes);
     }
+
+    /** The token a node sends as {@code X-Judge-Node-Token} when claiming jobs. */
+    @PostMapping("/{nodeId}/token")
+    public ApiResponse<String> issueNodeToken(
+            @CurrentForwardedUser ForwardedUser principal,
+            @RequestHeader("X-Sensitive-Action-Token") String sensitiveToken,
+            @PathVariable Long nodeId) {
+        sensitiveOperationGuard.ensureValid(principal.id(), sensitiveToken);
+        judgeNodeService.ensureNodeExists(nodeId);
+        return ApiResponse.success(judgeNodeCredentialService.issueToken(nodeId));
+    }
 }
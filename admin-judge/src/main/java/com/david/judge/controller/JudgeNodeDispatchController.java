@@ -0,0 +1,38 @@
+package com.david.judge.controller;
+
+import com.david.core.http.ApiResponse;
+import com.david.judge.dto.ClaimedJobView;
+import com.david.judge.dto.JudgeJobClaimRequest;
+import com.david.judge.service.JudgeDispatchService;
+import com.david.judge.service.JudgeNodeCredentialService;
+
+import jakarta.validation.Valid;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/** Called by judge nodes, which authenticate with their node token rather than a user role. */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/judge/nodes")
+public class JudgeNodeDispatchController {
+
+    private final JudgeDispatchService judgeDispatchService;
+    private final JudgeNodeCredentialService judgeNodeCredentialService;
+
+    @PostMapping("/claim")
+    public ApiResponse<List<ClaimedJobView>> claimJobs(
+            @RequestHeader(value = "X-Judge-Node-Token", required = false) String nodeToken,
+            @Valid @RequestBody JudgeJobClaimRequest request) {
+        judgeNodeCredentialService.verify(request.nodeId(), nodeToken);
+        return ApiResponse.success(
+                judgeDispatchService.claimJobs(request.nodeId(), request.limit()));
+    }
+}
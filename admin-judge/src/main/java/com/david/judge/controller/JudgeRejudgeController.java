@@ -0,0 +1,59 @@
+package com.david.judge.controller;
+
+import com.david.core.forward.ForwardedUser;
+import com.david.core.http.ApiResponse;
+import com.david.core.security.CurrentForwardedUser;
+import com.david.judge.dto.BulkRejudgeRequest;
+import com.david.judge.dto.RejudgeTaskView;
+import com.david.judge.service.BulkRejudgeService;
+import com.david.judge.service.SensitiveOperationGuard;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Validated
+@RestController
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('platform_admin')")
+@RequestMapping("/api/admin/judge/rejudge")
+public class JudgeRejudgeController {
+
+    private final BulkRejudgeService bulkRejudgeService;
+    private final SensitiveOperationGuard sensitiveOperationGuard;
+
+    @PostMapping
+    public ApiResponse<RejudgeTaskView> submit(
+            @CurrentForwardedUser ForwardedUser principal,
+            @RequestHeader("X-Sensitive-Action-Token") String sensitiveToken,
+            @RequestBody BulkRejudgeRequest request) {
+        sensitiveOperationGuard.ensureValid(principal.id(), sensitiveToken);
+        return ApiResponse.success(
+                bulkRejudgeService.submit(request, principal.id(), principal.username()));
+    }
+
+    @GetMapping
+    public ApiResponse<List<RejudgeTaskView>> listTasks() {
+        return ApiResponse.success(bulkRejudgeService.listTasks());
+    }
+
+    @GetMapping("/{taskId}")
+    public ApiResponse<RejudgeTaskView> getTask(@PathVariable Long taskId) {
+        return ApiResponse.success(bulkRejudgeService.getTask(taskId));
+    }
+
+    @PostMapping("/{taskId}/cancel")
+    public ApiResponse<RejudgeTaskView> cancel(@PathVariable Long taskId) {
+        return ApiResponse.success(bulkRejudgeService.cancel(taskId));
+    }
+}
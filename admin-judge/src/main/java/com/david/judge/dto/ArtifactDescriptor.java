@@ -0,0 +1,10 @@
+package com.david.judge.dto;
+
+public record ArtifactDescriptor(
+        Long artifactId,
+        String kind,
+        String storageKey,
+        String fileName,
+        String mimeType,
+        String sha256,
+        Long sizeBytes) {}
@@ -0,0 +1,23 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record BulkRejudgeRequest(
+        Long problemId,
+        Long datasetId,
+        Long contestId,
+        Integer languageId,
+        String verdict,
+        LocalDateTime submittedFrom,
+        LocalDateTime submittedTo) {
+
+    public boolean hasAnyFilter() {
+        return problemId != null
+                || datasetId != null
+                || contestId != null
+                || languageId != null
+                || (verdict != null && !verdict.isBlank())
+                || submittedFrom != null
+                || submittedTo != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record ClaimedJobView(
+        Long id,
+        Long submissionId,
+        Integer priority,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt) {}
@@ -0,0 +1,12 @@
+package com.david.judge.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record JobTimelineView(
+        Long jobId,
+        List<JobTransitionView> transitions,
+        Map<String, Long> transitionCounts,
+        long requeues,
+        long distinctNodes,
+        boolean truncated) {}
@@ -0,0 +1,10 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record JobTransitionView(
+        LocalDateTime occurredAt,
+        String fromStatus,
+        String toStatus,
+        String source,
+        Long nodeId) {}
@@ -0,0 +1,12 @@
+package com.david.judge.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record JudgeJobClaimRequest(
+        @NotNull(message = "节点ID不能为空") Long nodeId,
+        @NotNull(message = "请填写领取数量")
+                @Min(value = 1, message = "领取数量至少为1")
+                @Max(value = 50, message = "单次最多领取50个任务")
+                Integer limit) {}
@@ -3,4 +3,6 @@ package com.david.judge.dto;
 import java.util.List;
 
 public record JudgeJobDetailView(
-        JudgeJobView job, List<SubmissionTestView> tests, List<SubmissionArtifactView> artifacts) {}
+        JudgeJobView job,
+        List<SubmissionTestGroupView> testGroups,
+        List<SubmissionArtifactView> artifacts) {}
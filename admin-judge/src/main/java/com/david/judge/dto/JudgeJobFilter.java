@@ -0,0 +1,13 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record JudgeJobFilter(
+        String status,
+        Long nodeId,
+        boolean onlyUnassigned,
+        Long submissionId,
+        String keyword,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        boolean archived) {}
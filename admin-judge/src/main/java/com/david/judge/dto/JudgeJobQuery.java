@@ -1,5 +1,7 @@
 package com.david.judge.dto;
 
+import java.time.LocalDateTime;
+
 public record JudgeJobQuery(
         int page,
         int size,
@@ -7,4 +9,20 @@ public record JudgeJobQuery(
         Long nodeId,
         boolean onlyUnassigned,
         Long submissionId,
-        String keyword) {}
+        String keyword,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        boolean archived) {
+
+    public JudgeJobFilter filter() {
+        return new JudgeJobFilter(
+                status,
+                nodeId,
+                onlyUnassigned,
+                submissionId,
+                keyword,
+                createdFrom,
+                createdTo,
+                archived);
+    }
+}
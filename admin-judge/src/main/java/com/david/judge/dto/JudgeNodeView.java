@@ -8,6 +8,7 @@ public record JudgeNodeView(
         String name,
         String status,
         Map<String, Object> runtimeInfo,
+        NodeRuntimeInfo runtime,
         LocalDateTime lastHeartbeat,
         LocalDateTime createdAt,
         NodeMetrics metrics) {}
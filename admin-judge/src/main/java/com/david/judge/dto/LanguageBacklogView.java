@@ -0,0 +1,10 @@
+package com.david.judge.dto;
+
+public record LanguageBacklogView(
+        Integer languageId,
+        String code,
+        long queued,
+        double throughputPerMinute,
+        Long drainSeconds,
+        int capableNodes,
+        boolean noCapableNode) {}
@@ -0,0 +1,3 @@
+package com.david.judge.dto;
+
+public record LatencyPercentiles(long samples, long p50Ms, long p95Ms, long p99Ms, long maxMs) {}
@@ -0,0 +1,9 @@
+package com.david.judge.dto;
+
+public record LatencySliceView(
+        String dimension,
+        Long key,
+        String label,
+        String window,
+        LatencyPercentiles queueWait,
+        LatencyPercentiles run) {}
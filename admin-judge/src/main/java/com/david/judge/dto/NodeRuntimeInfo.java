@@ -0,0 +1,26 @@
+package com.david.judge.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed view of {@code judge_nodes.runtime_info}. Fields the judge nodes do not report are null or
+ * empty; {@code attributes} keeps the full payload for keys without a typed field and is exposed
+ * once, as {@code runtimeInfo} on the node view.
+ */
+public record NodeRuntimeInfo(
+        Integer cpuCount,
+        Long memoryMb,
+        String version,
+        List<String> languages,
+        @JsonIgnore Map<String, Object> attributes) {
+
+    public static final NodeRuntimeInfo EMPTY =
+            new NodeRuntimeInfo(null, null, null, List.of(), Map.of());
+
+    public boolean supportsLanguage(String code) {
+        return languages.stream().anyMatch(language -> language.equalsIgnoreCase(code));
+    }
+}
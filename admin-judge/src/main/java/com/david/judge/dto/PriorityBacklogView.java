@@ -0,0 +1,3 @@
+package com.david.judge.dto;
+
+public record PriorityBacklogView(int priority, long queued, Long estimatedWaitSeconds) {}
@@ -0,0 +1,14 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record QueueForecastView(
+        LocalDateTime snapshotAt,
+        long queued,
+        int onlineNodes,
+        String throughputWindow,
+        double throughputPerMinute,
+        Long drainSeconds,
+        List<PriorityBacklogView> priorities,
+        List<LanguageBacklogView> languages) {}
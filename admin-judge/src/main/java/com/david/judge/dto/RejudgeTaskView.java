@@ -0,0 +1,18 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record RejudgeTaskView(
+        Long id,
+        String status,
+        BulkRejudgeRequest filter,
+        long matched,
+        long enqueued,
+        long requeued,
+        long skipped,
+        Long lastSubmissionId,
+        String requestedBy,
+        String message,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt) {}
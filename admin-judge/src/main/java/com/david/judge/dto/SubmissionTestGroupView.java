@@ -0,0 +1,12 @@
+package com.david.judge.dto;
+
+public record SubmissionTestGroupView(
+        Long groupId,
+        String groupName,
+        boolean sampleGroup,
+        int total,
+        int passed,
+        int failed,
+        Integer score,
+        Integer maxTimeMs,
+        Integer maxMemoryKb) {}
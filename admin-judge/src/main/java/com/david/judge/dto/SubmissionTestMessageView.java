@@ -0,0 +1,3 @@
+package com.david.judge.dto;
+
+public record SubmissionTestMessageView(Long id, String message) {}
@@ -11,4 +11,4 @@ public record SubmissionTestView(
         Integer timeMs,
         Integer memoryKb,
         Integer score,
-        String message) {}
+        boolean hasMessage) {}
@@ -0,0 +1,13 @@
+package com.david.judge.dto;
+
+import java.time.LocalDateTime;
+
+public record UserProblemBestBackfillView(
+        String status,
+        long lastSubmissionId,
+        long targetSubmissionId,
+        long changedRows,
+        String startedBy,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        String message) {}
@@ -0,0 +1,24 @@
+package com.david.judge.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("judge_archive_checkpoints")
+public class JudgeArchiveCheckpoint {
+
+    @TableId(type = IdType.INPUT)
+    private String name;
+
+    @TableField("cursor_id")
+    private Long cursorId;
+
+    @TableField("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.david.judge.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@TableName("judge_jobs_archive")
+public class JudgeJobArchive extends JudgeJob {
+
+    @TableField("archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,35 @@
+package com.david.judge.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@TableName("judge_job_transitions")
+public class JudgeJobTransition {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("job_id")
+    private Long jobId;
+
+    @TableField("from_status")
+    private Integer fromStatus;
+
+    @TableField("to_status")
+    private Integer toStatus;
+
+    private Integer source;
+
+    @TableField("node_id")
+    private Long nodeId;
+
+    @TableField("occurred_at")
+    private LocalDateTime occurredAt;
+}
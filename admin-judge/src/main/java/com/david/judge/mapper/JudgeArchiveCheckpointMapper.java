@@ -0,0 +1,26 @@
+package com.david.judge.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.david.judge.entity.JudgeArchiveCheckpoint;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface JudgeArchiveCheckpointMapper extends BaseMapper<JudgeArchiveCheckpoint> {
+
+    @Insert({
+        """
+        INSERT INTO judge_archive_checkpoints (name, cursor_id, updated_at)
+        VALUES (#{name}, #{cursorId}, #{updatedAt})
+        ON DUPLICATE KEY UPDATE cursor_id = VALUES(cursor_id), updated_at = VALUES(updated_at)
+        """
+    })
+    int upsert(
+            @Param("name") String name,
+            @Param("cursorId") long cursorId,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,52 @@
+package com.david.judge.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.david.judge.entity.JudgeJobArchive;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface JudgeJobArchiveMapper extends BaseMapper<JudgeJobArchive> {
+
+    @Insert({
+        "<script>",
+        "INSERT INTO judge_jobs_archive",
+        "(id, submission_id, node_id, status, priority, created_at, started_at, finished_at,",
+        "archived_at)",
+        "SELECT id, submission_id, node_id, status, priority, created_at, started_at, finished_at,",
+        "#{archivedAt}",
+        "FROM judge_jobs",
+        "WHERE status IN ('finished', 'failed')",
+        "AND id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int copyFromHot(
+            @Param("jobIds") Collection<Long> jobIds, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /** One keyset page, newest id first; pass {@code Long.MAX_VALUE} to start. */
+    @Select({
+        "<script>",
+        "SELECT * FROM judge_jobs_archive",
+        "WHERE id &lt; #{beforeId}",
+        "<if test='ew.nonEmptyOfWhere'>AND (${ew.sqlSegment})</if>",
+        "ORDER BY id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<JudgeJobArchive> selectPageBefore(
+            @Param(Constants.WRAPPER) Wrapper<JudgeJobArchive> wrapper,
+            @Param("beforeId") long beforeId,
+            @Param("limit") int limit);
+}
@@ -1,13 +1,20 @@
 package com.david.judge.mapper;
 
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.david.judge.entity.JudgeJob;
+import com.david.judge.mapper.model.FinishedJobRow;
 import com.david.judge.mapper.model.NodeFinishedAggregate;
 import com.david.judge.mapper.model.NodeStatusAggregate;
+import com.david.judge.mapper.model.QueuedBacklogAggregate;
 
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
@@ -44,4 +51,206 @@ public interface JudgeJobMapper extends BaseMapper<JudgeJob> {
     })
     List<NodeFinishedAggregate> aggregateRecentFinished(
             @Param("nodeIds") Collection<Long> nodeIds, @Param("threshold") LocalDateTime threshold);
+
+    @Select({
+        """
+        SELECT id
+        FROM judge_jobs
+        WHERE node_id = #{nodeId}
+          AND status = 'running'
+        ORDER BY id
+        LIMIT #{limit}
+        FOR UPDATE
+        """
+    })
+    List<Long> lockRunningJobIds(@Param("nodeId") Long nodeId, @Param("limit") int limit);
+
+    @Update({
+        "<script>",
+        "UPDATE judge_jobs",
+        "SET status = 'queued', node_id = NULL, started_at = NULL",
+        "WHERE node_id = #{nodeId}",
+        "AND status = 'running'",
+        "AND id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int requeueRunningJobs(
+            @Param("nodeId") Long nodeId, @Param("jobIds") Collection<Long> jobIds);
+
+    @Select({
+        """
+        SELECT id, submission_id, priority, created_at
+        FROM judge_jobs
+        WHERE status = 'queued'
+          AND node_id IS NULL
+        ORDER BY priority DESC, created_at ASC, id ASC
+        LIMIT #{limit}
+        FOR UPDATE SKIP LOCKED
+        """
+    })
+    List<JudgeJob> lockQueuedJobs(@Param("limit") int limit);
+
+    @Update({
+        "<script>",
+        "UPDATE judge_jobs",
+        "SET status = 'running', node_id = #{nodeId}, started_at = #{startedAt}",
+        "WHERE status = 'queued'",
+        "AND node_id IS NULL",
+        "AND id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int assignJobs(
+            @Param("nodeId") Long nodeId,
+            @Param("jobIds") Collection<Long> jobIds,
+            @Param("startedAt") LocalDateTime startedAt);
+
+    @Update({
+        "<script>",
+        "UPDATE judge_jobs",
+        "SET status = 'queued', node_id = NULL, priority = #{priority},",
+        "started_at = NULL, finished_at = NULL",
+        "WHERE status NOT IN ('queued', 'running')",
+        "AND id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int requeueJobs(@Param("jobIds") Collection<Long> jobIds, @Param("priority") int priority);
+
+    @Select({
+        "<script>",
+        "SELECT id, submission_id, status, node_id",
+        "FROM judge_jobs",
+        "WHERE submission_id IN",
+        "<foreach collection='submissionIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "FOR UPDATE",
+        "</script>"
+    })
+    List<JudgeJob> lockJobStatesForSubmissions(
+            @Param("submissionIds") Collection<Long> submissionIds);
+
+    @Insert({
+        "<script>",
+        "INSERT INTO judge_jobs (submission_id, status, priority, created_at)",
+        "SELECT s.id, 'queued', #{priority}, #{queuedAt}",
+        "FROM submissions s",
+        "WHERE s.id IN",
+        "<foreach collection='submissionIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "AND NOT EXISTS (SELECT 1 FROM judge_jobs j WHERE j.submission_id = s.id)",
+        "</script>"
+    })
+    int insertJobsForSubmissions(
+            @Param("submissionIds") Collection<Long> submissionIds,
+            @Param("priority") int priority,
+            @Param("queuedAt") LocalDateTime queuedAt);
+
+    @Select({
+        """
+        SELECT j.id AS job_id,
+               j.submission_id,
+               j.node_id,
+               j.status,
+               j.created_at,
+               j.started_at,
+               j.finished_at,
+               s.language_id,
+               s.problem_id
+        FROM judge_jobs j
+        LEFT JOIN submissions s ON s.id = j.submission_id
+        WHERE j.status IN ('finished', 'failed')
+          AND (j.finished_at > #{afterTime} OR (j.finished_at = #{afterTime} AND j.id > #{afterId}))
+        ORDER BY j.finished_at, j.id
+        LIMIT #{limit}
+        """
+    })
+    List<FinishedJobRow> selectFinishedAfter(
+            @Param("afterTime") LocalDateTime afterTime,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    /** Plain consistent read: no row, gap or next-key locks are taken on the scanned id range. */
+    @Select({
+        """
+        SELECT id
+        FROM judge_jobs
+        WHERE id > #{afterId}
+          AND status IN ('finished', 'failed')
+          AND finished_at < #{cutoff}
+        ORDER BY id
+        LIMIT #{limit}
+        """
+    })
+    List<Long> selectArchivableJobIds(
+            @Param("afterId") long afterId,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit);
+
+    /**
+     * Locks the given primary keys only (record locks, no gaps) and returns those still eligible,
+     * since a rejudge may have requeued a row after it was selected.
+     */
+    @Select({
+        "<script>",
+        "SELECT id FROM judge_jobs",
+        "WHERE id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "AND status IN ('finished', 'failed')",
+        "AND finished_at &lt; #{cutoff}",
+        "ORDER BY id",
+        "FOR UPDATE",
+        "</script>"
+    })
+    List<Long> lockArchivableJobIds(
+            @Param("jobIds") Collection<Long> jobIds, @Param("cutoff") LocalDateTime cutoff);
+
+    @Delete({
+        "<script>",
+        "DELETE j FROM judge_jobs j",
+        "JOIN judge_jobs_archive a ON a.id = j.id",
+        "WHERE j.id IN",
+        "<foreach collection='jobIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int deleteArchived(@Param("jobIds") Collection<Long> jobIds);
+
+    /** One keyset page, newest id first; pass {@code Long.MAX_VALUE} to start. */
+    @Select({
+        "<script>",
+        "SELECT * FROM judge_jobs",
+        "WHERE id &lt; #{beforeId}",
+        "<if test='ew.nonEmptyOfWhere'>AND (${ew.sqlSegment})</if>",
+        "ORDER BY id DESC",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<JudgeJob> selectPageBefore(
+            @Param(Constants.WRAPPER) Wrapper<JudgeJob> wrapper,
+            @Param("beforeId") long beforeId,
+            @Param("limit") int limit);
+
+    @Select({
+        """
+        SELECT j.priority, s.language_id, COUNT(*) AS count
+        FROM judge_jobs j
+        JOIN submissions s ON s.id = j.submission_id
+        WHERE j.status = 'queued'
+        GROUP BY j.priority, s.language_id
+        """
+    })
+    List<QueuedBacklogAggregate> aggregateQueuedBacklog();
 }
@@ -0,0 +1,76 @@
+package com.david.judge.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.david.judge.entity.JudgeJobTransition;
+import com.david.judge.mapper.model.FinishedJobCursor;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Mapper
+public interface JudgeJobTransitionMapper extends BaseMapper<JudgeJobTransition> {
+
+    @Insert({
+        "<script>",
+        "INSERT INTO judge_job_transitions",
+        "(job_id, from_status, to_status, source, node_id, occurred_at)",
+        "VALUES",
+        "<foreach collection='transitions' item='t' separator=','>",
+        "(#{t.jobId}, #{t.fromStatus}, #{t.toStatus}, #{t.source}, #{t.nodeId}, #{t.occurredAt})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertBatch(@Param("transitions") Collection<JudgeJobTransition> transitions);
+
+    @Select({
+        """
+        SELECT id, job_id, from_status, to_status, source, node_id, occurred_at
+        FROM judge_job_transitions
+        WHERE job_id = #{jobId}
+        ORDER BY occurred_at, id
+        LIMIT #{limit}
+        """
+    })
+    List<JudgeJobTransition> selectByJobId(@Param("jobId") Long jobId, @Param("limit") int limit);
+
+    @Insert({
+        """
+        INSERT IGNORE INTO judge_job_transition_watermark (name, finished_at, job_id, updated_at)
+        VALUES (#{name}, #{finishedAt}, 0, #{updatedAt})
+        """
+    })
+    int insertWatermarkIfAbsent(
+            @Param("name") String name,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Select({
+        """
+        SELECT finished_at, job_id
+        FROM judge_job_transition_watermark
+        WHERE name = #{name}
+        FOR UPDATE
+        """
+    })
+    FinishedJobCursor lockWatermark(@Param("name") String name);
+
+    @Update({
+        """
+        UPDATE judge_job_transition_watermark
+        SET finished_at = #{finishedAt}, job_id = #{jobId}, updated_at = #{updatedAt}
+        WHERE name = #{name}
+        """
+    })
+    int updateWatermark(
+            @Param("name") String name,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("jobId") long jobId,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
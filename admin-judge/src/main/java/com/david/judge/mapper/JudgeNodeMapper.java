@@ -4,6 +4,23 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.david.judge.entity.JudgeNode;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
 
 @Mapper
-public interface JudgeNodeMapper extends BaseMapper<JudgeNode> {}
+public interface JudgeNodeMapper extends BaseMapper<JudgeNode> {
+
+    @Update({
+        """
+        UPDATE judge_nodes
+        SET status = 'offline'
+        WHERE id = #{nodeId}
+          AND status <> 'offline'
+          AND last_heartbeat < #{threshold}
+        """
+    })
+    int markOfflineIfStale(
+            @Param("nodeId") Long nodeId, @Param("threshold") LocalDateTime threshold);
+}
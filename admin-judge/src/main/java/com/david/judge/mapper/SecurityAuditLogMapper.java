@@ -0,0 +1,9 @@
+package com.david.judge.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.david.judge.entity.SecurityAuditLog;
+
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface SecurityAuditLogMapper extends BaseMapper<SecurityAuditLog> {}
@@ -6,7 +6,10 @@ import com.david.judge.entity.Submission;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -26,4 +29,44 @@ public interface SubmissionMapper extends BaseMapper<Submission> {
     })
     List<Long> searchSubmissionIdsByKeyword(
             @Param("keyword") String keyword, @Param("limit") int limit);
+
+    @Select({
+        "<script>",
+        "SELECT id",
+        "FROM submissions",
+        "WHERE id &gt; #{afterId}",
+        "<if test='problemId != null'>AND problem_id = #{problemId}</if>",
+        "<if test='datasetId != null'>AND dataset_id = #{datasetId}</if>",
+        "<if test='contestId != null'>AND contest_id = #{contestId}</if>",
+        "<if test='languageId != null'>AND language_id = #{languageId}</if>",
+        "<if test='verdict != null'>AND verdict = #{verdict}</if>",
+        "<if test='from != null'>AND created_at &gt;= #{from}</if>",
+        "<if test='to != null'>AND created_at &lt; #{to}</if>",
+        "ORDER BY id",
+        "LIMIT #{limit}",
+        "</script>"
+    })
+    List<Long> selectIdsForRejudge(
+            @Param("problemId") Long problemId,
+            @Param("datasetId") Long datasetId,
+            @Param("contestId") Long contestId,
+            @Param("languageId") Integer languageId,
+            @Param("verdict") String verdict,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    /** Clears the previous result so a rejudged submission reads as pending until it is judged. */
+    @Update({
+        "<script>",
+        "UPDATE submissions",
+        "SET verdict = NULL, score = NULL, time_ms = NULL, memory_kb = NULL, judge_msg = NULL",
+        "WHERE id IN",
+        "<foreach collection='submissionIds' item='id' open='(' separator=',' close=')'>",
+        "#{id}",
+        "</foreach>",
+        "</script>"
+    })
+    int resetResults(@Param("submissionIds") Collection<Long> submissionIds);
 }
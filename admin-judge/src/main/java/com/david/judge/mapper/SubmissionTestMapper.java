@@ -1,8 +1,12 @@
 package com.david.judge.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.david.judge.entity.SubmissionTest;
 import com.david.judge.mapper.model.SubmissionTestAggregate;
+import com.david.judge.mapper.model.SubmissionTestGroupAggregate;
+import com.david.judge.mapper.model.SubmissionTestRow;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
@@ -28,4 +32,35 @@ public interface SubmissionTestMapper extends BaseMapper<SubmissionTest> {
     })
     List<SubmissionTestAggregate> aggregateTests(
             @Param("submissionIds") Collection<Long> submissionIds);
+
+    @Select({
+        """
+        SELECT group_id,
+               COUNT(*) AS total,
+               SUM(CASE WHEN verdict = 'AC' THEN 1 ELSE 0 END) AS passed,
+               SUM(score) AS score,
+               MAX(time_ms) AS max_time_ms,
+               MAX(memory_kb) AS max_memory_kb
+        FROM submission_tests
+        WHERE submission_id = #{submissionId}
+        GROUP BY group_id
+        ORDER BY group_id
+        """
+    })
+    List<SubmissionTestGroupAggregate> aggregateGroups(@Param("submissionId") Long submissionId);
+
+    @Select({
+        "<script>",
+        "SELECT id, testcase_id, group_id, verdict, time_ms, memory_kb, score,",
+        "(message IS NOT NULL AND message &lt;&gt; '') AS has_message",
+        "FROM submission_tests",
+        "WHERE submission_id = #{submissionId}",
+        "<if test='groupId != null'>AND group_id = #{groupId}</if>",
+        "ORDER BY id",
+        "</script>"
+    })
+    IPage<SubmissionTestRow> pageTestRows(
+            Page<SubmissionTestRow> page,
+            @Param("submissionId") Long submissionId,
+            @Param("groupId") Long groupId);
 }
@@ -0,0 +1,113 @@
+package com.david.judge.mapper;
+
+import com.david.judge.mapper.model.FinishedJobCursor;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Mapper
+public interface UserProblemBestMapper {
+
+    String UPSERT_HEAD =
+            """
+            INSERT INTO user_problem_best
+                (user_id, problem_id, best_score, best_submission_id,
+                 first_ac_time, first_ac_submission_id, updated_at)
+            SELECT s.user_id,
+                   s.problem_id,
+                   s.score,
+                   IF(s.score IS NULL, NULL, s.id),
+                   IF(s.verdict = 'AC', s.created_at, NULL),
+                   IF(s.verdict = 'AC', s.id, NULL),
+                   NOW()
+            FROM submissions s
+            """;
+
+    // Assignments run left to right and see already-updated columns, so updated_at and the
+    // submission ids are decided before best_score / first_ac_time change. When neither condition
+    // holds every column keeps its value and MySQL skips the write.
+    String UPSERT_TAIL =
+            """
+              AND s.user_id IS NOT NULL
+              AND s.problem_id IS NOT NULL
+              AND (s.score IS NOT NULL OR s.verdict = 'AC')
+            ORDER BY s.id
+            ON DUPLICATE KEY UPDATE
+                updated_at = IF(VALUES(best_score) &gt; COALESCE(best_score, -2147483648)
+                                    OR (VALUES(first_ac_time) IS NOT NULL
+                                        AND (first_ac_time IS NULL OR VALUES(first_ac_time) &lt; first_ac_time)),
+                                VALUES(updated_at), updated_at),
+                best_submission_id = IF(VALUES(best_score) &gt; COALESCE(best_score, -2147483648),
+                                        VALUES(best_submission_id), best_submission_id),
+                best_score = IF(VALUES(best_score) &gt; COALESCE(best_score, -2147483648),
+                                VALUES(best_score), best_score),
+                first_ac_submission_id = IF(VALUES(first_ac_time) IS NOT NULL
+                                                AND (first_ac_time IS NULL OR VALUES(first_ac_time) &lt; first_ac_time),
+                                            VALUES(first_ac_submission_id), first_ac_submission_id),
+                first_ac_time = IF(VALUES(first_ac_time) IS NOT NULL
+                                       AND (first_ac_time IS NULL OR VALUES(first_ac_time) &lt; first_ac_time),
+                                   VALUES(first_ac_time), first_ac_time)
+            """;
+
+    @Insert({
+        "<script>",
+        UPSERT_HEAD,
+        "WHERE s.id IN",
+        "<foreach collection='submissionIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>",
+        UPSERT_TAIL,
+        "</script>"
+    })
+    int upsertFromSubmissions(@Param("submissionIds") Collection<Long> submissionIds);
+
+    @Insert({
+        "<script>",
+        UPSERT_HEAD,
+        "WHERE s.id &gt; #{afterId} AND s.id &lt;= #{upperId}",
+        UPSERT_TAIL,
+        "</script>"
+    })
+    int upsertSubmissionRange(@Param("afterId") long afterId, @Param("upperId") long upperId);
+
+    @Select("SELECT COALESCE(MAX(id), 0) FROM submissions")
+    long selectMaxSubmissionId();
+
+    @Insert({
+        """
+        INSERT IGNORE INTO user_problem_best_watermark (name, finished_at, job_id, updated_at)
+        VALUES (#{name}, #{finishedAt}, 0, #{updatedAt})
+        """
+    })
+    int insertWatermarkIfAbsent(
+            @Param("name") String name,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Select({
+        """
+        SELECT finished_at, job_id
+        FROM user_problem_best_watermark
+        WHERE name = #{name}
+        FOR UPDATE
+        """
+    })
+    FinishedJobCursor lockWatermark(@Param("name") String name);
+
+    @Update({
+        """
+        UPDATE user_problem_best_watermark
+        SET finished_at = #{finishedAt}, job_id = #{jobId}, updated_at = #{updatedAt}
+        WHERE name = #{name}
+        """
+    })
+    int updateWatermark(
+            @Param("name") String name,
+            @Param("finishedAt") LocalDateTime finishedAt,
+            @Param("jobId") long jobId,
+            @Param("updatedAt") LocalDateTime updatedAt);
+}
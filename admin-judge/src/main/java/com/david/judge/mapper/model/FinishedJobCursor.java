@@ -0,0 +1,5 @@
+package com.david.judge.mapper.model;
+
+import java.time.LocalDateTime;
+
+public record FinishedJobCursor(LocalDateTime finishedAt, Long jobId) {}
@@ -0,0 +1,14 @@
+package com.david.judge.mapper.model;
+
+import java.time.LocalDateTime;
+
+public record FinishedJobRow(
+        Long jobId,
+        Long submissionId,
+        Long nodeId,
+        String status,
+        LocalDateTime createdAt,
+        LocalDateTime startedAt,
+        LocalDateTime finishedAt,
+        Integer languageId,
+        Long problemId) {}
@@ -0,0 +1,3 @@
+package com.david.judge.mapper.model;
+
+public record QueuedBacklogAggregate(Integer priority, Integer languageId, Long count) {}
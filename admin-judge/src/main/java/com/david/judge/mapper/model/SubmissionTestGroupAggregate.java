@@ -0,0 +1,9 @@
+package com.david.judge.mapper.model;
+
+public record SubmissionTestGroupAggregate(
+        Long groupId,
+        Integer total,
+        Integer passed,
+        Integer score,
+        Integer maxTimeMs,
+        Integer maxMemoryKb) {}
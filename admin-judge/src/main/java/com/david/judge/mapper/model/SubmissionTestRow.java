@@ -0,0 +1,11 @@
+package com.david.judge.mapper.model;
+
+public record SubmissionTestRow(
+        Long id,
+        Long testcaseId,
+        Long groupId,
+        String verdict,
+        Integer timeMs,
+        Integer memoryKb,
+        Integer score,
+        Boolean hasMessage) {}
@@ -0,0 +1,70 @@
+package com.david.judge.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.judge.dto.ArtifactDescriptor;
+import com.david.judge.entity.FileRecord;
+import com.david.judge.entity.SubmissionArtifact;
+import com.david.judge.mapper.FileRecordMapper;
+import com.david.judge.mapper.SubmissionArtifactMapper;
+import com.david.judge.storage.ArtifactStorage;
+import com.david.judge.storage.StoredObject;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactDownloadService {
+
+    private final SubmissionArtifactMapper submissionArtifactMapper;
+    private final FileRecordMapper fileRecordMapper;
+    private final ArtifactStorage artifactStorage;
+
+    public ArtifactDescriptor describe(Long artifactId) {
+        SubmissionArtifact artifact = submissionArtifactMapper.selectById(artifactId);
+        if (artifact == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "产物不存在");
+        }
+        FileRecord file =
+                artifact.getFileId() == null ? null : fileRecordMapper.selectById(artifact.getFileId());
+        if (file == null || !StringUtils.hasText(file.getStorageKey())) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "产物文件不存在");
+        }
+        return new ArtifactDescriptor(
+                artifact.getId(),
+                artifact.getKind(),
+                file.getStorageKey(),
+                resolveFileName(artifact, file.getStorageKey()),
+                file.getMimeType(),
+                file.getSha256(),
+                file.getSizeBytes());
+    }
+
+    public StoredObject open(ArtifactDescriptor descriptor) {
+        try {
+            return artifactStorage.open(descriptor.storageKey());
+        } catch (NoSuchFileException ex) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "产物文件不存在");
+        } catch (IOException ex) {
+            log.error("打开产物文件失败: artifactId={}", descriptor.artifactId(), ex);
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "读取产物文件失败");
+        }
+    }
+
+    private String resolveFileName(SubmissionArtifact artifact, String storageKey) {
+        int slash = storageKey.lastIndexOf('/');
+        String name = slash >= 0 ? storageKey.substring(slash + 1) : storageKey;
+        if (StringUtils.hasText(name)) {
+            return name;
+        }
+        return (artifact.getKind() == null ? "artifact" : artifact.getKind()) + "-" + artifact.getId();
+    }
+}
@@ -0,0 +1,376 @@
+package com.david.judge.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.core.exception.BusinessException;
+import com.david.judge.config.JudgeRejudgeProperties;
+import com.david.judge.dto.BulkRejudgeRequest;
+import com.david.judge.dto.RejudgeTaskView;
+import com.david.judge.entity.JudgeJob;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.SubmissionMapper;
+import com.david.judge.service.transition.TransitionSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class BulkRejudgeService {
+
+    private final SubmissionMapper submissionMapper;
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeAuditService auditService;
+    private final JudgeJobTransitionService transitionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final JudgeRejudgeProperties properties;
+    private final Clock clock;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, RejudgeTask> tasks = new LinkedHashMap<>();
+
+    public BulkRejudgeService(
+            SubmissionMapper submissionMapper,
+            JudgeJobMapper judgeJobMapper,
+            JudgeAuditService auditService,
+            JudgeJobTransitionService transitionService,
+            TransactionTemplate transactionTemplate,
+            @Qualifier("rejudgeTaskExecutor") ThreadPoolTaskExecutor executor,
+            JudgeRejudgeProperties properties,
+            Clock clock) {
+        this.submissionMapper = submissionMapper;
+        this.judgeJobMapper = judgeJobMapper;
+        this.auditService = auditService;
+        this.transitionService = transitionService;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public RejudgeTaskView submit(BulkRejudgeRequest request, Long actorId, String actorName) {
+        if (request == null || !request.hasAnyFilter()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "请至少指定一个重判筛选条件");
+        }
+        if (request.submittedFrom() != null
+                && request.submittedTo() != null
+                && !request.submittedFrom().isBefore(request.submittedTo())) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "提交时间范围不合法");
+        }
+        RejudgeTask task =
+                new RejudgeTask(
+                        sequence.incrementAndGet(), request, actorName, LocalDateTime.now(clock));
+        register(task);
+        try {
+            executor.execute(() -> run(task));
+        } catch (TaskRejectedException ex) {
+            task.finish("rejected", "重判任务排队已满，请稍后再试", LocalDateTime.now(clock));
+            throw new BusinessException(HttpStatus.CONFLICT, "重判任务排队已满，请稍后再试");
+        }
+        auditService.recordAction(
+                actorId,
+                actorName,
+                "JUDGE_BULK_REJUDGE",
+                "rejudge_task",
+                task.id,
+                "发起批量重判",
+                request.toString());
+        return task.toView();
+    }
+
+    public RejudgeTaskView getTask(Long taskId) {
+        return requireTask(taskId).toView();
+    }
+
+    public List<RejudgeTaskView> listTasks() {
+        synchronized (tasks) {
+            List<RejudgeTaskView> views = new ArrayList<>(tasks.size());
+            for (RejudgeTask task : tasks.values()) {
+                views.add(0, task.toView());
+            }
+            return views;
+        }
+    }
+
+    public RejudgeTaskView cancel(Long taskId) {
+        RejudgeTask task = requireTask(taskId);
+        task.cancelRequested = true;
+        return task.toView();
+    }
+
+    private RejudgeTask requireTask(Long taskId) {
+        RejudgeTask task;
+        synchronized (tasks) {
+            task = tasks.get(taskId);
+        }
+        if (task == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "重判任务不存在");
+        }
+        return task;
+    }
+
+    private void register(RejudgeTask task) {
+        synchronized (tasks) {
+            tasks.put(task.id, task);
+            Iterator<RejudgeTask> iterator = tasks.values().iterator();
+            while (tasks.size() > Math.max(properties.retainedTasks(), 1) && iterator.hasNext()) {
+                if (iterator.next().isTerminal()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void run(RejudgeTask task) {
+        task.start(LocalDateTime.now(clock));
+        BulkRejudgeRequest filter = task.filter;
+        String verdict = StringUtils.hasText(filter.verdict()) ? filter.verdict().trim() : null;
+        int batchSize = Math.max(properties.batchSize(), 1);
+        try {
+            while (!task.cancelRequested) {
+                if (!awaitBacklogCapacity(task)) {
+                    break;
+                }
+                List<Long> submissionIds =
+                        submissionMapper.selectIdsForRejudge(
+                                filter.problemId(),
+                                filter.datasetId(),
+                                filter.contestId(),
+                                filter.languageId(),
+                                verdict,
+                                filter.submittedFrom(),
+                                filter.submittedTo(),
+                                task.lastSubmissionId,
+                                batchSize);
+                if (submissionIds.isEmpty()) {
+                    break;
+                }
+                enqueueBatch(task, submissionIds);
+                if (submissionIds.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(properties.batchInterval().toMillis());
+            }
+            if (task.cancelRequested) {
+                task.finish("canceled", "任务已取消", LocalDateTime.now(clock));
+            } else {
+                task.finish("completed", null, LocalDateTime.now(clock));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            task.finish("canceled", "任务被中断", LocalDateTime.now(clock));
+        } catch (RuntimeException ex) {
+            log.error("批量重判任务失败: taskId={}", task.id, ex);
+            task.finish("failed", ex.getMessage(), LocalDateTime.now(clock));
+        }
+        log.info(
+                "批量重判任务结束: taskId={}, status={}, matched={}, enqueued={}, requeued={}",
+                task.id,
+                task.status,
+                task.matched,
+                task.enqueued,
+                task.requeued);
+    }
+
+    private boolean awaitBacklogCapacity(RejudgeTask task) throws InterruptedException {
+        while (!task.cancelRequested) {
+            Long queued =
+                    judgeJobMapper.selectCount(
+                            Wrappers.lambdaQuery(JudgeJob.class).eq(JudgeJob::getStatus, "queued"));
+            if (queued == null || queued < properties.maxQueuedBacklog()) {
+                task.status = "running";
+                return true;
+            }
+            task.status = "throttled";
+            Thread.sleep(Math.max(properties.batchInterval().toMillis(), 1000));
+        }
+        return false;
+    }
+
+    private void enqueueBatch(RejudgeTask task, List<Long> submissionIds) {
+        LocalDateTime queuedAt = LocalDateTime.now(clock);
+        int priority = properties.priority();
+        int[] counts =
+                transactionTemplate.execute(
+                        status -> {
+                            List<JudgeJob> before =
+                                    judgeJobMapper.lockJobStatesForSubmissions(submissionIds);
+                            List<JudgeJob> requeue = selectRequeueTargets(before);
+                            int requeuedRows =
+                                    requeue.isEmpty()
+                                            ? 0
+                                            : judgeJobMapper.requeueJobs(
+                                                    requeue.stream().map(JudgeJob::getId).toList(),
+                                                    priority);
+                            int insertedRows =
+                                    judgeJobMapper.insertJobsForSubmissions(
+                                            submissionIds, priority, queuedAt);
+                            List<Long> reset = resetTargets(submissionIds, before, requeue);
+                            if (!reset.isEmpty()) {
+                                submissionMapper.resetResults(reset);
+                            }
+                            recordTransitions(
+                                    submissionIds, before, requeue, insertedRows, queuedAt);
+                            return new int[] {requeuedRows, insertedRows};
+                        });
+        int requeued = counts == null ? 0 : counts[0];
+        int inserted = counts == null ? 0 : counts[1];
+        task.matched += submissionIds.size();
+        task.requeued += requeued;
+        task.enqueued += inserted;
+        task.skipped += Math.max(submissionIds.size() - requeued - inserted, 0);
+        task.lastSubmissionId = submissionIds.get(submissionIds.size() - 1);
+    }
+
+    /**
+     * Only the latest job of each submission is requeued, and only when the submission has no job
+     * that is still queued or running. Rows are already locked, so this matches what gets updated.
+     */
+    private static List<JudgeJob> selectRequeueTargets(List<JudgeJob> locked) {
+        Map<Long, JudgeJob> latest = new LinkedHashMap<>();
+        Set<Long> active = new HashSet<>();
+        for (JudgeJob job : locked) {
+            if ("queued".equals(job.getStatus()) || "running".equals(job.getStatus())) {
+                active.add(job.getSubmissionId());
+            }
+            latest.merge(
+                    job.getSubmissionId(), job, (a, b) -> a.getId() >= b.getId() ? a : b);
+        }
+        List<JudgeJob> targets = new ArrayList<>();
+        for (JudgeJob job : latest.values()) {
+            if (!active.contains(job.getSubmissionId())) {
+                targets.add(job);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * Submissions whose job was requeued, plus those that had no job at all. A submission that is
+     * still queued or running keeps its row untouched, its pending job will write the result.
+     */
+    private static List<Long> resetTargets(
+            List<Long> submissionIds, List<JudgeJob> before, List<JudgeJob> requeued) {
+        Set<Long> existing = new HashSet<>();
+        for (JudgeJob job : before) {
+            existing.add(job.getSubmissionId());
+        }
+        List<Long> targets = new ArrayList<>(submissionIds.size());
+        for (JudgeJob job : requeued) {
+            targets.add(job.getSubmissionId());
+        }
+        for (Long submissionId : submissionIds) {
+            if (!existing.contains(submissionId)) {
+                targets.add(submissionId);
+            }
+        }
+        return targets;
+    }
+
+    private void recordTransitions(
+            List<Long> submissionIds,
+            List<JudgeJob> before,
+            List<JudgeJob> requeued,
+            int inserted,
+            LocalDateTime queuedAt) {
+        Set<Long> existing = new HashSet<>();
+        for (JudgeJob job : before) {
+            existing.add(job.getSubmissionId());
+        }
+        for (JudgeJob job : requeued) {
+            transitionService.record(
+                    job.getId(),
+                    job.getStatus(),
+                    "queued",
+                    TransitionSource.REJUDGE,
+                    job.getNodeId(),
+                    queuedAt);
+        }
+        if (inserted == 0) {
+            return;
+        }
+        List<Long> created =
+                submissionIds.stream().filter(id -> !existing.contains(id)).toList();
+        if (created.isEmpty()) {
+            return;
+        }
+        for (JudgeJob job : judgeJobMapper.lockJobStatesForSubmissions(created)) {
+            transitionService.record(
+                    job.getId(), null, "queued", TransitionSource.REJUDGE, null, queuedAt);
+        }
+    }
+
+    private static final class RejudgeTask {
+        final long id;
+        final BulkRejudgeRequest filter;
+        final String requestedBy;
+        final LocalDateTime createdAt;
+        volatile String status = "pending";
+        volatile boolean cancelRequested;
+        volatile long matched;
+        volatile long enqueued;
+        volatile long requeued;
+        volatile long skipped;
+        volatile long lastSubmissionId;
+        volatile String message;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+
+        RejudgeTask(
+                long id, BulkRejudgeRequest filter, String requestedBy, LocalDateTime createdAt) {
+            this.id = id;
+            this.filter = filter;
+            this.requestedBy = requestedBy;
+            this.createdAt = createdAt;
+        }
+
+        void start(LocalDateTime now) {
+            status = "running";
+            startedAt = now;
+        }
+
+        void finish(String finalStatus, String finalMessage, LocalDateTime now) {
+            status = finalStatus;
+            message = finalMessage;
+            finishedAt = now;
+        }
+
+        boolean isTerminal() {
+            return finishedAt != null;
+        }
+
+        RejudgeTaskView toView() {
+            return new RejudgeTaskView(
+                    id,
+                    status,
+                    filter,
+                    matched,
+                    enqueued,
+                    requeued,
+                    skipped,
+                    lastSubmissionId == 0 ? null : lastSubmissionId,
+                    requestedBy,
+                    message,
+                    createdAt,
+                    startedAt,
+                    finishedAt);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.david.judge.service;
+
+import com.david.judge.config.JudgeAnalyticsProperties;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.model.FinishedJobRow;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Polls judge_jobs for rows that finished since the last watermark and fans them out to every
+ * {@link FinishedJobListener}. Judge nodes write terminal states directly to the database, so this
+ * keyset scan over (finished_at, id) is how the admin service observes those transitions.
+ */
+@Slf4j
+@Component
+public class FinishedJobFeed {
+
+    private final JudgeJobMapper judgeJobMapper;
+    private final List<FinishedJobListener> listeners;
+    private final JudgeAnalyticsProperties properties;
+    private LocalDateTime watermarkTime;
+    private long watermarkId;
+
+    public FinishedJobFeed(
+            JudgeJobMapper judgeJobMapper,
+            List<FinishedJobListener> listeners,
+            JudgeAnalyticsProperties properties,
+            Clock clock) {
+        this.judgeJobMapper = judgeJobMapper;
+        this.listeners = listeners;
+        this.properties = properties;
+        this.watermarkTime = LocalDateTime.now(clock).minus(properties.warmup());
+    }
+
+    @Scheduled(
+            initialDelayString = "${judge.analytics.initial-delay-ms:5000}",
+            fixedDelayString = "${judge.analytics.poll-interval-ms:5000}")
+    public synchronized void poll() {
+        if (!properties.enabled() || listeners.isEmpty()) {
+            return;
+        }
+        int batchSize = Math.max(properties.batchSize(), 1);
+        for (int i = 0; i < Math.max(properties.maxBatchesPerPoll(), 1); i++) {
+            List<FinishedJobRow> rows =
+                    judgeJobMapper.selectFinishedAfter(watermarkTime, watermarkId, batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            for (FinishedJobListener listener : listeners) {
+                try {
+                    listener.onFinishedJobs(rows);
+                } catch (RuntimeException ex) {
+                    log.error("处理已完成任务事件失败: listener={}", listener.getClass(), ex);
+                }
+            }
+            FinishedJobRow last = rows.get(rows.size() - 1);
+            watermarkTime = last.finishedAt();
+            watermarkId = last.jobId();
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.david.judge.service;
+
+import com.david.judge.mapper.model.FinishedJobRow;
+
+import java.util.List;
+
+/** Receives jobs that reached a terminal state, in (finished_at, id) order. */
+public interface FinishedJobListener {
+
+    void onFinishedJobs(List<FinishedJobRow> jobs);
+}
@@ -0,0 +1,54 @@
+package com.david.judge.service;
+
+import com.david.judge.entity.SecurityAuditLog;
+import com.david.judge.mapper.SecurityAuditLogMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JudgeAuditService {
+
+    private static final String SYSTEM_ACTOR = "system";
+
+    private final SecurityAuditLogMapper auditLogMapper;
+    private final Clock clock;
+
+    public void recordSystemAction(
+            String action, String objectType, Object objectId, String description, String diff) {
+        recordAction(null, SYSTEM_ACTOR, action, objectType, objectId, description, diff);
+    }
+
+    public void recordAction(
+            Long actorId,
+            String actorUsername,
+            String action,
+            String objectType,
+            Object objectId,
+            String description,
+            String diff) {
+        SecurityAuditLog entity = new SecurityAuditLog();
+        entity.setActorId(actorId);
+        entity.setActorUsername(actorUsername);
+        entity.setAction(action);
+        entity.setObjectType(objectType);
+        entity.setObjectId(objectId == null ? null : String.valueOf(objectId));
+        entity.setDescription(description);
+        entity.setDiffSnapshot(diff);
+        entity.setCreatedAt(LocalDateTime.now(clock));
+        try {
+            auditLogMapper.insert(entity);
+        } catch (RuntimeException ex) {
+            log.warn("记录审计日志失败: action={}, objectId={}", action, objectId, ex);
+            return;
+        }
+        log.info("记录审计日志: action={}, objectType={}, objectId={}", action, objectType, objectId);
+    }
+}
@@ -0,0 +1,73 @@
+package com.david.judge.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.judge.dto.ClaimedJobView;
+import com.david.judge.entity.JudgeJob;
+import com.david.judge.entity.JudgeNode;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.JudgeNodeMapper;
+import com.david.judge.service.transition.TransitionSource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JudgeDispatchService {
+
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeNodeMapper judgeNodeMapper;
+    private final JudgeJobTransitionService transitionService;
+    private final Clock clock;
+
+    /**
+     * Hands up to {@code limit} queued jobs to the node. Rows already locked by a concurrent claim
+     * are skipped rather than waited on, so nodes never block each other and a job can only be
+     * assigned once.
+     */
+    @Transactional
+    public List<ClaimedJobView> claimJobs(Long nodeId, int limit) {
+        JudgeNode node = judgeNodeMapper.selectById(nodeId);
+        if (node == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "判题节点不存在");
+        }
+        if ("offline".equals(node.getStatus())) {
+            throw new BusinessException(HttpStatus.CONFLICT, "判题节点已离线，请先恢复心跳");
+        }
+        List<JudgeJob> locked = judgeJobMapper.lockQueuedJobs(limit);
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime startedAt = LocalDateTime.now(clock);
+        List<Long> jobIds = locked.stream().map(JudgeJob::getId).toList();
+        int assigned = judgeJobMapper.assignJobs(nodeId, jobIds, startedAt);
+        if (assigned != jobIds.size()) {
+            // Rows are held FOR UPDATE, so this only happens if someone bypassed the lock.
+            throw new BusinessException(HttpStatus.CONFLICT, "任务状态已变化，请重新领取");
+        }
+        for (JudgeJob job : locked) {
+            transitionService.record(
+                    job.getId(), "queued", "running", TransitionSource.CLAIM, nodeId, startedAt);
+        }
+        log.debug("节点 {} 领取任务 {}", nodeId, jobIds);
+        return locked.stream()
+                .map(
+                        job ->
+                                new ClaimedJobView(
+                                        job.getId(),
+                                        job.getSubmissionId(),
+                                        job.getPriority(),
+                                        job.getCreatedAt(),
+                                        startedAt))
+                .toList();
+    }
+}
@@ -0,0 +1,107 @@
+package com.david.judge.service;
+
+import com.david.judge.config.JudgeArchiveProperties;
+import com.david.judge.entity.JudgeArchiveCheckpoint;
+import com.david.judge.mapper.JudgeArchiveCheckpointMapper;
+import com.david.judge.mapper.JudgeJobArchiveMapper;
+import com.david.judge.mapper.JudgeJobMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves old finished/failed jobs from judge_jobs to judge_jobs_archive. Each batch reads a page of
+ * eligible ids without locking, then locks just those primary keys, copies them, deletes the copied
+ * rows and advances the checkpoint in one short transaction, so a crash resumes where it stopped
+ * and never loses or duplicates a job. Only record locks are taken, so inserts and claims on the
+ * hot table are never blocked by gap locks. When a pass reaches the end of the table the cursor
+ * resets, picking up jobs that finished late.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JudgeJobArchiveService {
+
+    static final String CHECKPOINT_NAME = "judge_jobs_archive";
+
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeJobArchiveMapper judgeJobArchiveMapper;
+    private final JudgeArchiveCheckpointMapper checkpointMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JudgeArchiveProperties properties;
+    private final Clock clock;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public LocalDateTime archiveCutoff() {
+        return LocalDateTime.now(clock).minus(properties.retention());
+    }
+
+    @Scheduled(cron = "${judge.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!properties.enabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            runArchive();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("归档判题任务失败", ex);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runArchive() throws InterruptedException {
+        LocalDateTime cutoff = archiveCutoff();
+        int batchSize = Math.max(properties.batchSize(), 1);
+        long cursor = loadCursor();
+        long archived = 0;
+        for (int batch = 0; batch < properties.maxBatchesPerRun(); batch++) {
+            long from = cursor;
+            BatchResult result =
+                    transactionTemplate.execute(status -> archiveBatch(from, cutoff, batchSize));
+            if (result == null || result.lastId() == null) {
+                checkpointMapper.upsert(CHECKPOINT_NAME, 0L, LocalDateTime.now(clock));
+                break;
+            }
+            cursor = result.lastId();
+            archived += result.archived();
+            Thread.sleep(properties.batchPause().toMillis());
+        }
+        log.info("判题任务归档完成: archived={}, cutoff={}, cursor={}", archived, cutoff, cursor);
+    }
+
+    private BatchResult archiveBatch(long afterId, LocalDateTime cutoff, int batchSize) {
+        List<Long> candidates = judgeJobMapper.selectArchivableJobIds(afterId, cutoff, batchSize);
+        if (candidates.isEmpty()) {
+            return new BatchResult(null, 0);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        Long lastId = candidates.get(candidates.size() - 1);
+        List<Long> jobIds = judgeJobMapper.lockArchivableJobIds(candidates, cutoff);
+        int deleted = 0;
+        if (!jobIds.isEmpty()) {
+            judgeJobArchiveMapper.copyFromHot(jobIds, now);
+            deleted = judgeJobMapper.deleteArchived(jobIds);
+        }
+        checkpointMapper.upsert(CHECKPOINT_NAME, lastId, now);
+        return new BatchResult(lastId, deleted);
+    }
+
+    private long loadCursor() {
+        JudgeArchiveCheckpoint checkpoint = checkpointMapper.selectById(CHECKPOINT_NAME);
+        return checkpoint == null || checkpoint.getCursorId() == null ? 0 : checkpoint.getCursorId();
+    }
+
+    private record BatchResult(Long lastId, int archived) {}
+}
@@ -0,0 +1,127 @@
+package com.david.judge.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.david.judge.dto.JudgeJobFilter;
+import com.david.judge.dto.JudgeJobView;
+import com.david.judge.entity.JudgeJob;
+import com.david.judge.entity.JudgeJobArchive;
+import com.david.judge.mapper.JudgeJobArchiveMapper;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.service.export.CsvJobWriter;
+import com.david.judge.service.export.JudgeJobExportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Streams every job matching a {@link JudgeJobFilter} to an output stream, newest id first. Rows
+ * are read in short keyset pages and each page is hydrated through the same lookups as the paged
+ * list, so no connection stays checked out while the client downloads.
+ */
+@Slf4j
+@Service
+public class JudgeJobExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final JudgeJobService judgeJobService;
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeJobArchiveMapper judgeJobArchiveMapper;
+    private final ObjectMapper objectMapper;
+
+    public JudgeJobExportService(
+            JudgeJobService judgeJobService,
+            JudgeJobMapper judgeJobMapper,
+            JudgeJobArchiveMapper judgeJobArchiveMapper,
+            ObjectMapper objectMapper) {
+        this.judgeJobService = judgeJobService;
+        this.judgeJobMapper = judgeJobMapper;
+        this.judgeJobArchiveMapper = judgeJobArchiveMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(JudgeJobFilter filter, JudgeJobExportFormat format, OutputStream output)
+            throws IOException {
+        Writer writer =
+                new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        RowSink sink = format == JudgeJobExportFormat.CSV ? csvSink(writer) : ndjsonSink(writer);
+        long exported;
+        if (judgeJobService.readsArchive(filter)) {
+            LambdaQueryWrapper<JudgeJobArchive> wrapper =
+                    judgeJobService.buildJobQueryWrapper(JudgeJobArchive.class, filter);
+            exported =
+                    wrapper == null
+                            ? 0
+                            : drain(
+                                    beforeId ->
+                                            judgeJobArchiveMapper.selectPageBefore(
+                                                    wrapper, beforeId, CHUNK_SIZE),
+                                    sink);
+        } else {
+            LambdaQueryWrapper<JudgeJob> wrapper =
+                    judgeJobService.buildJobQueryWrapper(JudgeJob.class, filter);
+            exported =
+                    wrapper == null
+                            ? 0
+                            : drain(
+                                    beforeId ->
+                                            judgeJobMapper.selectPageBefore(
+                                                    wrapper, beforeId, CHUNK_SIZE),
+                                    sink);
+        }
+        writer.flush();
+        log.info("导出判题任务完成: format={}, rows={}", format.code(), exported);
+    }
+
+    private long drain(PageReader reader, RowSink sink) throws IOException {
+        long beforeId = Long.MAX_VALUE;
+        long total = 0;
+        while (true) {
+            List<? extends JudgeJob> page = reader.read(beforeId);
+            if (page.isEmpty()) {
+                return total;
+            }
+            beforeId = page.get(page.size() - 1).getId();
+            for (JudgeJobView view : judgeJobService.hydrateJobs(page)) {
+                sink.accept(view);
+                total++;
+            }
+            if (page.size() < CHUNK_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    private RowSink ndjsonSink(Writer writer) {
+        return view -> {
+            writer.write(objectMapper.writeValueAsString(view));
+            writer.write('\n');
+        };
+    }
+
+    private RowSink csvSink(Writer writer) throws IOException {
+        CsvJobWriter csv = new CsvJobWriter(writer);
+        csv.writeHeader();
+        return csv::write;
+    }
+
+    @FunctionalInterface
+    private interface PageReader {
+        List<? extends JudgeJob> read(long beforeId);
+    }
+
+    @FunctionalInterface
+    private interface RowSink {
+        void accept(JudgeJobView view) throws IOException;
+    }
+}
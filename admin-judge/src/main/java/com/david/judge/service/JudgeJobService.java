@@ -2,10 +2,13 @@ package com.david.judge.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.david.core.exception.BusinessException;
+import com.david.judge.dto.JobTimelineView;
 import com.david.judge.dto.JudgeJobDetailView;
+import com.david.judge.dto.JudgeJobFilter;
 import com.david.judge.dto.JudgeJobQuery;
 import com.david.judge.dto.JudgeJobView;
 import com.david.judge.dto.LanguageSummary;
@@ -14,11 +17,14 @@ import com.david.judge.dto.PageResult;
 import com.david.judge.dto.ProblemSummary;
 import com.david.judge.dto.SubmissionArtifactView;
 import com.david.judge.dto.SubmissionSummary;
+import com.david.judge.dto.SubmissionTestGroupView;
+import com.david.judge.dto.SubmissionTestMessageView;
 import com.david.judge.dto.SubmissionTestView;
 import com.david.judge.dto.TestSummary;
 import com.david.judge.dto.UserSummary;
 import com.david.judge.entity.FileRecord;
 import com.david.judge.entity.JudgeJob;
+import com.david.judge.entity.JudgeJobArchive;
 import com.david.judge.entity.JudgeNode;
 import com.david.judge.entity.Language;
 import com.david.judge.entity.Problem;
@@ -29,6 +35,7 @@ import com.david.judge.entity.Testcase;
 import com.david.judge.entity.TestcaseGroup;
 import com.david.judge.entity.User;
 import com.david.judge.mapper.FileRecordMapper;
+import com.david.judge.mapper.JudgeJobArchiveMapper;
 import com.david.judge.mapper.JudgeJobMapper;
 import com.david.judge.mapper.JudgeNodeMapper;
 import com.david.judge.mapper.LanguageMapper;
@@ -41,6 +48,9 @@ import com.david.judge.mapper.TestcaseMapper;
 import com.david.judge.mapper.UserMapper;
 import com.david.judge.mapper.model.SubmissionArtifactAggregate;
 import com.david.judge.mapper.model.SubmissionTestAggregate;
+import com.david.judge.mapper.model.SubmissionTestGroupAggregate;
+import com.david.judge.mapper.model.SubmissionTestRow;
+import com.david.judge.service.transition.TransitionSource;
 
 import lombok.RequiredArgsConstructor;
 
@@ -64,6 +74,8 @@ import java.util.stream.Collectors;
 public class JudgeJobService {
 
     private final JudgeJobMapper judgeJobMapper;
+    private final JudgeJobArchiveMapper judgeJobArchiveMapper;
+    private final JudgeJobTransitionService transitionService;
     private final SubmissionMapper submissionMapper;
     private final SubmissionTestMapper submissionTestMapper;
     private final SubmissionArtifactMapper submissionArtifactMapper;
@@ -76,22 +88,63 @@ public class JudgeJobService {
     private final TestcaseGroupMapper testcaseGroupMapper;
 
     public PageResult<JudgeJobView> pageJobs(JudgeJobQuery query) {
-        LambdaQueryWrapper<JudgeJob> wrapper = Wrappers.lambdaQuery(JudgeJob.class);
-        if (StringUtils.hasText(query.status())) {
-            wrapper.eq(JudgeJob::getStatus, query.status().trim());
+        JudgeJobFilter filter = query.filter();
+        if (readsArchive(filter)) {
+            LambdaQueryWrapper<JudgeJobArchive> wrapper =
+                    buildJobQueryWrapper(JudgeJobArchive.class, filter);
+            if (wrapper == null) {
+                return new PageResult<>(List.of(), 0, query.page(), query.size());
+            }
+            wrapper.orderByDesc(JudgeJob::getCreatedAt);
+            Page<JudgeJobArchive> result =
+                    judgeJobArchiveMapper.selectPage(
+                            new Page<>(query.page(), query.size()), wrapper);
+            return toPageResult(result);
+        }
+        LambdaQueryWrapper<JudgeJob> wrapper = buildJobQueryWrapper(JudgeJob.class, filter);
+        if (wrapper == null) {
+            return new PageResult<>(List.of(), 0, query.page(), query.size());
+        }
+        wrapper.orderByDesc(JudgeJob::getCreatedAt);
+        Page<JudgeJob> result =
+                judgeJobMapper.selectPage(new Page<>(query.page(), query.size()), wrapper);
+        return toPageResult(result);
+    }
+
+    /**
+     * Archived jobs are only read when the caller asks for them with {@code archived=true}. A
+     * creation window alone never switches tables: jobs that are still queued, running or not yet
+     * archived stay on the hot table whatever their created_at.
+     */
+    boolean readsArchive(JudgeJobFilter filter) {
+        return filter.archived();
+    }
+
+    /** Conditions only; callers add their own ordering. Returns null when nothing can match. */
+    <T extends JudgeJob> LambdaQueryWrapper<T> buildJobQueryWrapper(
+            Class<T> entityClass, JudgeJobFilter filter) {
+        LambdaQueryWrapper<T> wrapper = Wrappers.lambdaQuery(entityClass);
+        if (StringUtils.hasText(filter.status())) {
+            wrapper.eq(JudgeJob::getStatus, filter.status().trim());
         }
-        if (query.onlyUnassigned()) {
+        if (filter.onlyUnassigned()) {
             wrapper.isNull(JudgeJob::getNodeId);
-        } else if (query.nodeId() != null) {
-            wrapper.eq(JudgeJob::getNodeId, query.nodeId());
+        } else if (filter.nodeId() != null) {
+            wrapper.eq(JudgeJob::getNodeId, filter.nodeId());
+        }
+        if (filter.submissionId() != null) {
+            wrapper.eq(JudgeJob::getSubmissionId, filter.submissionId());
         }
-        if (query.submissionId() != null) {
-            wrapper.eq(JudgeJob::getSubmissionId, query.submissionId());
+        if (filter.createdFrom() != null) {
+            wrapper.ge(JudgeJob::getCreatedAt, filter.createdFrom());
+        }
+        if (filter.createdTo() != null) {
+            wrapper.lt(JudgeJob::getCreatedAt, filter.createdTo());
         }
 
         List<Long> keywordSubmissionIds = null;
-        if (StringUtils.hasText(query.keyword())) {
-            String trimmed = query.keyword().trim();
+        if (StringUtils.hasText(filter.keyword())) {
+            String trimmed = filter.keyword().trim();
             Long numeric = parseLong(trimmed);
             if (numeric != null) {
                 wrapper.and(
@@ -102,27 +155,23 @@ public class JudgeJobService {
             } else {
                 keywordSubmissionIds = submissionMapper.searchSubmissionIdsByKeyword(trimmed, 500);
                 if (CollectionUtils.isEmpty(keywordSubmissionIds)) {
-                    return new PageResult<>(List.of(), 0, query.page(), query.size());
+                    return null;
                 }
             }
         }
         if (!CollectionUtils.isEmpty(keywordSubmissionIds)) {
             wrapper.in(JudgeJob::getSubmissionId, keywordSubmissionIds);
         }
+        return wrapper;
+    }
 
-        wrapper.orderByDesc(JudgeJob::getCreatedAt);
-        Page<JudgeJob> pager = new Page<>(query.page(), query.size());
-        Page<JudgeJob> result = judgeJobMapper.selectPage(pager, wrapper);
-        List<JudgeJob> records = result.getRecords();
-        List<JudgeJobView> views = hydrateJobs(records);
+    private PageResult<JudgeJobView> toPageResult(Page<? extends JudgeJob> result) {
+        List<JudgeJobView> views = hydrateJobs(result.getRecords());
         return new PageResult<>(views, result.getTotal(), result.getCurrent(), result.getSize());
     }
 
     public JudgeJobDetailView getJobDetail(Long jobId) {
-        JudgeJob job = judgeJobMapper.selectById(jobId);
-        if (job == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "任务不存在");
-        }
+        JudgeJob job = requireJob(jobId);
         List<JudgeJobView> jobs = hydrateJobs(List.of(job));
         JudgeJobView jobView =
                 jobs.isEmpty()
@@ -139,15 +188,87 @@ public class JudgeJobService {
                                 false,
                                 new TestSummary(0, 0, 0))
                         : jobs.get(0);
-        List<SubmissionTestView> tests = loadSubmissionTests(job.getSubmissionId());
+        List<SubmissionTestGroupView> testGroups = loadSubmissionTestGroups(job.getSubmissionId());
         List<SubmissionArtifactView> artifacts = loadSubmissionArtifacts(job.getSubmissionId());
-        return new JudgeJobDetailView(jobView, tests, artifacts);
+        return new JudgeJobDetailView(jobView, testGroups, artifacts);
+    }
+
+    public PageResult<SubmissionTestView> pageSubmissionTests(
+            Long jobId, Long groupId, int page, int size) {
+        JudgeJob job = requireJob(jobId);
+        if (job.getSubmissionId() == null) {
+            return new PageResult<>(List.of(), 0, page, size);
+        }
+        IPage<SubmissionTestRow> result =
+                submissionTestMapper.pageTestRows(
+                        new Page<>(page, size), job.getSubmissionId(), groupId);
+        List<SubmissionTestRow> rows = result.getRecords();
+        if (rows.isEmpty()) {
+            return new PageResult<>(
+                    List.of(), result.getTotal(), result.getCurrent(), result.getSize());
+        }
+        Map<Long, Testcase> testcases =
+                fetchAsMap(
+                        testcaseMapper.selectByIds(
+                                rows.stream()
+                                        .map(SubmissionTestRow::testcaseId)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toSet())),
+                        Testcase::getId);
+        Map<Long, TestcaseGroup> groups =
+                fetchAsMap(
+                        testcaseGroupMapper.selectByIds(
+                                rows.stream()
+                                        .map(SubmissionTestRow::groupId)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toSet())),
+                        TestcaseGroup::getId);
+        List<SubmissionTestView> views =
+                rows.stream()
+                        .map(
+                                row -> {
+                                    Testcase testcase = testcases.get(row.testcaseId());
+                                    TestcaseGroup group = groups.get(row.groupId());
+                                    return new SubmissionTestView(
+                                            row.id(),
+                                            row.testcaseId(),
+                                            row.groupId(),
+                                            group == null ? null : group.getName(),
+                                            group != null
+                                                    && Boolean.TRUE.equals(group.getSample()),
+                                            testcase == null ? null : testcase.getOrderIndex(),
+                                            row.verdict(),
+                                            row.timeMs(),
+                                            row.memoryKb(),
+                                            row.score(),
+                                            Boolean.TRUE.equals(row.hasMessage()));
+                                })
+                        .toList();
+        return new PageResult<>(views, result.getTotal(), result.getCurrent(), result.getSize());
+    }
+
+    public SubmissionTestMessageView getSubmissionTestMessage(Long jobId, Long testId) {
+        JudgeJob job = requireJob(jobId);
+        SubmissionTest test =
+                submissionTestMapper.selectOne(
+                        Wrappers.lambdaQuery(SubmissionTest.class)
+                                .select(
+                                        SubmissionTest::getId,
+                                        SubmissionTest::getSubmissionId,
+                                        SubmissionTest::getMessage)
+                                .eq(SubmissionTest::getId, testId));
+        if (test == null || !Objects.equals(test.getSubmissionId(), job.getSubmissionId())) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "测试点不存在");
+        }
+        return new SubmissionTestMessageView(test.getId(), test.getMessage());
     }
 
     public void retryJob(Long jobId) {
         JudgeJob job = judgeJobMapper.selectById(jobId);
         if (job == null) {
-            throw new BusinessException(HttpStatus.NOT_FOUND, "任务不存在");
+            throw new BusinessException(
+                    HttpStatus.NOT_FOUND,
+                    judgeJobArchiveMapper.selectById(jobId) == null ? "任务不存在" : "已归档的任务不可重试");
         }
         if (!"failed".equals(job.getStatus()) && !"canceled".equals(job.getStatus())) {
             throw new BusinessException(HttpStatus.BAD_REQUEST, "仅失败或已取消的任务可重试");
@@ -163,9 +284,27 @@ public class JudgeJobService {
         if (affected == 0) {
             throw new BusinessException(HttpStatus.CONFLICT, "任务状态已变化，请刷新后重试");
         }
+        transitionService.record(
+                jobId, job.getStatus(), "queued", TransitionSource.RETRY, job.getNodeId());
     }
 
-    private List<JudgeJobView> hydrateJobs(List<JudgeJob> jobs) {
+    public JobTimelineView getJobTimeline(Long jobId) {
+        requireJob(jobId);
+        return transitionService.timeline(jobId);
+    }
+
+    private JudgeJob requireJob(Long jobId) {
+        JudgeJob job = judgeJobMapper.selectById(jobId);
+        if (job == null) {
+            job = judgeJobArchiveMapper.selectById(jobId);
+        }
+        if (job == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "任务不存在");
+        }
+        return job;
+    }
+
+    List<JudgeJobView> hydrateJobs(List<? extends JudgeJob> jobs) {
         if (jobs == null || jobs.isEmpty()) {
             return List.of();
         }
@@ -280,51 +419,39 @@ public class JudgeJobService {
         return result;
     }
 
-    private List<SubmissionTestView> loadSubmissionTests(Long submissionId) {
+    private List<SubmissionTestGroupView> loadSubmissionTestGroups(Long submissionId) {
         if (submissionId == null) {
             return List.of();
         }
-        List<SubmissionTest> tests =
-                submissionTestMapper.selectList(
-                        Wrappers.lambdaQuery(SubmissionTest.class)
-                                .eq(SubmissionTest::getSubmissionId, submissionId)
-                                .orderByAsc(SubmissionTest::getId));
-        if (tests.isEmpty()) {
+        List<SubmissionTestGroupAggregate> aggregates =
+                submissionTestMapper.aggregateGroups(submissionId);
+        if (aggregates.isEmpty()) {
             return List.of();
         }
-        Map<Long, Testcase> testcases =
-                fetchAsMap(
-                        testcaseMapper.selectByIds(
-                                tests.stream()
-                                        .map(SubmissionTest::getTestcaseId)
-                                        .filter(Objects::nonNull)
-                                        .collect(Collectors.toSet())),
-                        Testcase::getId);
         Map<Long, TestcaseGroup> groups =
                 fetchAsMap(
                         testcaseGroupMapper.selectByIds(
-                                tests.stream()
-                                        .map(SubmissionTest::getGroupId)
+                                aggregates.stream()
+                                        .map(SubmissionTestGroupAggregate::groupId)
                                         .filter(Objects::nonNull)
                                         .collect(Collectors.toSet())),
                         TestcaseGroup::getId);
-        return tests.stream()
+        return aggregates.stream()
                 .map(
-                        test -> {
-                            Testcase testcase = testcases.get(test.getTestcaseId());
-                            TestcaseGroup group = groups.get(test.getGroupId());
-                            return new SubmissionTestView(
-                                    test.getId(),
-                                    test.getTestcaseId(),
-                                    test.getGroupId(),
+                        aggregate -> {
+                            TestcaseGroup group = groups.get(aggregate.groupId());
+                            int total = aggregate.total() == null ? 0 : aggregate.total();
+                            int passed = aggregate.passed() == null ? 0 : aggregate.passed();
+                            return new SubmissionTestGroupView(
+                                    aggregate.groupId(),
                                     group == null ? null : group.getName(),
                                     group != null && Boolean.TRUE.equals(group.getSample()),
-                                    testcase == null ? null : testcase.getOrderIndex(),
-                                    test.getVerdict(),
-                                    test.getTimeMs(),
-                                    test.getMemoryKb(),
-                                    test.getScore(),
-                                    test.getMessage());
+                                    total,
+                                    passed,
+                                    Math.max(total - passed, 0),
+                                    aggregate.score(),
+                                    aggregate.maxTimeMs(),
+                                    aggregate.maxMemoryKb());
                         })
                 .toList();
     }
@@ -0,0 +1,106 @@
+package com.david.judge.service;
+
+import com.david.judge.config.JudgeTransitionProperties;
+import com.david.judge.entity.JudgeJobTransition;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.JudgeJobTransitionMapper;
+import com.david.judge.mapper.model.FinishedJobCursor;
+import com.david.judge.mapper.model.FinishedJobRow;
+import com.david.judge.service.transition.JobStatusCode;
+import com.david.judge.service.transition.TransitionSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs the terminal transitions the judge nodes write straight to judge_jobs. Finished jobs are
+ * read behind a watermark persisted in judge_job_transition_watermark; the rows are inserted and
+ * the watermark advanced in one transaction holding the watermark lock, so every job is logged
+ * exactly once across restarts and instances, including jobs that finished while none was up.
+ */
+@Slf4j
+@Component
+public class JudgeJobTerminalTransitionRecorder {
+
+    static final String WATERMARK = "judge_job_terminal";
+
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeJobTransitionMapper transitionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JudgeTransitionProperties properties;
+    private final Clock clock;
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    public JudgeJobTerminalTransitionRecorder(
+            JudgeJobMapper judgeJobMapper,
+            JudgeJobTransitionMapper transitionMapper,
+            TransactionTemplate transactionTemplate,
+            JudgeTransitionProperties properties,
+            Clock clock) {
+        this.judgeJobMapper = judgeJobMapper;
+        this.transitionMapper = transitionMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(
+            initialDelayString = "${judge.transitions.terminal-initial-delay-ms:5000}",
+            fixedDelayString = "${judge.transitions.terminal-poll-interval-ms:5000}")
+    public void poll() {
+        if (!properties.enabled() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            transitionMapper.insertWatermarkIfAbsent(WATERMARK, now, now);
+            int batchSize = Math.max(properties.terminalBatchSize(), 1);
+            for (int i = 0; i < Math.max(properties.terminalMaxBatchesPerPoll(), 1); i++) {
+                Integer read = transactionTemplate.execute(status -> recordNextBatch(batchSize));
+                if (read == null || read < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // the failed batch rolled back together with its watermark and is retried next poll
+            log.error("记录任务终态流转失败", ex);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private int recordNextBatch(int batchSize) {
+        FinishedJobCursor cursor = transitionMapper.lockWatermark(WATERMARK);
+        long afterId = cursor.jobId() == null ? 0L : cursor.jobId();
+        List<FinishedJobRow> jobs =
+                judgeJobMapper.selectFinishedAfter(cursor.finishedAt(), afterId, batchSize);
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+        List<JudgeJobTransition> transitions = new ArrayList<>(jobs.size());
+        for (FinishedJobRow job : jobs) {
+            JudgeJobTransition transition = new JudgeJobTransition();
+            transition.setJobId(job.jobId());
+            transition.setFromStatus(JobStatusCode.RUNNING.code());
+            transition.setToStatus(JobStatusCode.fromStatus(job.status()).code());
+            transition.setSource(TransitionSource.NODE_REPORT.code());
+            transition.setNodeId(job.nodeId());
+            transition.setOccurredAt(job.finishedAt());
+            transitions.add(transition);
+        }
+        transitionMapper.insertBatch(transitions);
+        FinishedJobRow last = jobs.get(jobs.size() - 1);
+        transitionMapper.updateWatermark(
+                WATERMARK, last.finishedAt(), last.jobId(), LocalDateTime.now(clock));
+        return jobs.size();
+    }
+}
@@ -0,0 +1,175 @@
+package com.david.judge.service;
+
+import com.david.judge.config.JudgeTransitionProperties;
+import com.david.judge.dto.JobTimelineView;
+import com.david.judge.dto.JobTransitionView;
+import com.david.judge.entity.JudgeJobTransition;
+import com.david.judge.mapper.JudgeJobTransitionMapper;
+import com.david.judge.service.transition.JobStatusCode;
+import com.david.judge.service.transition.TransitionSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Append-only log of job state transitions. Callers only enqueue; a scheduled flusher writes the
+ * queue in multi-row inserts, so recording adds no database round trip to the job path. Inside a
+ * transaction entries are enqueued after commit, so rolled-back changes leave no trace. Terminal
+ * states reported by the judge nodes are logged by {@link JudgeJobTerminalTransitionRecorder}.
+ */
+@Slf4j
+@Service
+public class JudgeJobTransitionService {
+
+    private final JudgeJobTransitionMapper transitionMapper;
+    private final JudgeTransitionProperties properties;
+    private final Clock clock;
+    private final BlockingQueue<JudgeJobTransition> queue;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+
+    public JudgeJobTransitionService(
+            JudgeJobTransitionMapper transitionMapper,
+            JudgeTransitionProperties properties,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.transitionMapper = transitionMapper;
+        this.properties = properties;
+        this.clock = clock;
+        this.queue = new ArrayBlockingQueue<>(Math.max(properties.queueCapacity(), 1));
+        this.droppedCounter = meterRegistry.counter("judge.job.transitions.dropped");
+        this.writtenCounter = meterRegistry.counter("judge.job.transitions.written");
+        meterRegistry.gaugeCollectionSize("judge.job.transitions.pending", List.of(), queue);
+    }
+
+    public void record(
+            Long jobId,
+            String fromStatus,
+            String toStatus,
+            TransitionSource source,
+            Long nodeId) {
+        record(jobId, fromStatus, toStatus, source, nodeId, LocalDateTime.now(clock));
+    }
+
+    public void record(
+            Long jobId,
+            String fromStatus,
+            String toStatus,
+            TransitionSource source,
+            Long nodeId,
+            LocalDateTime occurredAt) {
+        if (!properties.enabled() || jobId == null) {
+            return;
+        }
+        JudgeJobTransition transition = new JudgeJobTransition();
+        transition.setJobId(jobId);
+        transition.setFromStatus(JobStatusCode.fromStatus(fromStatus).code());
+        transition.setToStatus(JobStatusCode.fromStatus(toStatus).code());
+        transition.setSource(source.code());
+        transition.setNodeId(nodeId);
+        transition.setOccurredAt(occurredAt);
+        enqueue(List.of(transition));
+    }
+
+    public void recordAll(Collection<JudgeJobTransition> transitions) {
+        if (properties.enabled() && !transitions.isEmpty()) {
+            enqueue(List.copyOf(transitions));
+        }
+    }
+
+    private void enqueue(List<JudgeJobTransition> transitions) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            offerAll(transitions);
+                        }
+                    });
+        } else {
+            offerAll(transitions);
+        }
+    }
+
+    private void offerAll(List<JudgeJobTransition> transitions) {
+        for (JudgeJobTransition transition : transitions) {
+            if (!queue.offer(transition)) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${judge.transitions.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        int batchSize = Math.max(properties.batchSize(), 1);
+        List<JudgeJobTransition> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                transitionMapper.insertBatch(batch);
+                writtenCounter.increment(batch.size());
+            } catch (RuntimeException ex) {
+                droppedCounter.increment(batch.size());
+                log.error("写入任务状态流转日志失败，丢弃 {} 条", batch.size(), ex);
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public JobTimelineView timeline(Long jobId) {
+        int limit = Math.max(properties.timelineLimit(), 1);
+        List<JudgeJobTransition> rows = transitionMapper.selectByJobId(jobId, limit + 1);
+        boolean truncated = rows.size() > limit;
+        List<JudgeJobTransition> visible = truncated ? rows.subList(0, limit) : rows;
+
+        List<JobTransitionView> transitions = new ArrayList<>(visible.size());
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long requeues = 0;
+        for (JudgeJobTransition row : visible) {
+            JobStatusCode from = JobStatusCode.fromCode(row.getFromStatus());
+            JobStatusCode to = JobStatusCode.fromCode(row.getToStatus());
+            transitions.add(
+                    new JobTransitionView(
+                            row.getOccurredAt(),
+                            from.status(),
+                            to.status(),
+                            TransitionSource.fromCode(row.getSource()).label(),
+                            row.getNodeId()));
+            counts.merge(from.status() + "->" + to.status(), 1L, Long::sum);
+            if (to == JobStatusCode.QUEUED && from != JobStatusCode.NONE) {
+                requeues++;
+            }
+        }
+        long distinctNodes =
+                visible.stream()
+                        .map(JudgeJobTransition::getNodeId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .count();
+        return new JobTimelineView(jobId, transitions, counts, requeues, distinctNodes, truncated);
+    }
+}
@@ -0,0 +1,235 @@
+package com.david.judge.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.judge.config.JudgeAnalyticsProperties;
+import com.david.judge.dto.LatencyPercentiles;
+import com.david.judge.dto.LatencySliceView;
+import com.david.judge.entity.JudgeNode;
+import com.david.judge.entity.Language;
+import com.david.judge.entity.Problem;
+import com.david.judge.mapper.JudgeNodeMapper;
+import com.david.judge.mapper.LanguageMapper;
+import com.david.judge.mapper.ProblemMapper;
+import com.david.judge.mapper.model.FinishedJobRow;
+import com.david.judge.service.analytics.LatencyHistogram;
+import com.david.judge.service.analytics.LatencyWindow;
+import com.david.judge.service.analytics.RollingLatencyHistogram;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Queue-wait (created_at to started_at) and run (started_at to finished_at) latency per language,
+ * node and problem, maintained incrementally from {@link FinishedJobFeed}. Requests only merge the
+ * in-memory slots of the requested window and never touch judge_jobs.
+ */
+@Service
+public class JudgeLatencyAnalyticsService implements FinishedJobListener {
+
+    public static final String LANGUAGE = "language";
+    public static final String NODE = "node";
+    public static final String PROBLEM = "problem";
+
+    private static final long OTHER_KEY = 0L;
+    private static final long METER_EXPORT_WINDOW_MS = Duration.ofMinutes(5).toMillis();
+
+    private final Map<String, Map<Long, KeyedLatency>> slices =
+            Map.of(
+                    LANGUAGE, new ConcurrentHashMap<>(),
+                    NODE, new ConcurrentHashMap<>(),
+                    PROBLEM, new ConcurrentHashMap<>());
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final LanguageMapper languageMapper;
+    private final JudgeNodeMapper judgeNodeMapper;
+    private final ProblemMapper problemMapper;
+    private final MeterRegistry meterRegistry;
+    private final JudgeAnalyticsProperties properties;
+    private final Clock clock;
+
+    public JudgeLatencyAnalyticsService(
+            LanguageMapper languageMapper,
+            JudgeNodeMapper judgeNodeMapper,
+            ProblemMapper problemMapper,
+            MeterRegistry meterRegistry,
+            JudgeAnalyticsProperties properties,
+            Clock clock) {
+        this.languageMapper = languageMapper;
+        this.judgeNodeMapper = judgeNodeMapper;
+        this.problemMapper = problemMapper;
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Override
+    public void onFinishedJobs(List<FinishedJobRow> jobs) {
+        long now = clock.millis();
+        for (FinishedJobRow job : jobs) {
+            if (job.startedAt() == null || job.finishedAt() == null) {
+                continue;
+            }
+            long finishedAt = toMillis(job.finishedAt());
+            long runMs = Math.max(finishedAt - toMillis(job.startedAt()), 0);
+            long waitMs =
+                    job.createdAt() == null
+                            ? -1
+                            : Math.max(toMillis(job.startedAt()) - toMillis(job.createdAt()), 0);
+            Long languageKey = job.languageId() == null ? null : job.languageId().longValue();
+            record(LANGUAGE, languageKey, finishedAt, waitMs, runMs);
+            record(NODE, job.nodeId(), finishedAt, waitMs, runMs);
+            record(PROBLEM, problemKey(job.problemId()), finishedAt, waitMs, runMs);
+            if (now - finishedAt <= METER_EXPORT_WINDOW_MS) {
+                exportToMeters(languageKey, job.nodeId(), waitMs, runMs);
+            }
+        }
+    }
+
+    public List<LatencySliceView> slice(String dimension, LatencyWindow window, int limit) {
+        Map<Long, KeyedLatency> byKey = slices.get(dimension);
+        if (byKey == null) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "不支持的统计维度: " + dimension);
+        }
+        long now = clock.millis();
+        List<SliceSnapshot> snapshots = new ArrayList<>();
+        byKey.forEach(
+                (key, latency) -> {
+                    LatencyHistogram wait = latency.queueWait.snapshot(window, now);
+                    LatencyHistogram run = latency.run.snapshot(window, now);
+                    if (wait.count() > 0 || run.count() > 0) {
+                        snapshots.add(new SliceSnapshot(key, wait, run));
+                    }
+                });
+        List<SliceSnapshot> top =
+                snapshots.stream()
+                        .sorted(
+                                Comparator.comparingLong((SliceSnapshot s) -> s.run.count())
+                                        .reversed())
+                        .limit(limit)
+                        .toList();
+        Map<Long, String> labels =
+                resolveLabels(dimension, top.stream().map(SliceSnapshot::key).toList());
+        return top.stream()
+                .map(
+                        snapshot ->
+                                new LatencySliceView(
+                                        dimension,
+                                        snapshot.key,
+                                        snapshot.key == OTHER_KEY
+                                                ? "其他"
+                                                : labels.getOrDefault(
+                                                        snapshot.key, "#" + snapshot.key),
+                                        window.code(),
+                                        toPercentiles(snapshot.queueWait),
+                                        toPercentiles(snapshot.run)))
+                .toList();
+    }
+
+    /** Finished jobs per key within the window, used by throughput-based estimates. */
+    public Map<Long, Long> completions(String dimension, LatencyWindow window) {
+        Map<Long, KeyedLatency> byKey = slices.getOrDefault(dimension, Map.of());
+        long now = clock.millis();
+        return byKey.entrySet().stream()
+                .collect(
+                        Collectors.toMap(
+                                Map.Entry::getKey,
+                                entry -> entry.getValue().run.snapshot(window, now).count()));
+    }
+
+    private void record(String dimension, Long key, long finishedAt, long waitMs, long runMs) {
+        if (key == null) {
+            return;
+        }
+        KeyedLatency latency = slices.get(dimension).computeIfAbsent(key, k -> new KeyedLatency());
+        if (waitMs >= 0) {
+            latency.queueWait.record(finishedAt, waitMs);
+        }
+        latency.run.record(finishedAt, runMs);
+    }
+
+    private Long problemKey(Long problemId) {
+        if (problemId == null) {
+            return null;
+        }
+        Map<Long, KeyedLatency> problems = slices.get(PROBLEM);
+        if (problems.containsKey(problemId)
+                || problems.size() < Math.max(properties.maxProblemKeys(), 1)) {
+            return problemId;
+        }
+        return OTHER_KEY;
+    }
+
+    private void exportToMeters(Long languageId, Long nodeId, long waitMs, long runMs) {
+        String language = languageId == null ? "unknown" : String.valueOf(languageId);
+        String node = nodeId == null ? "unknown" : String.valueOf(nodeId);
+        if (waitMs >= 0) {
+            timer("judge.job.queue.wait", language, node).record(Duration.ofMillis(waitMs));
+        }
+        timer("judge.job.run", language, node).record(Duration.ofMillis(runMs));
+    }
+
+    private Timer timer(String name, String language, String node) {
+        return timers.computeIfAbsent(
+                name + '|' + language + '|' + node,
+                key ->
+                        Timer.builder(name)
+                                .tag("language", language)
+                                .tag("node", node)
+                                .publishPercentileHistogram()
+                                .register(meterRegistry));
+    }
+
+    private Map<Long, String> resolveLabels(String dimension, Collection<Long> keys) {
+        List<Long> ids = keys.stream().filter(key -> key != OTHER_KEY).toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return switch (dimension) {
+            case LANGUAGE -> languageMapper
+                    .selectByIds(ids.stream().map(Long::intValue).toList())
+                    .stream()
+                    .collect(
+                            Collectors.toMap(
+                                    language -> language.getId().longValue(),
+                                    Language::getCode,
+                                    (a, b) -> a));
+            case NODE -> judgeNodeMapper.selectByIds(ids).stream()
+                    .collect(Collectors.toMap(JudgeNode::getId, JudgeNode::getName, (a, b) -> a));
+            default -> problemMapper.selectByIds(ids).stream()
+                    .collect(Collectors.toMap(Problem::getId, Problem::getSlug, (a, b) -> a));
+        };
+    }
+
+    private LatencyPercentiles toPercentiles(LatencyHistogram histogram) {
+        return new LatencyPercentiles(
+                histogram.count(),
+                histogram.valueAt(0.50),
+                histogram.valueAt(0.95),
+                histogram.valueAt(0.99),
+                histogram.max());
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private record SliceSnapshot(Long key, LatencyHistogram queueWait, LatencyHistogram run) {}
+
+    private static final class KeyedLatency {
+        final RollingLatencyHistogram queueWait = new RollingLatencyHistogram();
+        final RollingLatencyHistogram run = new RollingLatencyHistogram();
+    }
+}
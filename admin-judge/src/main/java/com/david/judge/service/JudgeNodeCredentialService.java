@@ -0,0 +1,65 @@
+package com.david.judge.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.judge.config.JudgeDispatchProperties;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Per-node claim tokens: HMAC-SHA256 of the node id under the dispatch secret. A token is only good
+ * for the node it was issued to, so an admin session alone cannot claim jobs in a node's name.
+ */
+@Service
+@RequiredArgsConstructor
+public class JudgeNodeCredentialService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final JudgeDispatchProperties properties;
+
+    public String issueToken(Long nodeId) {
+        return HexFormat.of().formatHex(sign(nodeId));
+    }
+
+    public void verify(Long nodeId, String token) {
+        if (!StringUtils.hasText(token)) {
+            throw new BusinessException(HttpStatus.UNAUTHORIZED, "缺少判题节点凭证");
+        }
+        byte[] presented;
+        try {
+            presented = HexFormat.of().parseHex(token.trim());
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException(HttpStatus.FORBIDDEN, "判题节点凭证无效");
+        }
+        if (!MessageDigest.isEqual(sign(nodeId), presented)) {
+            throw new BusinessException(HttpStatus.FORBIDDEN, "判题节点凭证无效");
+        }
+    }
+
+    private byte[] sign(Long nodeId) {
+        if (!StringUtils.hasText(properties.nodeSecret())) {
+            throw new BusinessException(HttpStatus.SERVICE_UNAVAILABLE, "未配置判题节点凭证密钥");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(
+                    new SecretKeySpec(
+                            properties.nodeSecret().getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(("judge-node:" + nodeId).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -2,24 +2,25 @@ package com.david.judge.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.core.exception.BusinessException;
 import com.david.judge.dto.JudgeNodeView;
 import com.david.judge.dto.NodeMetrics;
+import com.david.judge.dto.NodeRuntimeInfo;
 import com.david.judge.entity.JudgeNode;
 import com.david.judge.mapper.JudgeJobMapper;
 import com.david.judge.mapper.JudgeNodeMapper;
 import com.david.judge.mapper.model.NodeFinishedAggregate;
 import com.david.judge.mapper.model.NodeStatusAggregate;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -28,17 +29,17 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class JudgeNodeService {
 
     private final JudgeNodeMapper judgeNodeMapper;
     private final JudgeJobMapper judgeJobMapper;
-    private final ObjectMapper objectMapper;
+    private final NodeRuntimeInfoCache runtimeInfoCache;
     private final Clock clock;
 
-    public List<JudgeNodeView> listNodes(String status, String keyword) {
+    public List<JudgeNodeView> listNodes(
+            String status, String keyword, String language, Integer minCpu) {
         LambdaQueryWrapper<JudgeNode> query = Wrappers.lambdaQuery(JudgeNode.class);
         if (StringUtils.hasText(status)) {
             query.eq(JudgeNode::getStatus, status.trim());
@@ -48,12 +49,44 @@ public class JudgeNodeService {
             query.like(JudgeNode::getName, trimmed);
         }
         query.orderByAsc(JudgeNode::getName);
-        List<JudgeNode> nodes = judgeNodeMapper.selectList(query);
+        List<JudgeNode> rows = judgeNodeMapper.selectList(query);
+        if (!StringUtils.hasText(status) && !StringUtils.hasText(keyword)) {
+            runtimeInfoCache.retainOnly(rows.stream().map(JudgeNode::getId).toList());
+        }
+        List<JudgeNode> nodes = new ArrayList<>();
+        Map<Long, NodeRuntimeInfo> runtimes = new HashMap<>();
+        for (JudgeNode node : rows) {
+            NodeRuntimeInfo runtime = runtimeInfoCache.resolve(node.getId(), node.getRuntimeInfo());
+            if (matchesRuntime(runtime, language, minCpu)) {
+                nodes.add(node);
+                runtimes.put(node.getId(), runtime);
+            }
+        }
         if (nodes.isEmpty()) {
             return List.of();
         }
         Map<Long, NodeMetrics> metrics = buildMetrics(nodes);
-        return nodes.stream().map(node -> toView(node, metrics.get(node.getId()))).toList();
+        return nodes.stream()
+                .map(
+                        node ->
+                                toView(
+                                        node,
+                                        runtimes.getOrDefault(node.getId(), NodeRuntimeInfo.EMPTY),
+                                        metrics.get(node.getId())))
+                .toList();
+    }
+
+    public void ensureNodeExists(Long nodeId) {
+        if (judgeNodeMapper.selectById(nodeId) == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "判题节点不存在");
+        }
+    }
+
+    private boolean matchesRuntime(NodeRuntimeInfo runtime, String language, Integer minCpu) {
+        if (StringUtils.hasText(language) && !runtime.supportsLanguage(language.trim())) {
+            return false;
+        }
+        return minCpu == null || (runtime.cpuCount() != null && runtime.cpuCount() >= minCpu);
     }
 
     private Map<Long, NodeMetrics> buildMetrics(List<JudgeNode> nodes) {
@@ -105,32 +138,19 @@ public class JudgeNodeService {
         return value == null ? 0 : value;
     }
 
-    private JudgeNodeView toView(JudgeNode node, NodeMetrics metrics) {
-        Map<String, Object> runtime = parseRuntimeInfo(node.getRuntimeInfo());
+    private JudgeNodeView toView(JudgeNode node, NodeRuntimeInfo runtime, NodeMetrics metrics) {
         NodeMetrics resolved = metrics == null ? new NodeMetrics(0, 0, 0, 0) : metrics;
         return new JudgeNodeView(
                 node.getId(),
                 node.getName(),
                 node.getStatus(),
+                runtime.attributes(),
                 runtime,
                 node.getLastHeartbeat(),
                 node.getCreatedAt(),
                 resolved);
     }
 
-    private Map<String, Object> parseRuntimeInfo(String payload) {
-        if (!StringUtils.hasText(payload)) {
-            return Map.of();
-        }
-        try {
-            return objectMapper.readValue(
-                    payload, objectMapper.getTypeFactory().constructType(Map.class));
-        } catch (JsonProcessingException ex) {
-            log.warn("解析 runtime_info 失败: {}", payload, ex);
-            return Map.of("raw", payload);
-        }
-    }
-
     private static final class NodeMetricsBuilder {
         long queued;
         long running;
@@ -0,0 +1,160 @@
+package com.david.judge.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.judge.config.JudgeWatchdogProperties;
+import com.david.judge.entity.JudgeJobTransition;
+import com.david.judge.entity.JudgeNode;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.JudgeNodeMapper;
+import com.david.judge.service.transition.JobStatusCode;
+import com.david.judge.service.transition.TransitionSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Component
+public class JudgeNodeWatchdog {
+
+    private static final int AUDIT_JOB_ID_LIMIT = 500;
+
+    private final JudgeNodeMapper judgeNodeMapper;
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeAuditService auditService;
+    private final JudgeJobTransitionService transitionService;
+    private final JudgeWatchdogProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Counter offlineCounter;
+    private final Counter requeuedCounter;
+    private final Timer sweepTimer;
+
+    public JudgeNodeWatchdog(
+            JudgeNodeMapper judgeNodeMapper,
+            JudgeJobMapper judgeJobMapper,
+            JudgeAuditService auditService,
+            JudgeJobTransitionService transitionService,
+            JudgeWatchdogProperties properties,
+            TransactionTemplate transactionTemplate,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.judgeNodeMapper = judgeNodeMapper;
+        this.judgeJobMapper = judgeJobMapper;
+        this.auditService = auditService;
+        this.transitionService = transitionService;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.clock = clock;
+        this.offlineCounter = meterRegistry.counter("judge.watchdog.nodes.offline");
+        this.requeuedCounter = meterRegistry.counter("judge.watchdog.jobs.requeued");
+        this.sweepTimer = meterRegistry.timer("judge.watchdog.sweep");
+    }
+
+    @Scheduled(
+            initialDelayString = "${judge.watchdog.initial-delay-ms:30000}",
+            fixedDelayString = "${judge.watchdog.interval-ms:30000}")
+    public void sweep() {
+        if (!properties.enabled()) {
+            return;
+        }
+        sweepTimer.record(this::sweepStaleNodes);
+    }
+
+    private void sweepStaleNodes() {
+        LocalDateTime threshold = LocalDateTime.now(clock).minus(properties.heartbeatTimeout());
+        List<JudgeNode> staleNodes =
+                judgeNodeMapper.selectList(
+                        Wrappers.lambdaQuery(JudgeNode.class)
+                                .ne(JudgeNode::getStatus, "offline")
+                                .lt(JudgeNode::getLastHeartbeat, threshold));
+        for (JudgeNode node : staleNodes) {
+            try {
+                handleStaleNode(node, threshold);
+            } catch (RuntimeException ex) {
+                log.error("处理失联判题节点失败: nodeId={}", node.getId(), ex);
+            }
+        }
+    }
+
+    private void handleStaleNode(JudgeNode node, LocalDateTime threshold) {
+        // The conditional update loses to a heartbeat that lands between the scan and here.
+        if (judgeNodeMapper.markOfflineIfStale(node.getId(), threshold) == 0) {
+            return;
+        }
+        offlineCounter.increment();
+        List<Long> requeued = requeueRunningJobs(node.getId());
+        log.warn(
+                "判题节点心跳超时，已标记离线: nodeId={}, name={}, lastHeartbeat={}, requeued={}",
+                node.getId(),
+                node.getName(),
+                node.getLastHeartbeat(),
+                requeued.size());
+        auditService.recordSystemAction(
+                "JUDGE_NODE_OFFLINE",
+                "judge_node",
+                node.getId(),
+                String.format(
+                        "节点 %s 心跳超时（最后心跳 %s），重新排队 %d 个运行中任务",
+                        node.getName(), node.getLastHeartbeat(), requeued.size()),
+                requeued.isEmpty()
+                        ? null
+                        : requeued.subList(0, Math.min(requeued.size(), AUDIT_JOB_ID_LIMIT))
+                                .toString());
+    }
+
+    private List<Long> requeueRunningJobs(Long nodeId) {
+        int batchSize = Math.max(properties.batchSize(), 1);
+        List<Long> requeued = new ArrayList<>();
+        while (true) {
+            List<Long> jobIds =
+                    transactionTemplate.execute(status -> requeueBatch(nodeId, batchSize));
+            if (jobIds == null || jobIds.isEmpty()) {
+                break;
+            }
+            requeued.addAll(jobIds);
+            requeuedCounter.increment(jobIds.size());
+            if (jobIds.size() < batchSize) {
+                break;
+            }
+        }
+        return requeued;
+    }
+
+    /**
+     * The batch is locked before it is updated, so a node report cannot finish one of these jobs
+     * in between and every locked id is exactly one row moved back to the queue.
+     */
+    private List<Long> requeueBatch(Long nodeId, int batchSize) {
+        List<Long> jobIds = judgeJobMapper.lockRunningJobIds(nodeId, batchSize);
+        if (jobIds.isEmpty()) {
+            return jobIds;
+        }
+        judgeJobMapper.requeueRunningJobs(nodeId, jobIds);
+        LocalDateTime requeuedAt = LocalDateTime.now(clock);
+        List<JudgeJobTransition> transitions = new ArrayList<>(jobIds.size());
+        for (Long jobId : jobIds) {
+            JudgeJobTransition transition = new JudgeJobTransition();
+            transition.setJobId(jobId);
+            transition.setFromStatus(JobStatusCode.RUNNING.code());
+            transition.setToStatus(JobStatusCode.QUEUED.code());
+            transition.setSource(TransitionSource.WATCHDOG.code());
+            transition.setNodeId(nodeId);
+            transition.setOccurredAt(requeuedAt);
+            transitions.add(transition);
+        }
+        transitionService.recordAll(transitions);
+        return jobIds;
+    }
+}
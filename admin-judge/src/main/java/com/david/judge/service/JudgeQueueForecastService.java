@@ -0,0 +1,213 @@
+package com.david.judge.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.judge.config.JudgeForecastProperties;
+import com.david.judge.dto.LanguageBacklogView;
+import com.david.judge.dto.NodeRuntimeInfo;
+import com.david.judge.dto.PriorityBacklogView;
+import com.david.judge.dto.QueueForecastView;
+import com.david.judge.entity.JudgeNode;
+import com.david.judge.entity.Language;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.JudgeNodeMapper;
+import com.david.judge.mapper.LanguageMapper;
+import com.david.judge.mapper.model.QueuedBacklogAggregate;
+import com.david.judge.service.analytics.LatencyWindow;
+import com.david.judge.service.analytics.RollingLatencyHistogram;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Estimates how long the queue takes to drain. The queued backlog (by priority and language) and
+ * the set of online nodes are refreshed on a schedule into an immutable snapshot; throughput comes
+ * from the in-memory completion counters of {@link JudgeLatencyAnalyticsService}. Serving a
+ * forecast therefore never touches judge_jobs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class JudgeQueueForecastService {
+
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeNodeMapper judgeNodeMapper;
+    private final LanguageMapper languageMapper;
+    private final NodeRuntimeInfoCache runtimeInfoCache;
+    private final JudgeLatencyAnalyticsService latencyAnalyticsService;
+    private final JudgeForecastProperties properties;
+    private final Clock clock;
+    private volatile BacklogSnapshot snapshot;
+
+    @Scheduled(
+            initialDelayString = "${judge.forecast.initial-delay-ms:5000}",
+            fixedDelayString = "${judge.forecast.refresh-interval-ms:10000}")
+    public void refresh() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            snapshot = loadSnapshot();
+        } catch (RuntimeException ex) {
+            log.error("刷新判题队列积压快照失败", ex);
+        }
+    }
+
+    public QueueForecastView forecast() {
+        BacklogSnapshot current = snapshot;
+        if (current == null) {
+            current = loadSnapshot();
+            snapshot = current;
+        }
+
+        List<Long> onlineNodeIds = current.nodes().stream().map(OnlineNode::id).toList();
+        LatencyWindow window = LatencyWindow.FIVE_MINUTES;
+        long completed = sumCompletions(onlineNodeIds, window);
+        if (completed < properties.minRecentCompletions()) {
+            window = LatencyWindow.ONE_HOUR;
+            completed = sumCompletions(onlineNodeIds, window);
+        }
+        // Slot-aligned windows cover the older full slots plus part of the current one.
+        double minutes = RollingLatencyHistogram.coveredMillis(window, clock.millis()) / 60_000.0;
+        double perMinute = completed / minutes;
+
+        long totalQueued = 0;
+        Map<Integer, Long> byPriority = new TreeMap<>(Comparator.reverseOrder());
+        Map<Integer, Long> byLanguage = new TreeMap<>();
+        for (QueuedBacklogAggregate aggregate : current.backlog()) {
+            long count = aggregate.count() == null ? 0 : aggregate.count();
+            totalQueued += count;
+            int priority = aggregate.priority() == null ? 0 : aggregate.priority();
+            byPriority.merge(priority, count, Long::sum);
+            if (aggregate.languageId() != null) {
+                byLanguage.merge(aggregate.languageId(), count, Long::sum);
+            }
+        }
+
+        // A job waits behind everything queued at its own or a higher priority.
+        List<PriorityBacklogView> priorities = new ArrayList<>(byPriority.size());
+        long ahead = 0;
+        for (Map.Entry<Integer, Long> entry : byPriority.entrySet()) {
+            ahead += entry.getValue();
+            priorities.add(
+                    new PriorityBacklogView(
+                            entry.getKey(), entry.getValue(), drainSeconds(ahead, perMinute)));
+        }
+
+        Map<Long, Long> languageCompletions =
+                latencyAnalyticsService.completions(JudgeLatencyAnalyticsService.LANGUAGE, window);
+        List<LanguageBacklogView> languages = new ArrayList<>(byLanguage.size());
+        for (Map.Entry<Integer, Long> entry : byLanguage.entrySet()) {
+            Language language = current.languages().get(entry.getKey());
+            String code = language == null ? null : language.getCode();
+            int capable = countCapableNodes(current.nodes(), code);
+            double languagePerMinute =
+                    languageCompletions.getOrDefault(entry.getKey().longValue(), 0L) / minutes;
+            languages.add(
+                    new LanguageBacklogView(
+                            entry.getKey(),
+                            code,
+                            entry.getValue(),
+                            languagePerMinute,
+                            drainSeconds(entry.getValue(), languagePerMinute),
+                            capable,
+                            capable == 0));
+        }
+        languages.sort(
+                Comparator.comparing(LanguageBacklogView::noCapableNode)
+                        .thenComparingLong(LanguageBacklogView::queued)
+                        .reversed());
+
+        return new QueueForecastView(
+                current.takenAt(),
+                totalQueued,
+                current.nodes().size(),
+                window.code(),
+                perMinute,
+                drainSeconds(totalQueued, perMinute),
+                priorities,
+                languages);
+    }
+
+    private BacklogSnapshot loadSnapshot() {
+        List<QueuedBacklogAggregate> backlog = judgeJobMapper.aggregateQueuedBacklog();
+        List<OnlineNode> nodes =
+                judgeNodeMapper
+                        .selectList(
+                                Wrappers.lambdaQuery(JudgeNode.class)
+                                        .ne(JudgeNode::getStatus, "offline"))
+                        .stream()
+                        .map(
+                                node ->
+                                        new OnlineNode(
+                                                node.getId(),
+                                                runtimeInfoCache.resolve(
+                                                        node.getId(), node.getRuntimeInfo())))
+                        .toList();
+        List<Integer> languageIds =
+                backlog.stream()
+                        .map(QueuedBacklogAggregate::languageId)
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .toList();
+        Map<Integer, Language> languages =
+                languageIds.isEmpty()
+                        ? Map.of()
+                        : languageMapper.selectByIds(languageIds).stream()
+                                .collect(
+                                        Collectors.toMap(
+                                                Language::getId,
+                                                Function.identity(),
+                                                (a, b) -> a));
+        return new BacklogSnapshot(LocalDateTime.now(clock), backlog, nodes, languages);
+    }
+
+    private long sumCompletions(List<Long> nodeIds, LatencyWindow window) {
+        Map<Long, Long> completions =
+                latencyAnalyticsService.completions(JudgeLatencyAnalyticsService.NODE, window);
+        return nodeIds.stream().mapToLong(id -> completions.getOrDefault(id, 0L)).sum();
+    }
+
+    /** Nodes that do not report a language list are assumed to accept every language. */
+    private int countCapableNodes(List<OnlineNode> nodes, String code) {
+        int capable = 0;
+        for (OnlineNode node : nodes) {
+            List<String> supported = node.runtime().languages();
+            if (supported.isEmpty() || (code != null && node.runtime().supportsLanguage(code))) {
+                capable++;
+            }
+        }
+        return capable;
+    }
+
+    private Long drainSeconds(long queued, double perMinute) {
+        if (queued == 0) {
+            return 0L;
+        }
+        if (perMinute <= 0) {
+            return null;
+        }
+        return Math.round(queued / perMinute * 60);
+    }
+
+    private record OnlineNode(Long id, NodeRuntimeInfo runtime) {}
+
+    private record BacklogSnapshot(
+            LocalDateTime takenAt,
+            List<QueuedBacklogAggregate> backlog,
+            List<OnlineNode> nodes,
+            Map<Integer, Language> languages) {}
+}
@@ -0,0 +1,122 @@
+package com.david.judge.service;
+
+import com.david.judge.dto.NodeRuntimeInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed runtime_info per node. An entry is reused as long as the stored payload is unchanged, so
+ * the JSON is parsed again only after a heartbeat actually rewrites it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NodeRuntimeInfoCache {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public NodeRuntimeInfo resolve(Long nodeId, String payload) {
+        if (!StringUtils.hasText(payload)) {
+            if (nodeId != null) {
+                entries.remove(nodeId);
+            }
+            return NodeRuntimeInfo.EMPTY;
+        }
+        if (nodeId == null) {
+            return parse(payload);
+        }
+        int hash = payload.hashCode();
+        Entry cached = entries.get(nodeId);
+        if (cached != null && cached.hash() == hash && cached.payload().equals(payload)) {
+            return cached.info();
+        }
+        NodeRuntimeInfo info = parse(payload);
+        entries.put(nodeId, new Entry(hash, payload, info));
+        return info;
+    }
+
+    /** Drops entries of nodes that no longer exist; called with the full node list. */
+    public void retainOnly(Collection<Long> nodeIds) {
+        entries.keySet().retainAll(nodeIds);
+    }
+
+    private NodeRuntimeInfo parse(String payload) {
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            if (root == null || !root.isObject()) {
+                return new NodeRuntimeInfo(null, null, null, List.of(), Map.of("raw", payload));
+            }
+            Map<String, Object> attributes =
+                    Collections.unmodifiableMap(objectMapper.convertValue(root, MAP_TYPE));
+            return new NodeRuntimeInfo(
+                    readInt(root, "cpuCount", "cpu_count", "cpus"),
+                    readLong(root, "memoryMb", "memory_mb"),
+                    readText(root, "version"),
+                    readLanguages(root.get("languages")),
+                    attributes);
+        } catch (JsonProcessingException | IllegalArgumentException ex) {
+            log.warn("解析 runtime_info 失败: {}", payload, ex);
+            return new NodeRuntimeInfo(null, null, null, List.of(), Map.of("raw", payload));
+        }
+    }
+
+    private Integer readInt(JsonNode root, String... names) {
+        JsonNode value = first(root, names);
+        return value != null && value.canConvertToInt() ? value.asInt() : null;
+    }
+
+    private Long readLong(JsonNode root, String... names) {
+        JsonNode value = first(root, names);
+        return value != null && value.canConvertToLong() ? value.asLong() : null;
+    }
+
+    private String readText(JsonNode root, String name) {
+        JsonNode value = root.get(name);
+        return value != null && value.isValueNode() ? value.asText() : null;
+    }
+
+    private JsonNode first(JsonNode root, String... names) {
+        for (String name : names) {
+            JsonNode value = root.get(name);
+            if (value != null && value.isNumber()) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    /** Accepts either ["cpp", "java"] or [{"code": "cpp", ...}, ...]. */
+    private List<String> readLanguages(JsonNode node) {
+        if (node == null || !node.isArray()) {
+            return List.of();
+        }
+        List<String> languages = new ArrayList<>(node.size());
+        for (JsonNode item : node) {
+            String code = item.isObject() ? item.path("code").asText(null) : item.asText(null);
+            if (StringUtils.hasText(code)) {
+                languages.add(code.trim());
+            }
+        }
+        return List.copyOf(languages);
+    }
+
+    private record Entry(int hash, String payload, NodeRuntimeInfo info) {}
+}
@@ -0,0 +1,203 @@
+package com.david.judge.service;
+
+import com.david.core.exception.BusinessException;
+import com.david.judge.config.JudgeUserProblemBestProperties;
+import com.david.judge.dto.UserProblemBestBackfillView;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.UserProblemBestMapper;
+import com.david.judge.mapper.model.FinishedJobCursor;
+import com.david.judge.mapper.model.FinishedJobRow;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps user_problem_best current: finished jobs are read behind a watermark persisted in
+ * user_problem_best_watermark, and every batch is folded in with one upsert per chunk of submissions.
+ * The watermark is locked, and advanced only after the batch's upserts, in one transaction, so a
+ * failed batch is retried and a restart resumes where it stopped. The upsert is monotonic (higher
+ * score, earlier AC), so replaying jobs is harmless. A backfill runs the same upsert over the whole
+ * submission id space.
+ */
+@Slf4j
+@Service
+public class UserProblemBestService {
+
+    static final String WATERMARK = "user_problem_best";
+
+    private final UserProblemBestMapper userProblemBestMapper;
+    private final JudgeJobMapper judgeJobMapper;
+    private final JudgeAuditService auditService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final JudgeUserProblemBestProperties properties;
+    private final Clock clock;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private volatile Backfill backfill;
+
+    public UserProblemBestService(
+            UserProblemBestMapper userProblemBestMapper,
+            JudgeJobMapper judgeJobMapper,
+            JudgeAuditService auditService,
+            @Qualifier("maintenanceTaskExecutor") ThreadPoolTaskExecutor executor,
+            TransactionTemplate transactionTemplate,
+            JudgeUserProblemBestProperties properties,
+            Clock clock) {
+        this.userProblemBestMapper = userProblemBestMapper;
+        this.judgeJobMapper = judgeJobMapper;
+        this.auditService = auditService;
+        this.executor = executor;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    @Scheduled(
+            initialDelayString = "${judge.user-problem-best.initial-delay-ms:5000}",
+            fixedDelayString = "${judge.user-problem-best.poll-interval-ms:5000}")
+    public void poll() {
+        if (!properties.enabled() || !polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now(clock);
+            userProblemBestMapper.insertWatermarkIfAbsent(
+                    WATERMARK, now.minus(properties.warmup()), now);
+            int batchSize = Math.max(properties.batchSize(), 1);
+            for (int i = 0; i < Math.max(properties.maxBatchesPerPoll(), 1); i++) {
+                Integer read = transactionTemplate.execute(status -> foldNextBatch(batchSize));
+                if (read == null || read < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            // the failed batch rolled back together with its watermark and is retried next poll
+            log.error("同步用户题目最佳成绩失败", ex);
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private int foldNextBatch(int batchSize) {
+        FinishedJobCursor cursor = userProblemBestMapper.lockWatermark(WATERMARK);
+        long afterId = cursor.jobId() == null ? 0L : cursor.jobId();
+        List<FinishedJobRow> jobs =
+                judgeJobMapper.selectFinishedAfter(cursor.finishedAt(), afterId, batchSize);
+        if (jobs.isEmpty()) {
+            return 0;
+        }
+        fold(jobs);
+        FinishedJobRow last = jobs.get(jobs.size() - 1);
+        userProblemBestMapper.updateWatermark(
+                WATERMARK, last.finishedAt(), last.jobId(), LocalDateTime.now(clock));
+        return jobs.size();
+    }
+
+    private void fold(List<FinishedJobRow> jobs) {
+        Set<Long> submissionIds = new LinkedHashSet<>();
+        for (FinishedJobRow job : jobs) {
+            if (job.submissionId() != null) {
+                submissionIds.add(job.submissionId());
+            }
+        }
+        List<Long> ids = new ArrayList<>(submissionIds);
+        int chunk = Math.max(properties.upsertChunkSize(), 1);
+        for (int from = 0; from < ids.size(); from += chunk) {
+            userProblemBestMapper.upsertFromSubmissions(ids.subList(from, Math.min(from + chunk, ids.size())));
+        }
+    }
+
+    public synchronized UserProblemBestBackfillView startBackfill(Long actorId, String actorName) {
+        if (backfill != null && backfill.finishedAt == null) {
+            throw new BusinessException(HttpStatus.CONFLICT, "回填任务正在运行");
+        }
+        Backfill task =
+                new Backfill(
+                        userProblemBestMapper.selectMaxSubmissionId(),
+                        actorName,
+                        LocalDateTime.now(clock));
+        try {
+            executor.execute(() -> run(task));
+        } catch (TaskRejectedException ex) {
+            throw new BusinessException(HttpStatus.CONFLICT, "回填任务正在运行");
+        }
+        backfill = task;
+        auditService.recordAction(
+                actorId,
+                actorName,
+                "JUDGE_USER_BEST_BACKFILL",
+                "user_problem_best",
+                null,
+                "回填用户题目最佳成绩",
+                "targetSubmissionId=" + task.targetId);
+        return task.toView();
+    }
+
+    public UserProblemBestBackfillView backfillStatus() {
+        Backfill current = backfill;
+        if (current == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "尚未执行过回填任务");
+        }
+        return current.toView();
+    }
+
+    private void run(Backfill task) {
+        int batch = Math.max(properties.backfillBatchSize(), 1);
+        try {
+            while (task.lastId < task.targetId) {
+                long upper = Math.min(task.lastId + batch, task.targetId);
+                task.changedRows += userProblemBestMapper.upsertSubmissionRange(task.lastId, upper);
+                task.lastId = upper;
+            }
+            task.finish("completed", null, LocalDateTime.now(clock));
+            log.info("用户题目最佳成绩回填完成: 截至提交 {}, 变更 {} 行", task.targetId, task.changedRows);
+        } catch (RuntimeException ex) {
+            log.error("用户题目最佳成绩回填失败: lastSubmissionId={}", task.lastId, ex);
+            task.finish("failed", "回填失败，可重新发起以从头执行", LocalDateTime.now(clock));
+        }
+    }
+
+    private static final class Backfill {
+
+        private final long targetId;
+        private final String startedBy;
+        private final LocalDateTime startedAt;
+        private volatile long lastId;
+        private volatile long changedRows;
+        private volatile String status = "running";
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private Backfill(long targetId, String startedBy, LocalDateTime startedAt) {
+            this.targetId = targetId;
+            this.startedBy = startedBy;
+            this.startedAt = startedAt;
+        }
+
+        private void finish(String status, String message, LocalDateTime finishedAt) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = finishedAt;
+        }
+
+        private UserProblemBestBackfillView toView() {
+            return new UserProblemBestBackfillView(
+                    status, lastId, targetId, changedRows, startedBy, startedAt, finishedAt, message);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.david.judge.service.analytics;
+
+import com.david.core.exception.BusinessException;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public enum LatencyWindow {
+    FIVE_MINUTES("5m", Duration.ofMinutes(5)),
+    ONE_HOUR("1h", Duration.ofHours(1)),
+    ONE_DAY("24h", Duration.ofHours(24));
+
+    private final String code;
+    private final Duration duration;
+
+    LatencyWindow(String code, Duration duration) {
+        this.code = code;
+        this.duration = duration;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public Duration duration() {
+        return duration;
+    }
+
+    public static LatencyWindow fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            return ONE_HOUR;
+        }
+        for (LatencyWindow window : values()) {
+            if (window.code.equalsIgnoreCase(code.trim())) {
+                return window;
+            }
+        }
+        throw new BusinessException(HttpStatus.BAD_REQUEST, "不支持的统计窗口: " + code);
+    }
+}
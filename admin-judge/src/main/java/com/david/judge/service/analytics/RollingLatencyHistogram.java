@@ -0,0 +1,87 @@
+package com.david.judge.service.analytics;
+
+/**
+ * Rolling histogram over the last 24 hours. Samples go into both a ring of twelve 5-minute slots
+ * (serving the 5m and 1h windows) and a ring of twenty-four 1-hour slots (serving 24h). Windows are
+ * slot aligned, so "5m" covers the current and previous 5-minute slot. Slots are allocated lazily.
+ */
+public final class RollingLatencyHistogram {
+
+    private static final long FINE_SLOT_MS = 5 * 60 * 1000L;
+    private static final int FINE_SLOTS = 12;
+    private static final long COARSE_SLOT_MS = 60 * 60 * 1000L;
+    private static final int COARSE_SLOTS = 24;
+
+    private final LatencyHistogram[] fine = new LatencyHistogram[FINE_SLOTS];
+    private final long[] fineBuckets = new long[FINE_SLOTS];
+    private final LatencyHistogram[] coarse = new LatencyHistogram[COARSE_SLOTS];
+    private final long[] coarseBuckets = new long[COARSE_SLOTS];
+
+    public synchronized void record(long epochMillis, long valueMs) {
+        LatencyHistogram fineSlot = slot(fine, fineBuckets, epochMillis / FINE_SLOT_MS);
+        if (fineSlot != null) {
+            fineSlot.record(valueMs);
+        }
+        LatencyHistogram coarseSlot = slot(coarse, coarseBuckets, epochMillis / COARSE_SLOT_MS);
+        if (coarseSlot != null) {
+            coarseSlot.record(valueMs);
+        }
+    }
+
+    public synchronized LatencyHistogram snapshot(LatencyWindow window, long nowMillis) {
+        LatencyHistogram merged = new LatencyHistogram();
+        switch (window) {
+            case FIVE_MINUTES -> mergeRecent(merged, fine, fineBuckets, nowMillis / FINE_SLOT_MS, 2);
+            case ONE_HOUR -> mergeRecent(
+                    merged, fine, fineBuckets, nowMillis / FINE_SLOT_MS, FINE_SLOTS);
+            case ONE_DAY -> mergeRecent(
+                    merged, coarse, coarseBuckets, nowMillis / COARSE_SLOT_MS, COARSE_SLOTS);
+        }
+        return merged;
+    }
+
+    /**
+     * Milliseconds actually covered by {@link #snapshot} at {@code nowMillis}: the full older slots
+     * plus the elapsed part of the current one. Rates must be divided by this, not the nominal span.
+     */
+    public static long coveredMillis(LatencyWindow window, long nowMillis) {
+        return switch (window) {
+            case FIVE_MINUTES -> FINE_SLOT_MS + nowMillis % FINE_SLOT_MS;
+            case ONE_HOUR -> (FINE_SLOTS - 1) * FINE_SLOT_MS + nowMillis % FINE_SLOT_MS;
+            case ONE_DAY -> (COARSE_SLOTS - 1) * COARSE_SLOT_MS + nowMillis % COARSE_SLOT_MS;
+        };
+    }
+
+    private LatencyHistogram slot(LatencyHistogram[] slots, long[] buckets, long bucket) {
+        int index = (int) (bucket % slots.length);
+        LatencyHistogram histogram = slots[index];
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            slots[index] = histogram;
+            buckets[index] = bucket;
+        } else if (buckets[index] != bucket) {
+            if (bucket < buckets[index]) {
+                // Sample older than the ring: the slot already holds a newer period.
+                return null;
+            }
+            histogram.reset();
+            buckets[index] = bucket;
+        }
+        return histogram;
+    }
+
+    private void mergeRecent(
+            LatencyHistogram target,
+            LatencyHistogram[] slots,
+            long[] buckets,
+            long currentBucket,
+            int span) {
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] != null
+                    && buckets[i] <= currentBucket
+                    && buckets[i] > currentBucket - span) {
+                target.merge(slots[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.david.judge.service.export;
+
+import com.david.judge.dto.JudgeJobView;
+import com.david.judge.dto.LanguageSummary;
+import com.david.judge.dto.NodeSummary;
+import com.david.judge.dto.ProblemSummary;
+import com.david.judge.dto.SubmissionSummary;
+import com.david.judge.dto.TestSummary;
+import com.david.judge.dto.UserSummary;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/** Flattens {@link JudgeJobView} into RFC 4180 rows. */
+public final class CsvJobWriter {
+
+    static final List<String> HEADER =
+            List.of(
+                    "job_id",
+                    "submission_id",
+                    "status",
+                    "priority",
+                    "created_at",
+                    "started_at",
+                    "finished_at",
+                    "node_id",
+                    "node_name",
+                    "verdict",
+                    "score",
+                    "time_ms",
+                    "memory_kb",
+                    "user_id",
+                    "username",
+                    "problem_id",
+                    "problem_slug",
+                    "language",
+                    "tests_total",
+                    "tests_passed",
+                    "tests_failed",
+                    "has_artifacts");
+
+    private static final String FORMULA_PREFIXES = "=+-@";
+
+    private final Writer writer;
+
+    public CsvJobWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() throws IOException {
+        writeRow(HEADER.toArray());
+    }
+
+    public void write(JudgeJobView view) throws IOException {
+        NodeSummary node = view.node();
+        SubmissionSummary submission = view.submission();
+        UserSummary user = submission == null ? null : submission.user();
+        ProblemSummary problem = submission == null ? null : submission.problem();
+        LanguageSummary language = submission == null ? null : submission.language();
+        TestSummary tests = view.testSummary();
+        writeRow(
+                view.id(),
+                view.submissionId(),
+                view.status(),
+                view.priority(),
+                view.createdAt(),
+                view.startedAt(),
+                view.finishedAt(),
+                node == null ? null : node.id(),
+                node == null ? null : node.name(),
+                submission == null ? null : submission.verdict(),
+                submission == null ? null : submission.score(),
+                submission == null ? null : submission.timeMs(),
+                submission == null ? null : submission.memoryKb(),
+                user == null ? null : user.id(),
+                user == null ? null : user.username(),
+                problem == null ? null : problem.id(),
+                problem == null ? null : problem.slug(),
+                language == null ? null : language.code(),
+                tests == null ? null : tests.total(),
+                tests == null ? null : tests.passed(),
+                tests == null ? null : tests.failed(),
+                view.hasArtifacts());
+    }
+
+    private void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof String text) {
+                writer.write(escape(text));
+            } else if (values[i] != null) {
+                writer.write(values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    static String escape(String value) {
+        String text = value;
+        // keep spreadsheet apps from evaluating user-controlled text such as usernames
+        if (!text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote =
+                text.indexOf(',') >= 0
+                        || text.indexOf('"') >= 0
+                        || text.indexOf('\n') >= 0
+                        || text.indexOf('\r') >= 0;
+        if (!quote) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
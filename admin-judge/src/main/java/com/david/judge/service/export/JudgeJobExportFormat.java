@@ -0,0 +1,39 @@
+package com.david.judge.service.export;
+
+import com.david.core.exception.BusinessException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+public enum JudgeJobExportFormat {
+    NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+    CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+    private final String code;
+    private final MediaType mediaType;
+
+    JudgeJobExportFormat(String code, MediaType mediaType) {
+        this.code = code;
+        this.mediaType = mediaType;
+    }
+
+    public String code() {
+        return code;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static JudgeJobExportFormat fromCode(String code) {
+        if (code == null || code.isBlank()) {
+            return NDJSON;
+        }
+        for (JudgeJobExportFormat format : values()) {
+            if (format.code.equalsIgnoreCase(code.trim())) {
+                return format;
+            }
+        }
+        throw new BusinessException(HttpStatus.BAD_REQUEST, "不支持的导出格式: " + code);
+    }
+}
@@ -0,0 +1,49 @@
+package com.david.judge.service.transition;
+
+/** Compact storage codes for judge job statuses; never renumber existing entries. */
+public enum JobStatusCode {
+    NONE(0, "none"),
+    QUEUED(1, "queued"),
+    RUNNING(2, "running"),
+    FINISHED(3, "finished"),
+    FAILED(4, "failed"),
+    CANCELED(5, "canceled"),
+    UNKNOWN(15, "unknown");
+
+    private final int code;
+    private final String status;
+
+    JobStatusCode(int code, String status) {
+        this.code = code;
+        this.status = status;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public String status() {
+        return status;
+    }
+
+    public static JobStatusCode fromStatus(String status) {
+        if (status == null) {
+            return NONE;
+        }
+        for (JobStatusCode value : values()) {
+            if (value.status.equals(status)) {
+                return value;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    public static JobStatusCode fromCode(int code) {
+        for (JobStatusCode value : values()) {
+            if (value.code == code) {
+                return value;
+            }
+        }
+        return UNKNOWN;
+    }
+}
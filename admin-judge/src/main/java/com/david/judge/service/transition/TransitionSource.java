@@ -0,0 +1,36 @@
+package com.david.judge.service.transition;
+
+/** What caused a transition; stored as a TINYINT code, never renumber existing entries. */
+public enum TransitionSource {
+    UNKNOWN(0, "unknown"),
+    CLAIM(1, "claim"),
+    RETRY(2, "retry"),
+    WATCHDOG(3, "watchdog"),
+    REJUDGE(4, "rejudge"),
+    NODE_REPORT(5, "node_report");
+
+    private final int code;
+    private final String label;
+
+    TransitionSource(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static TransitionSource fromCode(int code) {
+        for (TransitionSource value : values()) {
+            if (value.code == code) {
+                return value;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,13 @@
+package com.david.judge.storage;
+
+import java.io.IOException;
+
+/** Resolves {@code files.storage_key} to readable content. */
+public interface ArtifactStorage {
+
+    /**
+     * Opens the object for reading. Throws {@link java.nio.file.NoSuchFileException} when the key
+     * does not resolve to an object.
+     */
+    StoredObject open(String storageKey) throws IOException;
+}
@@ -0,0 +1,54 @@
+package com.david.judge.storage;
+
+/** A single satisfiable {@code Range: bytes=...} request against an object of known size. */
+public record ByteRange(long start, long length) {
+
+    /**
+     * Returns the requested range, {@code null} when the whole object should be served (no header,
+     * multiple ranges or a syntax the server chooses to ignore), or throws {@link
+     * UnsatisfiableRangeException} when the range lies outside the object.
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.isEmpty() || spec.contains(",")) {
+            return null;
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    throw new UnsatisfiableRangeException();
+                }
+                long length = Math.min(suffix, size);
+                return new ByteRange(size - length, length);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size || end < start) {
+                throw new UnsatisfiableRangeException();
+            }
+            return new ByteRange(start, end - start + 1);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    public long end() {
+        return start + length - 1;
+    }
+
+    public static final class UnsatisfiableRangeException extends RuntimeException {
+        public UnsatisfiableRangeException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.david.judge.storage;
+
+import com.david.judge.config.JudgeStorageProperties;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@Component
+@ConditionalOnProperty(prefix = "judge.storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalFileArtifactStorage implements ArtifactStorage {
+
+    private final Path root;
+
+    public LocalFileArtifactStorage(JudgeStorageProperties properties) {
+        this.root = Path.of(properties.localRoot()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredObject open(String storageKey) throws IOException {
+        Path path = resolve(storageKey);
+        return new LocalStoredObject(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    private Path resolve(String storageKey) throws NoSuchFileException {
+        if (storageKey == null || storageKey.isBlank()) {
+            throw new NoSuchFileException(String.valueOf(storageKey));
+        }
+        String relative = storageKey.startsWith("/") ? storageKey.substring(1) : storageKey;
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root)) {
+            // Keys are data from the database; never let one escape the storage root.
+            throw new NoSuchFileException(storageKey);
+        }
+        return path;
+    }
+
+    private record LocalStoredObject(FileChannel channel) implements StoredObject {
+
+        @Override
+        public long size() throws IOException {
+            return channel.size();
+        }
+
+        @Override
+        public void transferTo(long position, long count, WritableByteChannel target)
+                throws IOException {
+            long offset = position;
+            long remaining = count;
+            while (remaining > 0) {
+                long written = channel.transferTo(offset, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                offset += written;
+                remaining -= written;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.david.judge.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+public interface StoredObject extends Closeable {
+
+    long size() throws IOException;
+
+    /**
+     * Copies {@code count} bytes starting at {@code position} in bounded chunks, so the object is
+     * never held in memory as a whole. When {@code target} wraps a servlet output stream the JDK
+     * still copies through a small user-space buffer; this is not a zero-copy path.
+     */
+    void transferTo(long position, long count, WritableByteChannel target) throws IOException;
+}
@@ -0,0 +1,22 @@
+-- Append-only job state transitions. Statuses and sources are stored as TINYINT codes
+-- (see JobStatusCode / TransitionSource) to keep rows around 40 bytes.
+CREATE TABLE IF NOT EXISTS judge_job_transitions (
+    id          BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    job_id      BIGINT   NOT NULL,
+    from_status TINYINT  NOT NULL,
+    to_status   TINYINT  NOT NULL,
+    source      TINYINT  NOT NULL,
+    node_id     BIGINT   NULL,
+    occurred_at DATETIME(3) NOT NULL,
+    KEY idx_judge_job_transitions_job (job_id, occurred_at)
+) ROW_FORMAT = COMPRESSED;
+
+-- Position of JudgeJobTerminalTransitionRecorder in the finished-job stream, keyed by
+-- (finished_at, job id). Locked and advanced in the same transaction that inserts the terminal
+-- rows, so each finished job is logged once however many instances run.
+CREATE TABLE IF NOT EXISTS judge_job_transition_watermark (
+    name        VARCHAR(64) NOT NULL PRIMARY KEY,
+    finished_at DATETIME    NOT NULL,
+    job_id      BIGINT      NOT NULL DEFAULT 0,
+    updated_at  DATETIME    NOT NULL
+);
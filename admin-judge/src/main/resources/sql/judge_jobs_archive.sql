@@ -0,0 +1,23 @@
+-- Cold storage for finished/failed judge jobs older than judge.archive.retention.
+-- Rows keep their original id so job links stay valid after archival.
+CREATE TABLE IF NOT EXISTS judge_jobs_archive (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    submission_id BIGINT       NOT NULL,
+    node_id       BIGINT       NULL,
+    status        VARCHAR(16)  NOT NULL,
+    priority      INT          NOT NULL DEFAULT 0,
+    created_at    DATETIME     NOT NULL,
+    started_at    DATETIME     NULL,
+    finished_at   DATETIME     NULL,
+    archived_at   DATETIME     NOT NULL,
+    KEY idx_judge_jobs_archive_created (created_at),
+    KEY idx_judge_jobs_archive_submission (submission_id),
+    KEY idx_judge_jobs_archive_node (node_id, status)
+);
+
+-- Resumable cursor for the archiver; one row per job name.
+CREATE TABLE IF NOT EXISTS judge_archive_checkpoints (
+    name       VARCHAR(64) NOT NULL PRIMARY KEY,
+    cursor_id  BIGINT      NOT NULL DEFAULT 0,
+    updated_at DATETIME    NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Claim path: status = 'queued' rows are read in (priority DESC, created_at, id) order with
+-- SELECT ... FOR UPDATE SKIP LOCKED (MySQL 8.0+). The index key order must match the ORDER BY
+-- (MySQL 8.0 honours DESC key parts) so the claim is an index range read without a filesort;
+-- without it every claim scans and locks the whole queued range.
+CREATE INDEX idx_judge_jobs_dispatch ON judge_jobs (status, priority DESC, created_at, id);
@@ -0,0 +1,3 @@
+-- Finished-job readers (the analytics feed and the user_problem_best watermark) read judge_jobs by
+-- (finished_at, id) keyset; without this index each poll scans the table.
+CREATE INDEX idx_judge_jobs_finished ON judge_jobs (finished_at, id);
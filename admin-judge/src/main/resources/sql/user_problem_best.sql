@@ -0,0 +1,25 @@
+-- Best result per user and problem, replacing the vw_user_problem_best view that scanned the full
+-- submission history. Maintained by UserProblemBestService from finished judge jobs; a row is only
+-- rewritten when the score improves or an earlier AC appears. Backfill with
+-- POST /api/admin/judge/maintenance/user-problem-best/backfill.
+CREATE TABLE IF NOT EXISTS user_problem_best (
+    user_id                BIGINT   NOT NULL,
+    problem_id             BIGINT   NOT NULL,
+    best_score             INT      NULL,
+    best_submission_id     BIGINT   NULL,
+    first_ac_time          DATETIME NULL,
+    first_ac_submission_id BIGINT   NULL,
+    updated_at             DATETIME NOT NULL,
+    PRIMARY KEY (user_id, problem_id),
+    KEY idx_user_problem_best_problem (problem_id, user_id)
+);
+
+-- Position of UserProblemBestService in the finished-job stream, keyed by (finished_at, job id).
+-- Locked and advanced in the same transaction as each batch of upserts, so a restart resumes where
+-- it stopped and a failed batch is retried rather than skipped.
+CREATE TABLE IF NOT EXISTS user_problem_best_watermark (
+    name        VARCHAR(64) NOT NULL PRIMARY KEY,
+    finished_at DATETIME    NOT NULL,
+    job_id      BIGINT      NOT NULL DEFAULT 0,
+    updated_at  DATETIME    NOT NULL
+);
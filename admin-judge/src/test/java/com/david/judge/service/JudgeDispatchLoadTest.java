@@ -0,0 +1,191 @@
+package com.david.judge.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import com.david.judge.config.JudgeTransitionProperties;
+import com.david.judge.dto.ClaimedJobView;
+import com.david.judge.mapper.JudgeJobMapper;
+import com.david.judge.mapper.JudgeNodeMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulated judge nodes pulling from a real MySQL 8 queue. Point it at a scratch schema, the
+ * tables are recreated on every run:
+ *
+ * <pre>
+ * mvn -pl admin-judge test -Dtest=JudgeDispatchLoadTest \
+ *     -Djudge.loadtest.url=jdbc:mysql://127.0.0.1:3306/judge_loadtest \
+ *     -Djudge.loadtest.username=root -Djudge.loadtest.password=...
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "judge.loadtest.url", matches = ".+")
+class JudgeDispatchLoadTest {
+
+    private static final int NODES = Integer.getInteger("judge.loadtest.nodes", 32);
+    private static final int JOBS = Integer.getInteger("judge.loadtest.jobs", 20_000);
+    private static final int CLAIM_SIZE = Integer.getInteger("judge.loadtest.claimSize", 8);
+
+    private static DriverManagerDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static JudgeDispatchService dispatchService;
+
+    @BeforeAll
+    static void setUpMybatis() {
+        dataSource =
+                new DriverManagerDataSource(
+                        System.getProperty("judge.loadtest.url"),
+                        System.getProperty("judge.loadtest.username", "root"),
+                        System.getProperty("judge.loadtest.password", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        MybatisConfiguration configuration =
+                new MybatisConfiguration(
+                        new Environment(
+                                "loadtest", new SpringManagedTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.addMapper(JudgeJobMapper.class);
+        configuration.addMapper(JudgeNodeMapper.class);
+        SqlSessionFactory factory = new MybatisSqlSessionFactoryBuilder().build(configuration);
+        SqlSessionTemplate sessionTemplate = new SqlSessionTemplate(factory);
+        dispatchService =
+                new JudgeDispatchService(
+                        sessionTemplate.getMapper(JudgeJobMapper.class),
+                        sessionTemplate.getMapper(JudgeNodeMapper.class),
+                        new JudgeJobTransitionService(
+                                null,
+                                new JudgeTransitionProperties(false, 1, 1, 1, 1, 1),
+                                Clock.systemDefaultZone(),
+                                new SimpleMeterRegistry()),
+                        Clock.systemDefaultZone());
+    }
+
+    @BeforeEach
+    void resetSchema() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS judge_jobs");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS judge_nodes");
+        jdbcTemplate.execute(
+                """
+                CREATE TABLE judge_nodes (
+                  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                  name VARCHAR(64) NOT NULL,
+                  status VARCHAR(16) NOT NULL,
+                  runtime_info JSON NULL,
+                  last_heartbeat DATETIME NULL,
+                  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+        jdbcTemplate.execute(
+                """
+                CREATE TABLE judge_jobs (
+                  id BIGINT PRIMARY KEY AUTO_INCREMENT,
+                  submission_id BIGINT NOT NULL,
+                  node_id BIGINT NULL,
+                  status VARCHAR(16) NOT NULL,
+                  priority INT NOT NULL DEFAULT 0,
+                  created_at DATETIME(3) NOT NULL,
+                  started_at DATETIME(3) NULL,
+                  finished_at DATETIME(3) NULL,
+                  INDEX idx_judge_jobs_dispatch (status, priority DESC, created_at, id)
+                )
+                """);
+        List<Object[]> nodes = new ArrayList<>();
+        for (int i = 1; i <= NODES; i++) {
+            nodes.add(new Object[] {"node-" + i});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO judge_nodes (name, status, last_heartbeat) VALUES (?, 'online', NOW())",
+                nodes);
+        List<Object[]> jobs = new ArrayList<>(JOBS);
+        for (int i = 1; i <= JOBS; i++) {
+            jobs.add(new Object[] {i, i % 3});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO judge_jobs (submission_id, status, priority, created_at)"
+                        + " VALUES (?, 'queued', ?, NOW(3))",
+                jobs);
+    }
+
+    @Test
+    void concurrentNodesDrainQueueWithoutDoubleAssignment() throws Exception {
+        Map<Long, Long> owners = new ConcurrentHashMap<>();
+        Queue<Long> claimedIds = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(NODES);
+        List<Future<?>> workers = new ArrayList<>();
+        for (long nodeId = 1; nodeId <= NODES; nodeId++) {
+            long node = nodeId;
+            workers.add(
+                    pool.submit(
+                            () -> {
+                                start.await();
+                                while (true) {
+                                    List<ClaimedJobView> claimed =
+                                            transactionTemplate.execute(
+                                                    status ->
+                                                            dispatchService.claimJobs(
+                                                                    node, CLAIM_SIZE));
+                                    if (claimed == null || claimed.isEmpty()) {
+                                        return null;
+                                    }
+                                    for (ClaimedJobView job : claimed) {
+                                        claimedIds.add(job.id());
+                                        owners.put(job.id(), node);
+                                    }
+                                }
+                            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertThat(claimedIds).as("同一任务不应被重复分配").doesNotHaveDuplicates();
+        assertThat(claimedIds).as("每个任务都应恰好被领取一次").hasSize(JOBS);
+        assertThat(new HashSet<>(claimedIds))
+                .isEqualTo(
+                        new HashSet<>(
+                                jdbcTemplate.queryForList("SELECT id FROM judge_jobs", Long.class)));
+        assertThat(
+                        jdbcTemplate.queryForObject(
+                                "SELECT COUNT(*) FROM judge_jobs WHERE status = 'queued'",
+                                Long.class))
+                .isZero();
+        jdbcTemplate.query(
+                "SELECT id, node_id FROM judge_jobs",
+                rs -> {
+                    assertThat(rs.getLong("node_id")).isEqualTo(owners.get(rs.getLong("id")));
+                });
+    }
+}
@@ -0,0 +1,53 @@
+package com.david.judge.service.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.count()).isEqualTo(100_000);
+        assertThat(histogram.valueAt(0.50)).isCloseTo(50_000L, within(1_600L));
+        assertThat(histogram.valueAt(0.99)).isCloseTo(99_000L, within(3_100L));
+        assertThat(histogram.valueAt(1.0)).isEqualTo(100_000L);
+    }
+
+    @Test
+    void rollingWindowsDropExpiredSlots() {
+        RollingLatencyHistogram rolling = new RollingLatencyHistogram();
+        long hour = 60 * 60 * 1000L;
+        long now = 100 * hour;
+        rolling.record(now - 2 * hour, 500);
+        rolling.record(now - 1000, 20);
+
+        assertThat(rolling.snapshot(LatencyWindow.FIVE_MINUTES, now).count()).isEqualTo(1);
+        assertThat(rolling.snapshot(LatencyWindow.ONE_HOUR, now).count()).isEqualTo(1);
+        assertThat(rolling.snapshot(LatencyWindow.ONE_DAY, now).count()).isEqualTo(2);
+        assertThat(rolling.snapshot(LatencyWindow.ONE_DAY, now + 25 * hour).count()).isZero();
+    }
+
+    @Test
+    void coveredSpanIncludesOnlyElapsedPartOfCurrentSlot() {
+        long minute = 60 * 1000L;
+        long slotStart = 1_000 * 5 * minute;
+
+        assertThat(RollingLatencyHistogram.coveredMillis(LatencyWindow.FIVE_MINUTES, slotStart))
+                .isEqualTo(5 * minute);
+        assertThat(
+                        RollingLatencyHistogram.coveredMillis(
+                                LatencyWindow.FIVE_MINUTES, slotStart + 2 * minute))
+                .isEqualTo(7 * minute);
+        assertThat(
+                        RollingLatencyHistogram.coveredMillis(
+                                LatencyWindow.ONE_HOUR, slotStart + 4 * minute))
+                .isEqualTo(59 * minute);
+    }
+}
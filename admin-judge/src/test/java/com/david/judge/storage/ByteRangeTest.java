@@ -0,0 +1,50 @@
+package com.david.judge.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+    @Test
+    void closedRangeIsClampedToObjectSize() {
+        assertThat(ByteRange.parse("bytes=0-99", 1000)).isEqualTo(new ByteRange(0, 100));
+        assertThat(ByteRange.parse("bytes=900-5000", 1000)).isEqualTo(new ByteRange(900, 100));
+        assertThat(ByteRange.parse("bytes=900-5000", 1000).end()).isEqualTo(999);
+    }
+
+    @Test
+    void openEndedRangeRunsToLastByte() {
+        assertThat(ByteRange.parse("bytes=250-", 1000)).isEqualTo(new ByteRange(250, 750));
+        assertThat(ByteRange.parse("bytes=999-", 1000)).isEqualTo(new ByteRange(999, 1));
+    }
+
+    @Test
+    void suffixRangeServesTail() {
+        assertThat(ByteRange.parse("bytes=-100", 1000)).isEqualTo(new ByteRange(900, 100));
+        // 后缀长度超过文件大小时返回整个文件
+        assertThat(ByteRange.parse("bytes=-5000", 1000)).isEqualTo(new ByteRange(0, 1000));
+    }
+
+    @Test
+    void unsatisfiableRangesAreRejected() {
+        assertThatThrownBy(() -> ByteRange.parse("bytes=1000-", 1000))
+                .isInstanceOf(ByteRange.UnsatisfiableRangeException.class);
+        assertThatThrownBy(() -> ByteRange.parse("bytes=500-100", 1000))
+                .isInstanceOf(ByteRange.UnsatisfiableRangeException.class);
+        assertThatThrownBy(() -> ByteRange.parse("bytes=-0", 1000))
+                .isInstanceOf(ByteRange.UnsatisfiableRangeException.class);
+        assertThatThrownBy(() -> ByteRange.parse("bytes=-10", 0))
+                .isInstanceOf(ByteRange.UnsatisfiableRangeException.class);
+    }
+
+    @Test
+    void multiRangeAndUnknownSyntaxFallBackToFullBody() {
+        assertThat(ByteRange.parse("bytes=0-9,20-29", 1000)).isNull();
+        assertThat(ByteRange.parse(null, 1000)).isNull();
+        assertThat(ByteRange.parse("items=0-9", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=abc-", 1000)).isNull();
+        assertThat(ByteRange.parse("bytes=5", 1000)).isNull();
+    }
+}
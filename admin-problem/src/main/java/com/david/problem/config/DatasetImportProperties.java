@@ -0,0 +1,19 @@
+package com.david.problem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Zip dataset import. Files up to {@code inlineLimit} that are valid UTF-8 are stored in the
+ * testcase row, larger ones go to file storage. The entry and total limits count uncompressed bytes
+ * so a zip bomb is cut off while streaming.
+ */
+@ConfigurationProperties(prefix = "problem.dataset-import")
+public record DatasetImportProperties(
+        @DefaultValue("64KB") DataSize inlineLimit,
+        @DefaultValue("256MB") DataSize maxEntrySize,
+        @DefaultValue("2GB") DataSize maxTotalSize,
+        @DefaultValue("20000") int maxEntries,
+        @DefaultValue("500") int insertChunkSize,
+        @DefaultValue("200") int maxReportedErrors) {}
@@ -0,0 +1,13 @@
+package com.david.problem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Dictionary cache. Local writes invalidate it on commit; {@code maxAge} bounds how long a write
+ * made through another instance can go unseen.
+ */
+@ConfigurationProperties(prefix = "problem.dictionary")
+public record ProblemDictionaryProperties(@DefaultValue("5m") Duration maxAge) {}
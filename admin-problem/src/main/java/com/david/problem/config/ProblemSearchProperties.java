@@ -0,0 +1,18 @@
+package com.david.problem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * In-memory statement search. A filtered listing whose keyword matches more than {@code maxMatches}
+ * problems uses the substring search instead of an IN list of that size; {@code refreshOverlap} re-reads rows changed slightly before the last poll so
+ * clock skew between instances cannot hide an edit.
+ */
+@ConfigurationProperties(prefix = "problem.search")
+public record ProblemSearchProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1000") int maxMatches,
+        @DefaultValue("500") int loadBatchSize,
+        @DefaultValue("1m") Duration refreshOverlap) {}
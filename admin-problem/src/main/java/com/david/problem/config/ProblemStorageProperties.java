@@ -0,0 +1,13 @@
+package com.david.problem.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Where {@code files.storage_key} objects are written; {@code local} keeps them under {@code
+ * localRoot}, the same root the judge reads from.
+ */
+@ConfigurationProperties(prefix = "problem.storage")
+public record ProblemStorageProperties(
+        @DefaultValue("local") String type,
+        @DefaultValue("/var/lib/ulticode/files") String localRoot) {}
@@ -1,16 +1,22 @@
 package com.david.problem.controller;
 
+import com.david.core.forward.ForwardedUser;
 import com.david.core.http.ApiResponse;
+import com.david.core.security.CurrentForwardedUser;
 import com.david.problem.dto.DatasetDetailView;
+import com.david.problem.dto.DatasetImportResult;
 import com.david.problem.dto.DatasetUpsertRequest;
+import com.david.problem.service.DatasetImportService;
 import com.david.problem.service.DatasetManagementService;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,8 +26,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -34,6 +42,7 @@ import java.util.List;
 public class DatasetsAdminController {
 
     private final DatasetManagementService datasetManagementService;
+    private final DatasetImportService datasetImportService;
 
     @GetMapping
     public ApiResponse<List<DatasetDetailView>> listDatasets(@PathVariable Long problemId) {
@@ -71,6 +80,37 @@ public class DatasetsAdminController {
         return ApiResponse.success(detail);
     }
 
+    /**
+     * Imports a zip whose directories are testcase groups holding {@code N.in} / {@code N.out}
+     * pairs. Nothing is written unless every entry is valid; otherwise the per-entry errors are
+     * returned with {@code imported = false}.
+     */
+    @PostMapping(value = "/{datasetId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ApiResponse<DatasetImportResult> importDataset(
+            @PathVariable Long problemId,
+            @PathVariable Long datasetId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean replace,
+            @RequestParam(defaultValue = "1") @Min(value = 0, message = "用例分值不能为负数") int score,
+            @CurrentForwardedUser ForwardedUser principal) {
+        log.info(
+                "导入题目 {} 的数据集 {}，文件: {}, 大小: {}, 覆盖: {}",
+                problemId,
+                datasetId,
+                file.getOriginalFilename(),
+                file.getSize(),
+                replace);
+        DatasetImportResult result =
+                datasetImportService.importArchive(
+                        problemId,
+                        datasetId,
+                        file,
+                        replace,
+                        score,
+                        principal != null ? principal.id() : null);
+        return ApiResponse.success(result);
+    }
+
     @DeleteMapping("/{datasetId}")
     public ApiResponse<Void> deleteDataset(
             @PathVariable Long problemId, @PathVariable Long datasetId) {
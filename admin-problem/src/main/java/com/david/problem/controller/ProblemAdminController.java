@@ -9,15 +9,19 @@ import com.david.problem.dto.ProblemReviewDecisionRequest;
 import com.david.problem.dto.ProblemSubmitReviewRequest;
 import com.david.problem.dto.ProblemSummaryView;
 import com.david.problem.dto.ProblemUpsertRequest;
+import com.david.problem.service.ProblemDictionaryCache;
 import com.david.problem.service.ProblemManagementService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -30,6 +34,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @Slf4j
 @Validated
@@ -40,6 +45,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class ProblemAdminController {
 
     private final ProblemManagementService problemManagementService;
+    private final ProblemDictionaryCache problemDictionaryCache;
 
     @GetMapping
     public ApiResponse<PageResult<ProblemSummaryView>> listProblems(
@@ -83,6 +89,20 @@ public class ProblemAdminController {
         return ApiResponse.success(result);
     }
 
+    @GetMapping("/search")
+    public ApiResponse<PageResult<ProblemSummaryView>> searchProblems(
+            @RequestParam @NotBlank(message = "关键字不能为空") String keyword,
+            @RequestParam(defaultValue = "1") @Min(value = 1, message = "页码不能小于1") int page,
+            @RequestParam(defaultValue = "10")
+                    @Min(value = 1, message = "分页大小不能小于1")
+                    @Max(value = 100, message = "分页大小不能超过100")
+                    int size,
+            @RequestParam(required = false) String langCode) {
+        log.info("搜索题目，关键字: {}, 页码: {}, 大小: {}, 语言: {}", keyword, page, size, langCode);
+        return ApiResponse.success(
+                problemManagementService.searchProblems(keyword, page, size, langCode));
+    }
+
     @GetMapping("/{problemId}")
     public ApiResponse<ProblemDetailView> getProblem(
             @PathVariable Long problemId, @RequestParam(required = false) String langCode) {
@@ -137,10 +157,18 @@ public class ProblemAdminController {
         return ApiResponse.success(detail);
     }
 
+    /** Answers 304 while the client's ETag still matches the cached dictionary version. */
     @GetMapping("/options")
-    public ApiResponse<ProblemOptionsResponse> loadOptions() {
-        log.info("加载题目字典选项");
-        ProblemOptionsResponse response = problemManagementService.loadOptions();
-        return ApiResponse.success(response);
+    public ApiResponse<ProblemOptionsResponse> loadOptions(ServletWebRequest request) {
+        ProblemDictionaryCache.Snapshot snapshot = problemDictionaryCache.snapshot();
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache, private");
+        }
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        log.info("加载题目字典选项，版本: {}", snapshot.etag());
+        return ApiResponse.success(snapshot.options());
     }
 }
@@ -0,0 +1,4 @@
+package com.david.problem.dto;
+
+/** A problem with one zip entry; {@code entry} is null for problems with the archive itself. */
+public record DatasetImportError(String entry, String message) {}
@@ -0,0 +1,11 @@
+package com.david.problem.dto;
+
+import java.util.List;
+
+public record DatasetImportResult(
+        boolean imported,
+        int groupCount,
+        int testcaseCount,
+        int inlineFileCount,
+        int storedFileCount,
+        List<DatasetImportError> errors) {}
@@ -0,0 +1,9 @@
+package com.david.problem.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.david.problem.entity.FileRecord;
+
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface FileRecordMapper extends BaseMapper<FileRecord> {}
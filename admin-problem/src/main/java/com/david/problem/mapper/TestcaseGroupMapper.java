@@ -3,7 +3,26 @@ package com.david.problem.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.david.problem.entity.TestcaseGroup;
 
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
-public interface TestcaseGroupMapper extends BaseMapper<TestcaseGroup> {}
+public interface TestcaseGroupMapper extends BaseMapper<TestcaseGroup> {
+
+    /** Multi-row insert; generated ids are written back onto the entities in order. */
+    @Insert({
+        "<script>",
+        "INSERT INTO testcase_groups (dataset_id, name, is_sample, weight, created_at, updated_at)",
+        "VALUES",
+        "<foreach collection='groups' item='g' separator=','>",
+        "(#{g.datasetId}, #{g.name}, #{g.isSample}, #{g.weight}, #{g.createdAt}, #{g.updatedAt})",
+        "</foreach>",
+        "</script>"
+    })
+    @Options(useGeneratedKeys = true, keyProperty = "id")
+    int insertBatch(@Param("groups") List<TestcaseGroup> groups);
+}
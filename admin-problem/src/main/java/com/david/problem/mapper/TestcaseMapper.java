@@ -3,7 +3,25 @@ package com.david.problem.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.david.problem.entity.Testcase;
 
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
-public interface TestcaseMapper extends BaseMapper<Testcase> {}
+public interface TestcaseMapper extends BaseMapper<Testcase> {
+
+    @Insert({
+        "<script>",
+        "INSERT INTO testcases (group_id, order_index, input_file_id, output_file_id,",
+        "                       input_json, output_json, output_type, score, created_at, updated_at)",
+        "VALUES",
+        "<foreach collection='testcases' item='t' separator=','>",
+        "(#{t.groupId}, #{t.orderIndex}, #{t.inputFileId}, #{t.outputFileId},",
+        " #{t.inputJson}, #{t.outputJson}, #{t.outputType}, #{t.score}, #{t.createdAt}, #{t.updatedAt})",
+        "</foreach>",
+        "</script>"
+    })
+    int insertBatch(@Param("testcases") List<Testcase> testcases);
+}
@@ -26,10 +26,15 @@ public class CategoryManagementService {
 
     private final CategoryMapper categoryMapper;
     private final ProblemMapper problemMapper;
+    private final ProblemDictionaryCache dictionaryCache;
 
-    public CategoryManagementService(CategoryMapper categoryMapper, ProblemMapper problemMapper) {
+    public CategoryManagementService(
+            CategoryMapper categoryMapper,
+            ProblemMapper problemMapper,
+            ProblemDictionaryCache dictionaryCache) {
         this.categoryMapper = categoryMapper;
         this.problemMapper = problemMapper;
+        this.dictionaryCache = dictionaryCache;
     }
 
     public PageResult<CategoryView> listCategories(
@@ -68,6 +73,7 @@ public class CategoryManagementService {
         category.setCode(code);
         category.setName(name);
         categoryMapper.insert(category);
+        dictionaryCache.invalidateAfterCommit();
         return getCategory(category.getId());
     }
 
@@ -107,6 +113,7 @@ public class CategoryManagementService {
                     uw.set(Category::getCode, existing.getCode());
                     uw.set(Category::getName, existing.getName());
                 });
+        dictionaryCache.invalidateAfterCommit();
         return getCategory(categoryId);
     }
 
@@ -118,6 +125,7 @@ public class CategoryManagementService {
                         Wrappers.<Problem>lambdaQuery().eq(Problem::getCategoryId, categoryId));
         assertNoRelations(count, "仍有题目关联该分类，无法删除");
         categoryMapper.deleteById(existing.getId());
+        dictionaryCache.invalidateAfterCommit();
     }
 
     private CategoryView toView(Category category) {
@@ -0,0 +1,311 @@
+package com.david.problem.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.core.exception.BusinessException;
+import com.david.problem.config.DatasetImportProperties;
+import com.david.problem.dto.DatasetImportResult;
+import com.david.problem.entity.Dataset;
+import com.david.problem.entity.FileRecord;
+import com.david.problem.entity.Testcase;
+import com.david.problem.entity.TestcaseGroup;
+import com.david.problem.mapper.DatasetMapper;
+import com.david.problem.mapper.FileRecordMapper;
+import com.david.problem.mapper.TestcaseGroupMapper;
+import com.david.problem.mapper.TestcaseMapper;
+import com.david.problem.service.dataset.DatasetArchive;
+import com.david.problem.service.dataset.DatasetArchiveReader;
+import com.david.problem.storage.StoredFile;
+import com.david.problem.storage.TestcaseFileStorage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Builds testcase groups from an uploaded zip. The archive is streamed once; large files are
+ * written to file storage while reading, and only when every entry is valid are the groups,
+ * testcases and file rows inserted in one transaction with multi-row INSERTs.
+ *
+ * <p>Stored objects are content-addressed, so an import that fails afterwards leaves at most
+ * unreferenced objects that a retry reuses.
+ */
+@Slf4j
+@Service
+public class DatasetImportService {
+
+    private static final String OUTPUT_TYPE_TEXT = "text";
+    private static final String MIME_TYPE = "application/octet-stream";
+
+    private final DatasetMapper datasetMapper;
+    private final TestcaseGroupMapper testcaseGroupMapper;
+    private final TestcaseMapper testcaseMapper;
+    private final FileRecordMapper fileRecordMapper;
+    private final TestcaseFileStorage fileStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DatasetImportProperties properties;
+
+    public DatasetImportService(
+            DatasetMapper datasetMapper,
+            TestcaseGroupMapper testcaseGroupMapper,
+            TestcaseMapper testcaseMapper,
+            FileRecordMapper fileRecordMapper,
+            TestcaseFileStorage fileStorage,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            DatasetImportProperties properties) {
+        this.datasetMapper = datasetMapper;
+        this.testcaseGroupMapper = testcaseGroupMapper;
+        this.testcaseMapper = testcaseMapper;
+        this.fileRecordMapper = fileRecordMapper;
+        this.fileStorage = fileStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public DatasetImportResult importArchive(
+            Long problemId,
+            Long datasetId,
+            MultipartFile file,
+            boolean replace,
+            int score,
+            @Nullable Long operatorId) {
+        Dataset dataset = datasetMapper.selectById(datasetId);
+        if (dataset == null || !Objects.equals(dataset.getProblemId(), problemId)) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "数据集不存在");
+        }
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "请上传数据集压缩包");
+        }
+
+        // Read outside the transaction so a slow upload never holds a connection.
+        DatasetArchive archive;
+        try (InputStream in = file.getInputStream()) {
+            archive = newReader().read(in);
+        } catch (IOException ex) {
+            log.error("读取数据集压缩包失败，数据集ID: {}", datasetId, ex);
+            throw new BusinessException(HttpStatus.BAD_REQUEST, "读取数据集压缩包失败");
+        }
+        int inline = 0;
+        int stored = 0;
+        int cases = 0;
+        for (DatasetArchive.Group group : archive.groups()) {
+            for (DatasetArchive.Case testcase : group.cases()) {
+                cases++;
+                for (DatasetArchive.Content content : List.of(testcase.input(), testcase.output())) {
+                    if (content.isInline()) {
+                        inline++;
+                    } else {
+                        stored++;
+                    }
+                }
+            }
+        }
+        if (!archive.errors().isEmpty()) {
+            return new DatasetImportResult(
+                    false, archive.groups().size(), cases, inline, stored, archive.errors());
+        }
+
+        transactionTemplate.executeWithoutResult(
+                status -> persist(datasetId, archive, replace, score, operatorId));
+        log.info(
+                "数据集 {} 导入完成，测试组: {}, 用例: {}, 内联文件: {}, 存储文件: {}",
+                datasetId,
+                archive.groups().size(),
+                cases,
+                inline,
+                stored);
+        return new DatasetImportResult(
+                true, archive.groups().size(), cases, inline, stored, List.of());
+    }
+
+    private DatasetArchiveReader newReader() {
+        return new DatasetArchiveReader(
+                fileStorage,
+                new DatasetArchiveReader.Limits(
+                        properties.inlineLimit().toBytes(),
+                        properties.maxEntrySize().toBytes(),
+                        properties.maxTotalSize().toBytes(),
+                        properties.maxEntries(),
+                        properties.maxReportedErrors()));
+    }
+
+    private void persist(
+            Long datasetId,
+            DatasetArchive archive,
+            boolean replace,
+            int score,
+            @Nullable Long operatorId) {
+        // Lock the dataset row so concurrent imports into it are serialized.
+        Dataset locked =
+                datasetMapper.selectOne(
+                        Wrappers.lambdaQuery(Dataset.class)
+                                .eq(Dataset::getId, datasetId)
+                                .last("FOR UPDATE"));
+        if (locked == null) {
+            throw new BusinessException(HttpStatus.NOT_FOUND, "数据集不存在");
+        }
+        if (replace) {
+            List<Long> existingGroupIds =
+                    testcaseGroupMapper
+                            .selectList(
+                                    Wrappers.lambdaQuery(TestcaseGroup.class)
+                                            .select(TestcaseGroup::getId)
+                                            .eq(TestcaseGroup::getDatasetId, datasetId))
+                            .stream()
+                            .map(TestcaseGroup::getId)
+                            .toList();
+            if (!existingGroupIds.isEmpty()) {
+                testcaseMapper.delete(
+                        Wrappers.lambdaQuery(Testcase.class)
+                                .in(Testcase::getGroupId, existingGroupIds));
+                testcaseGroupMapper.deleteByIds(existingGroupIds);
+            }
+        }
+
+        Map<String, Long> fileIds = resolveFileIds(archive, operatorId);
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = Math.max(properties.insertChunkSize(), 1);
+
+        List<TestcaseGroup> groups = new ArrayList<>(archive.groups().size());
+        for (DatasetArchive.Group source : archive.groups()) {
+            TestcaseGroup group = new TestcaseGroup();
+            group.setDatasetId(datasetId);
+            group.setName(source.name());
+            group.setIsSample(source.sample() ? 1 : 0);
+            group.setWeight(1);
+            group.setCreatedAt(now);
+            group.setUpdatedAt(now);
+            groups.add(group);
+        }
+        for (int from = 0; from < groups.size(); from += chunkSize) {
+            testcaseGroupMapper.insertBatch(
+                    groups.subList(from, Math.min(from + chunkSize, groups.size())));
+        }
+
+        List<Testcase> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < groups.size(); i++) {
+            Long groupId = groups.get(i).getId();
+            if (groupId == null) {
+                throw new IllegalStateException("批量插入测试组未返回主键");
+            }
+            for (DatasetArchive.Case source : archive.groups().get(i).cases()) {
+                Testcase testcase = new Testcase();
+                testcase.setGroupId(groupId);
+                testcase.setOrderIndex(source.index());
+                testcase.setInputFileId(fileId(source.input(), fileIds));
+                testcase.setInputJson(inlineJson(source.input()));
+                testcase.setOutputFileId(fileId(source.output(), fileIds));
+                testcase.setOutputJson(inlineJson(source.output()));
+                testcase.setOutputType(OUTPUT_TYPE_TEXT);
+                testcase.setScore(score);
+                testcase.setCreatedAt(now);
+                testcase.setUpdatedAt(now);
+                chunk.add(testcase);
+                if (chunk.size() == chunkSize) {
+                    testcaseMapper.insertBatch(chunk);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            testcaseMapper.insertBatch(chunk);
+        }
+
+        Dataset touched = new Dataset();
+        touched.setId(datasetId);
+        touched.setUpdatedAt(now);
+        datasetMapper.updateById(touched);
+    }
+
+    /** One files row per distinct content; rows left by earlier imports are reused. */
+    private Map<String, Long> resolveFileIds(DatasetArchive archive, @Nullable Long operatorId) {
+        Map<String, StoredFile> bySha = new LinkedHashMap<>();
+        for (DatasetArchive.Group group : archive.groups()) {
+            for (DatasetArchive.Case testcase : group.cases()) {
+                for (DatasetArchive.Content content : List.of(testcase.input(), testcase.output())) {
+                    if (!content.isInline()) {
+                        bySha.putIfAbsent(content.stored().sha256(), content.stored());
+                    }
+                }
+            }
+        }
+        if (bySha.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Long> ids = new HashMap<>();
+        List<String> shas = new ArrayList<>(bySha.keySet());
+        int chunkSize = Math.max(properties.insertChunkSize(), 1);
+        for (int from = 0; from < shas.size(); from += chunkSize) {
+            fileRecordMapper
+                    .selectList(
+                            Wrappers.lambdaQuery(FileRecord.class)
+                                    .select(
+                                            FileRecord::getId,
+                                            FileRecord::getSha256,
+                                            FileRecord::getStorageKey)
+                                    .in(
+                                            FileRecord::getSha256,
+                                            shas.subList(
+                                                    from,
+                                                    Math.min(from + chunkSize, shas.size()))))
+                    .stream()
+                    .filter(
+                            row ->
+                                    Objects.equals(
+                                            row.getStorageKey(),
+                                            bySha.get(row.getSha256()).storageKey()))
+                    .forEach(row -> ids.putIfAbsent(row.getSha256(), row.getId()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        bySha.values().stream()
+                .filter(stored -> !ids.containsKey(stored.sha256()))
+                .forEach(
+                        stored -> {
+                            FileRecord record = new FileRecord();
+                            record.setStorageKey(stored.storageKey());
+                            record.setSha256(stored.sha256());
+                            record.setMimeType(MIME_TYPE);
+                            record.setSizeBytes(stored.sizeBytes());
+                            record.setCreatedBy(operatorId);
+                            record.setCreatedAt(now);
+                            fileRecordMapper.insert(record);
+                            ids.put(stored.sha256(), record.getId());
+                        });
+        return ids;
+    }
+
+    private static Long fileId(DatasetArchive.Content content, Map<String, Long> fileIds) {
+        return content.isInline() ? null : fileIds.get(content.stored().sha256());
+    }
+
+    private String inlineJson(DatasetArchive.Content content) {
+        if (!content.isInline()) {
+            return null;
+        }
+        try {
+            // input_json / output_json are JSON columns; plain text is stored as a JSON string.
+            return objectMapper.writeValueAsString(content.text());
+        } catch (JsonProcessingException ex) {
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "用例内容序列化失败");
+        }
+    }
+}
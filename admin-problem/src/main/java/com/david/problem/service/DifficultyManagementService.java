@@ -28,11 +28,15 @@ public class DifficultyManagementService {
 
     private final DifficultyMapper difficultyMapper;
     private final ProblemMapper problemMapper;
+    private final ProblemDictionaryCache dictionaryCache;
 
     public DifficultyManagementService(
-            DifficultyMapper difficultyMapper, ProblemMapper problemMapper) {
+            DifficultyMapper difficultyMapper,
+            ProblemMapper problemMapper,
+            ProblemDictionaryCache dictionaryCache) {
         this.difficultyMapper = difficultyMapper;
         this.problemMapper = problemMapper;
+        this.dictionaryCache = dictionaryCache;
     }
 
     public PageResult<DifficultyView> listDifficulties(
@@ -87,6 +91,7 @@ public class DifficultyManagementService {
         difficulty.setCode(code);
         difficulty.setSortKey(request.sortKey());
         difficultyMapper.insert(difficulty);
+        dictionaryCache.invalidateAfterCommit();
         return getDifficulty(difficulty.getId());
     }
 
@@ -125,6 +130,7 @@ public class DifficultyManagementService {
                     uw.set(Difficulty::getCode, existing.getCode());
                     uw.set(Difficulty::getSortKey, existing.getSortKey());
                 });
+        dictionaryCache.invalidateAfterCommit();
         return getDifficulty(difficultyId);
     }
 
@@ -136,6 +142,7 @@ public class DifficultyManagementService {
                         Wrappers.<Problem>lambdaQuery().eq(Problem::getDifficultyId, difficultyId));
         assertNoRelations(count, "仍有题目关联该难度，无法删除");
         difficultyMapper.deleteById(existing.getId());
+        dictionaryCache.invalidateAfterCommit();
     }
 
     private DifficultyView toView(Difficulty difficulty) {
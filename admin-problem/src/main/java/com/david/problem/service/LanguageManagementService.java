@@ -23,6 +23,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
@@ -33,14 +34,17 @@ public class LanguageManagementService {
     private final LanguageMapper languageMapper;
     private final ProblemLanguageConfigMapper problemLanguageConfigMapper;
     private final ProblemStatementMapper problemStatementMapper;
+    private final ProblemDictionaryCache dictionaryCache;
 
     public LanguageManagementService(
             LanguageMapper languageMapper,
             ProblemLanguageConfigMapper problemLanguageConfigMapper,
-            ProblemStatementMapper problemStatementMapper) {
+            ProblemStatementMapper problemStatementMapper,
+            ProblemDictionaryCache dictionaryCache) {
         this.languageMapper = languageMapper;
         this.problemLanguageConfigMapper = problemLanguageConfigMapper;
         this.problemStatementMapper = problemStatementMapper;
+        this.dictionaryCache = dictionaryCache;
     }
 
     public PageResult<LanguageView> listLanguages(
@@ -100,6 +104,7 @@ public class LanguageManagementService {
         language.setRuntimeImage(runtimeImage);
         language.setIsActive(Boolean.FALSE.equals(request.isActive()) ? 0 : 1);
         languageMapper.insert(language);
+        dictionaryCache.invalidateAfterCommit();
         return getLanguage(language.getId());
     }
 
@@ -145,6 +150,7 @@ public class LanguageManagementService {
             return toView(existing);
         }
         languageMapper.updateById(existing);
+        dictionaryCache.invalidateAfterCommit();
         return getLanguage(languageId);
     }
 
@@ -169,6 +175,7 @@ public class LanguageManagementService {
             throw new BusinessException(HttpStatus.CONFLICT, "仍有题面使用该语言代码，无法删除");
         }
         languageMapper.deleteById(languageId);
+        dictionaryCache.invalidateAfterCommit();
     }
 
     private void ensureCodeUnique(String code, @Nullable Integer excludeLanguageId) {
@@ -191,6 +198,8 @@ public class LanguageManagementService {
                 Wrappers.lambdaUpdate(ProblemStatement.class)
                         .eq(ProblemStatement::getLangCode, from);
         update.set(ProblemStatement::getLangCode, to);
+        // Bumped so the search index re-reads the statements under their new code.
+        update.set(ProblemStatement::getUpdatedAt, LocalDateTime.now());
         problemStatementMapper.update(null, update);
     }
 
@@ -0,0 +1,196 @@
+package com.david.problem.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.core.exception.BusinessException;
+import com.david.problem.config.ProblemDictionaryProperties;
+import com.david.problem.dto.DictionaryOption;
+import com.david.problem.dto.LanguageOption;
+import com.david.problem.dto.ProblemOptionsResponse;
+import com.david.problem.dto.TagOption;
+import com.david.problem.entity.Category;
+import com.david.problem.entity.Difficulty;
+import com.david.problem.entity.Language;
+import com.david.problem.entity.Tag;
+import com.david.problem.mapper.CategoryMapper;
+import com.david.problem.mapper.DifficultyMapper;
+import com.david.problem.mapper.LanguageMapper;
+import com.david.problem.mapper.TagMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Difficulties, categories, tags and languages held as one immutable snapshot. The snapshot's
+ * version is a fingerprint of its content, so every instance serving the same dictionaries hands
+ * out the same ETag.
+ */
+@Service
+public class ProblemDictionaryCache {
+
+    private final DifficultyMapper difficultyMapper;
+    private final CategoryMapper categoryMapper;
+    private final TagMapper tagMapper;
+    private final LanguageMapper languageMapper;
+    private final ObjectMapper objectMapper;
+    private final ProblemDictionaryProperties properties;
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ProblemDictionaryCache(
+            DifficultyMapper difficultyMapper,
+            CategoryMapper categoryMapper,
+            TagMapper tagMapper,
+            LanguageMapper languageMapper,
+            ObjectMapper objectMapper,
+            ProblemDictionaryProperties properties) {
+        this.difficultyMapper = difficultyMapper;
+        this.categoryMapper = categoryMapper;
+        this.tagMapper = tagMapper;
+        this.languageMapper = languageMapper;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && !current.isOlderThan(properties.maxAge().toNanos())) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.isOlderThan(properties.maxAge().toNanos())) {
+                long loadingGeneration = generation.get();
+                current = load();
+                // An invalidation that raced with the load means these rows may already be stale.
+                if (generation.get() == loadingGeneration) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Drops the snapshot once the surrounding transaction commits. Dropping it earlier would let a
+     * concurrent reader cache the pre-commit rows again.
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        invalidate();
+                    }
+                });
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot load() {
+        List<Difficulty> difficulties =
+                difficultyMapper.selectList(
+                        Wrappers.lambdaQuery(Difficulty.class).orderByAsc(Difficulty::getSortKey));
+        List<Category> categories =
+                categoryMapper.selectList(
+                        Wrappers.lambdaQuery(Category.class).orderByAsc(Category::getName));
+        List<Tag> tags = tagMapper.selectList(Wrappers.lambdaQuery(Tag.class).orderByAsc(Tag::getName));
+        List<Language> languages =
+                languageMapper.selectList(
+                        Wrappers.lambdaQuery(Language.class).orderByAsc(Language::getId));
+
+        ProblemOptionsResponse options =
+                new ProblemOptionsResponse(
+                        difficulties.stream()
+                                .map(d -> new DictionaryOption(d.getId(), d.getCode(), d.getCode()))
+                                .toList(),
+                        categories.stream()
+                                .map(c -> new DictionaryOption(c.getId(), c.getCode(), c.getName()))
+                                .toList(),
+                        tags.stream()
+                                .map(tag -> new TagOption(tag.getId(), tag.getSlug(), tag.getName()))
+                                .toList(),
+                        languages.stream()
+                                .map(
+                                        lang ->
+                                                new LanguageOption(
+                                                        lang.getId(),
+                                                        lang.getCode(),
+                                                        lang.getDisplayName(),
+                                                        lang.getIsActive() == null
+                                                                ? null
+                                                                : lang.getIsActive() == 1))
+                                .toList(),
+                        ProblemManagementService.SUPPORTED_PROBLEM_TYPES);
+
+        return new Snapshot(
+                fingerprint(options),
+                System.nanoTime(),
+                index(difficulties, Difficulty::getId),
+                index(categories, Category::getId),
+                index(tags, Tag::getId),
+                index(languages, Language::getId),
+                options);
+    }
+
+    private long fingerprint(ProblemOptionsResponse options) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(objectMapper.writeValueAsBytes(options));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new BusinessException(HttpStatus.INTERNAL_SERVER_ERROR, "字典数据序列化失败");
+        }
+    }
+
+    private static <K, V> Map<K, V> index(List<V> rows, Function<V, K> key) {
+        return rows.stream()
+                .collect(
+                        Collectors.toMap(
+                                key,
+                                Function.identity(),
+                                (left, right) -> left,
+                                LinkedHashMap::new));
+    }
+
+    /** Rows are shared between readers and must not be modified. */
+    public record Snapshot(
+            long version,
+            long loadedAtNanos,
+            Map<Integer, Difficulty> difficulties,
+            Map<Integer, Category> categories,
+            Map<Long, Tag> tags,
+            Map<Integer, Language> languages,
+            ProblemOptionsResponse options) {
+
+        public String etag() {
+            return "\"dict-" + Long.toHexString(version) + "\"";
+        }
+
+        boolean isOlderThan(long maxAgeNanos) {
+            return System.nanoTime() - loadedAtNanos > maxAgeNanos;
+        }
+    }
+}
@@ -4,13 +4,10 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.david.core.exception.BusinessException;
-import com.david.problem.dto.DictionaryOption;
-import com.david.problem.dto.LanguageOption;
 import com.david.problem.dto.PageResult;
 import com.david.problem.dto.ProblemDetailView;
 import com.david.problem.dto.ProblemLanguageConfigPayload;
 import com.david.problem.dto.ProblemLanguageConfigView;
-import com.david.problem.dto.ProblemOptionsResponse;
 import com.david.problem.dto.ProblemReviewDecisionRequest;
 import com.david.problem.dto.ProblemStatementPayload;
 import com.david.problem.dto.ProblemStatementView;
@@ -18,7 +15,6 @@ import com.david.problem.dto.ProblemSubmitReviewRequest;
 import com.david.problem.dto.ProblemSummaryView;
 import com.david.problem.dto.ProblemTagDto;
 import com.david.problem.dto.ProblemUpsertRequest;
-import com.david.problem.dto.TagOption;
 import com.david.problem.entity.Category;
 import com.david.problem.entity.Dataset;
 import com.david.problem.entity.Difficulty;
@@ -51,6 +47,8 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -58,14 +56,16 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProblemManagementService {
 
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
-    private static final List<String> SUPPORTED_PROBLEM_TYPES =
+    static final List<String> SUPPORTED_PROBLEM_TYPES =
             List.of("coding", "sql", "shell", "concurrency", "interactive", "output-only");
 
     private static final String STATUS_DRAFT = "draft";
@@ -100,6 +100,8 @@ public class ProblemManagementService {
     private final LanguageMapper languageMapper;
     private final DatasetMapper datasetMapper;
     private final ObjectMapper objectMapper;
+    private final ProblemSearchService problemSearchService;
+    private final ProblemDictionaryCache dictionaryCache;
 
     public ProblemManagementService(
             ProblemMapper problemMapper,
@@ -111,7 +113,9 @@ public class ProblemManagementService {
             CategoryMapper categoryMapper,
             LanguageMapper languageMapper,
             DatasetMapper datasetMapper,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            ProblemSearchService problemSearchService,
+            ProblemDictionaryCache dictionaryCache) {
         this.problemMapper = problemMapper;
         this.problemStatementMapper = problemStatementMapper;
         this.problemLanguageConfigMapper = problemLanguageConfigMapper;
@@ -122,6 +126,8 @@ public class ProblemManagementService {
         this.languageMapper = languageMapper;
         this.datasetMapper = datasetMapper;
         this.objectMapper = objectMapper;
+        this.problemSearchService = problemSearchService;
+        this.dictionaryCache = dictionaryCache;
     }
 
     public PageResult<ProblemSummaryView> listProblems(
@@ -158,14 +164,25 @@ public class ProblemManagementService {
             query.eq(Problem::getReviewStatus, normalizeReviewStatus(reviewStatus));
         }
         if (StringUtils.hasText(keyword)) {
-            List<Long> matchedIds = findProblemIdsByStatementKeyword(keyword, preferredLangCode);
-            query.and(
-                    wrapper -> {
-                        wrapper.like(Problem::getSlug, keyword);
-                        if (!matchedIds.isEmpty()) {
-                            wrapper.or().in(Problem::getId, matchedIds);
-                        }
-                    });
+            Optional<List<Long>> indexed =
+                    problemSearchService.searchForFilter(keyword, preferredLangCode);
+            if (indexed.isPresent()) {
+                // The complete match set; the index covers slugs as well.
+                if (indexed.get().isEmpty()) {
+                    return new PageResult<>(List.of(), 0, page, size);
+                }
+                query.in(Problem::getId, indexed.get());
+            } else {
+                List<Long> matchedIds =
+                        findProblemIdsByStatementKeyword(keyword, preferredLangCode);
+                query.and(
+                        wrapper -> {
+                            wrapper.like(Problem::getSlug, keyword);
+                            if (!matchedIds.isEmpty()) {
+                                wrapper.or().in(Problem::getId, matchedIds);
+                            }
+                        });
+            }
         }
         query.orderByDesc(Problem::getUpdatedAt);
 
@@ -175,22 +192,57 @@ public class ProblemManagementService {
             return new PageResult<>(
                     List.of(), result.getTotal(), result.getCurrent(), result.getSize());
         }
+        return new PageResult<>(
+                toSummaryViews(records, preferredLangCode),
+                result.getTotal(),
+                result.getCurrent(),
+                result.getSize());
+    }
+
+    /**
+     * Keyword search ordered by relevance rather than by update time. Falls back to {@link
+     * #listProblems} while the search index is still loading.
+     */
+    public PageResult<ProblemSummaryView> searchProblems(
+            String keyword, int page, int size, @Nullable String preferredLangCode) {
+        Optional<List<Long>> indexed = problemSearchService.search(keyword, preferredLangCode);
+        if (indexed.isEmpty()) {
+            return listProblems(
+                    page, size, keyword, null, null, null, null, null, null, preferredLangCode);
+        }
+        List<Long> rankedIds = indexed.get();
+        int from = (int) Math.min((long) (page - 1) * size, rankedIds.size());
+        List<Long> pageIds = rankedIds.subList(from, Math.min(from + size, rankedIds.size()));
+        if (pageIds.isEmpty()) {
+            return new PageResult<>(List.of(), rankedIds.size(), page, size);
+        }
+        Map<Long, Problem> problemsById =
+                problemMapper.selectByIds(pageIds).stream()
+                        .collect(Collectors.toMap(Problem::getId, problem -> problem));
+        List<Problem> records =
+                pageIds.stream().map(problemsById::get).filter(Objects::nonNull).toList();
+        return new PageResult<>(
+                toSummaryViews(records, preferredLangCode), rankedIds.size(), page, size);
+    }
 
+    private List<ProblemSummaryView> toSummaryViews(
+            List<Problem> records, @Nullable String preferredLangCode) {
         List<Long> problemIds = records.stream().map(Problem::getId).toList();
         Map<Long, ProblemStatement> statementMap =
                 loadPreferredStatements(problemIds, preferredLangCode);
+        ProblemDictionaryCache.Snapshot dictionaries = dictionaryCache.snapshot();
         Map<Integer, Difficulty> difficultyMap =
-                loadDifficulties(
-                        records.stream()
-                                .map(Problem::getDifficultyId)
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toSet()));
+                withMissingFromDb(
+                        dictionaries.difficulties(),
+                        records.stream().map(Problem::getDifficultyId).toList(),
+                        difficultyMapper::selectByIds,
+                        Difficulty::getId);
         Map<Integer, Category> categoryMap =
-                loadCategories(
-                        records.stream()
-                                .map(Problem::getCategoryId)
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toSet()));
+                withMissingFromDb(
+                        dictionaries.categories(),
+                        records.stream().map(Problem::getCategoryId).toList(),
+                        categoryMapper::selectByIds,
+                        Category::getId);
         TagsGrouping tagsGrouping = loadTags(problemIds);
 
         List<ProblemSummaryView> items = new ArrayList<>(records.size());
@@ -231,8 +283,7 @@ public class ProblemManagementService {
                             tagDtos,
                             parseMeta(problem.getMetaJson())));
         }
-
-        return new PageResult<>(items, result.getTotal(), result.getCurrent(), result.getSize());
+        return items;
     }
 
     public ProblemDetailView getProblem(Long problemId, @Nullable String preferredLangCode) {
@@ -241,14 +292,21 @@ public class ProblemManagementService {
             throw new BusinessException(HttpStatus.NOT_FOUND, "题目不存在");
         }
 
-        Difficulty difficulty = null;
-        if (problem.getDifficultyId() != null) {
-            difficulty = difficultyMapper.selectById(problem.getDifficultyId());
-        }
-        Category category = null;
-        if (problem.getCategoryId() != null) {
-            category = categoryMapper.selectById(problem.getCategoryId());
-        }
+        ProblemDictionaryCache.Snapshot dictionaries = dictionaryCache.snapshot();
+        Difficulty difficulty =
+                withMissingFromDb(
+                                dictionaries.difficulties(),
+                                Collections.singletonList(problem.getDifficultyId()),
+                                difficultyMapper::selectByIds,
+                                Difficulty::getId)
+                        .get(problem.getDifficultyId());
+        Category category =
+                withMissingFromDb(
+                                dictionaries.categories(),
+                                Collections.singletonList(problem.getCategoryId()),
+                                categoryMapper::selectByIds,
+                                Category::getId)
+                        .get(problem.getCategoryId());
 
         List<ProblemStatement> statements =
                 problemStatementMapper.selectList(
@@ -272,15 +330,11 @@ public class ProblemManagementService {
                         Wrappers.lambdaQuery(ProblemLanguageConfig.class)
                                 .eq(ProblemLanguageConfig::getProblemId, problemId));
         Map<Integer, Language> languages =
-                configs.isEmpty()
-                        ? Map.of()
-                        : languageMapper
-                                .selectByIds(
-                                        configs.stream()
-                                                .map(ProblemLanguageConfig::getLanguageId)
-                                                .collect(Collectors.toSet()))
-                                .stream()
-                                .collect(Collectors.toMap(Language::getId, l -> l));
+                withMissingFromDb(
+                        dictionaries.languages(),
+                        configs.stream().map(ProblemLanguageConfig::getLanguageId).toList(),
+                        languageMapper::selectByIds,
+                        Language::getId);
         List<ProblemLanguageConfigView> languageViews =
                 configs.stream()
                         .map(
@@ -359,6 +413,7 @@ public class ProblemManagementService {
         replaceProblemStatements(problem.getId(), request.statements());
         replaceProblemLanguageConfigs(problem.getId(), request.languageConfigs());
         replaceProblemTags(problem.getId(), request.tagIds());
+        problemSearchService.reindexAfterCommit(problem.getId());
 
         return getProblem(problem.getId(), null);
     }
@@ -386,6 +441,7 @@ public class ProblemManagementService {
         replaceProblemStatements(problemId, request.statements());
         replaceProblemLanguageConfigs(problemId, request.languageConfigs());
         replaceProblemTags(problemId, request.tagIds());
+        problemSearchService.reindexAfterCommit(problemId);
 
         return getProblem(problemId, null);
     }
@@ -497,51 +553,6 @@ public class ProblemManagementService {
         applyPublicationFlag(target, request.isPublic(), isNew);
     }
 
-    public ProblemOptionsResponse loadOptions() {
-        List<DictionaryOption> difficulties =
-                difficultyMapper
-                        .selectList(
-                                Wrappers.lambdaQuery(Difficulty.class)
-                                        .orderByAsc(Difficulty::getSortKey))
-                        .stream()
-                        .map(d -> new DictionaryOption(d.getId(), d.getCode(), d.getCode()))
-                        .toList();
-
-        List<DictionaryOption> categories =
-                categoryMapper
-                        .selectList(
-                                Wrappers.lambdaQuery(Category.class).orderByAsc(Category::getName))
-                        .stream()
-                        .map(c -> new DictionaryOption(c.getId(), c.getCode(), c.getName()))
-                        .toList();
-
-        List<TagOption> tags =
-                tagMapper
-                        .selectList(Wrappers.lambdaQuery(Tag.class).orderByAsc(Tag::getName))
-                        .stream()
-                        .map(tag -> new TagOption(tag.getId(), tag.getSlug(), tag.getName()))
-                        .toList();
-
-        List<LanguageOption> languages =
-                languageMapper
-                        .selectList(
-                                Wrappers.lambdaQuery(Language.class).orderByAsc(Language::getId))
-                        .stream()
-                        .map(
-                                lang ->
-                                        new LanguageOption(
-                                                lang.getId(),
-                                                lang.getCode(),
-                                                lang.getDisplayName(),
-                                                lang.getIsActive() == null
-                                                        ? null
-                                                        : lang.getIsActive() == 1))
-                        .toList();
-
-        return new ProblemOptionsResponse(
-                difficulties, categories, tags, languages, SUPPORTED_PROBLEM_TYPES);
-    }
-
     private void applyPublicationFlag(Problem problem, @Nullable Boolean requested, boolean isNew) {
         if (requested == null) {
             if (isNew && problem.getIsPublic() == null) {
@@ -722,22 +733,6 @@ public class ProblemManagementService {
         return preferred;
     }
 
-    private Map<Integer, Difficulty> loadDifficulties(Set<Integer> difficultyIds) {
-        if (difficultyIds.isEmpty()) {
-            return Map.of();
-        }
-        return difficultyMapper.selectByIds(difficultyIds).stream()
-                .collect(Collectors.toMap(Difficulty::getId, d -> d));
-    }
-
-    private Map<Integer, Category> loadCategories(Set<Integer> categoryIds) {
-        if (categoryIds.isEmpty()) {
-            return Map.of();
-        }
-        return categoryMapper.selectByIds(categoryIds).stream()
-                .collect(Collectors.toMap(Category::getId, c -> c));
-    }
-
     private TagsGrouping loadTags(List<Long> problemIds) {
         if (problemIds.isEmpty()) {
             return new TagsGrouping(Map.of(), Map.of());
@@ -758,11 +753,34 @@ public class ProblemManagementService {
             tagIds.add(relation.getTagId());
         }
         Map<Long, Tag> tagsById =
-                tagMapper.selectByIds(tagIds).stream()
-                        .collect(Collectors.toMap(Tag::getId, tag -> tag));
+                withMissingFromDb(
+                        dictionaryCache.snapshot().tags(), tagIds, tagMapper::selectByIds, Tag::getId);
         return new TagsGrouping(tagsById, tagIdsByProblem);
     }
 
+    /**
+     * Dictionary entries for {@code ids}: from the cached snapshot, with ids it does not know yet
+     * (created through another instance since the snapshot was taken) read from the database.
+     */
+    private static <K, V> Map<K, V> withMissingFromDb(
+            Map<K, V> cached,
+            Collection<K> ids,
+            Function<Collection<K>, List<V>> loader,
+            Function<V, K> idOf) {
+        Set<K> missing = new LinkedHashSet<>();
+        for (K id : ids) {
+            if (id != null && !cached.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return cached;
+        }
+        Map<K, V> merged = new HashMap<>(cached);
+        loader.apply(missing).forEach(value -> merged.put(idOf.apply(value), value));
+        return merged;
+    }
+
     private List<Long> findProblemIdsByStatementKeyword(
             String keyword, @Nullable String preferredLangCode) {
         LambdaQueryWrapper<ProblemStatement> query = Wrappers.lambdaQuery(ProblemStatement.class);
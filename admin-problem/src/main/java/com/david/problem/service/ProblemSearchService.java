@@ -0,0 +1,290 @@
+package com.david.problem.service;
+
+import com.baomidou.mybatisplus.core.toolkit.Wrappers;
+import com.david.problem.config.ProblemSearchProperties;
+import com.david.problem.entity.Problem;
+import com.david.problem.entity.ProblemStatement;
+import com.david.problem.entity.ProblemTag;
+import com.david.problem.entity.Tag;
+import com.david.problem.mapper.ProblemMapper;
+import com.david.problem.mapper.ProblemStatementMapper;
+import com.david.problem.mapper.ProblemTagMapper;
+import com.david.problem.mapper.TagMapper;
+import com.david.problem.service.search.ProblemDocument;
+import com.david.problem.service.search.ProblemSearchIndex;
+
+import jakarta.annotation.Nullable;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps a {@link ProblemSearchIndex} in step with the database. The first poll loads every problem
+ * in id batches; later polls re-index whatever problems, statements or tags changed since the
+ * previous one, and local edits are re-indexed as soon as their transaction commits.
+ */
+@Slf4j
+@Service
+public class ProblemSearchService {
+
+    private final ProblemMapper problemMapper;
+    private final ProblemStatementMapper problemStatementMapper;
+    private final ProblemTagMapper problemTagMapper;
+    private final TagMapper tagMapper;
+    private final ProblemSearchProperties properties;
+
+    private volatile ProblemSearchIndex index;
+    private LocalDateTime watermark;
+
+    public ProblemSearchService(
+            ProblemMapper problemMapper,
+            ProblemStatementMapper problemStatementMapper,
+            ProblemTagMapper problemTagMapper,
+            TagMapper tagMapper,
+            ProblemSearchProperties properties) {
+        this.problemMapper = problemMapper;
+        this.problemStatementMapper = problemStatementMapper;
+        this.problemTagMapper = problemTagMapper;
+        this.tagMapper = tagMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Every matching problem id, best first, or empty while the index is disabled or still loading
+     * and when the keyword is too broad for the index to answer completely.
+     */
+    public Optional<List<Long>> search(String keyword, @Nullable String langCode) {
+        ProblemSearchIndex current = index;
+        if (!properties.enabled() || current == null) {
+            return Optional.empty();
+        }
+        return current.search(keyword, langCode);
+    }
+
+    /**
+     * Like {@link #search}, for callers that hand the ids to the database as an IN list: a match
+     * set larger than {@code maxMatches} is reported as empty so they fall back to their own
+     * filter instead of building an oversized query.
+     */
+    public Optional<List<Long>> searchForFilter(String keyword, @Nullable String langCode) {
+        return search(keyword, langCode)
+                .filter(ids -> ids.size() <= Math.max(properties.maxMatches(), 1));
+    }
+
+    /** Re-indexes the problem once the surrounding transaction commits, or right away without one. */
+    public void reindexAfterCommit(Long problemId) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reindexQuietly(List.of(problemId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        reindexQuietly(List.of(problemId));
+                    }
+                });
+    }
+
+    @Scheduled(
+            initialDelayString = "${problem.search.initial-delay-ms:3000}",
+            fixedDelayString = "${problem.search.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!properties.enabled()) {
+            return;
+        }
+        try {
+            if (index == null) {
+                rebuild();
+            } else {
+                refreshChanged();
+            }
+        } catch (RuntimeException ex) {
+            log.error("刷新题目搜索索引失败", ex);
+        }
+    }
+
+    private void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long begin = System.nanoTime();
+        int batchSize = Math.max(properties.loadBatchSize(), 1);
+        Map<Long, Tag> tagsById =
+                tagMapper.selectList(null).stream()
+                        .collect(Collectors.toMap(Tag::getId, Function.identity()));
+        ProblemSearchIndex fresh = new ProblemSearchIndex();
+        long lastId = 0;
+        List<Problem> batch;
+        do {
+            batch =
+                    problemMapper.selectList(
+                            Wrappers.lambdaQuery(Problem.class)
+                                    .select(Problem::getId, Problem::getSlug)
+                                    .gt(Problem::getId, lastId)
+                                    .orderByAsc(Problem::getId)
+                                    .last("LIMIT " + batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            loadDocuments(batch, tagsById).forEach(fresh::put);
+            lastId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == batchSize);
+        index = fresh;
+        watermark = startedAt;
+        log.info(
+                "题目搜索索引加载完成，题目数: {}, 耗时: {} ms",
+                fresh.size(),
+                (System.nanoTime() - begin) / 1_000_000);
+    }
+
+    private void refreshChanged() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = watermark.minus(properties.refreshOverlap());
+        Set<Long> changed = new LinkedHashSet<>();
+        problemMapper
+                .selectList(
+                        Wrappers.lambdaQuery(Problem.class)
+                                .select(Problem::getId)
+                                .ge(Problem::getUpdatedAt, since))
+                .forEach(problem -> changed.add(problem.getId()));
+        problemStatementMapper
+                .selectList(
+                        Wrappers.lambdaQuery(ProblemStatement.class)
+                                .select(ProblemStatement::getProblemId)
+                                .ge(ProblemStatement::getUpdatedAt, since))
+                .forEach(statement -> changed.add(statement.getProblemId()));
+        List<Long> renamedTagIds =
+                tagMapper
+                        .selectList(
+                                Wrappers.lambdaQuery(Tag.class)
+                                        .select(Tag::getId)
+                                        .ge(Tag::getUpdatedAt, since))
+                        .stream()
+                        .map(Tag::getId)
+                        .toList();
+        if (!renamedTagIds.isEmpty()) {
+            problemTagMapper
+                    .selectList(
+                            Wrappers.lambdaQuery(ProblemTag.class)
+                                    .in(ProblemTag::getTagId, renamedTagIds))
+                    .forEach(relation -> changed.add(relation.getProblemId()));
+        }
+        if (!changed.isEmpty()) {
+            reindex(changed);
+        }
+        watermark = startedAt;
+    }
+
+    private void reindexQuietly(Collection<Long> problemIds) {
+        if (index == null) {
+            // Still loading; the load or the poll after it sees this change.
+            return;
+        }
+        try {
+            reindex(problemIds);
+        } catch (RuntimeException ex) {
+            // The next poll picks the change up through updated_at.
+            log.warn("更新题目搜索索引失败，题目ID: {}", problemIds, ex);
+        }
+    }
+
+    private synchronized void reindex(Collection<Long> problemIds) {
+        ProblemSearchIndex current = index;
+        if (current == null) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(problemIds);
+        int batchSize = Math.max(properties.loadBatchSize(), 1);
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            List<Problem> problems =
+                    problemMapper.selectList(
+                            Wrappers.lambdaQuery(Problem.class)
+                                    .select(Problem::getId, Problem::getSlug)
+                                    .in(Problem::getId, chunk));
+            Set<Long> found = problems.stream().map(Problem::getId).collect(Collectors.toSet());
+            chunk.stream().filter(id -> !found.contains(id)).forEach(current::remove);
+            if (!problems.isEmpty()) {
+                loadDocuments(problems, null).forEach(current::put);
+            }
+        }
+    }
+
+    private List<ProblemDocument> loadDocuments(
+            List<Problem> problems, @Nullable Map<Long, Tag> knownTags) {
+        List<Long> problemIds = problems.stream().map(Problem::getId).toList();
+        Map<Long, List<ProblemDocument.Statement>> statementsByProblem = new HashMap<>();
+        problemStatementMapper
+                .selectList(
+                        Wrappers.lambdaQuery(ProblemStatement.class)
+                                .select(
+                                        ProblemStatement::getProblemId,
+                                        ProblemStatement::getLangCode,
+                                        ProblemStatement::getTitle,
+                                        ProblemStatement::getDescriptionMd)
+                                .in(ProblemStatement::getProblemId, problemIds))
+                .forEach(
+                        statement ->
+                                statementsByProblem
+                                        .computeIfAbsent(
+                                                statement.getProblemId(), key -> new ArrayList<>())
+                                        .add(
+                                                new ProblemDocument.Statement(
+                                                        statement.getLangCode(),
+                                                        statement.getTitle(),
+                                                        statement.getDescriptionMd())));
+
+        List<ProblemTag> relations =
+                problemTagMapper.selectList(
+                        Wrappers.lambdaQuery(ProblemTag.class)
+                                .in(ProblemTag::getProblemId, problemIds));
+        Map<Long, Tag> tagsById = knownTags;
+        if (tagsById == null) {
+            List<Long> tagIds = relations.stream().map(ProblemTag::getTagId).distinct().toList();
+            tagsById =
+                    tagIds.isEmpty()
+                            ? Map.of()
+                            : tagMapper.selectByIds(tagIds).stream()
+                                    .collect(Collectors.toMap(Tag::getId, Function.identity()));
+        }
+        Map<Long, List<String>> tagsByProblem = new HashMap<>();
+        for (ProblemTag relation : relations) {
+            Tag tag = tagsById.get(relation.getTagId());
+            if (tag != null) {
+                tagsByProblem
+                        .computeIfAbsent(relation.getProblemId(), key -> new ArrayList<>())
+                        .add(tag.getName() + " " + tag.getSlug());
+            }
+        }
+
+        return problems.stream()
+                .filter(problem -> Objects.nonNull(problem.getId()))
+                .map(
+                        problem ->
+                                new ProblemDocument(
+                                        problem.getId(),
+                                        problem.getSlug(),
+                                        statementsByProblem.getOrDefault(problem.getId(), List.of()),
+                                        tagsByProblem.getOrDefault(problem.getId(), List.of())))
+                .toList();
+    }
+}
@@ -27,10 +27,15 @@ public class TagManagementService {
 
     private final TagMapper tagMapper;
     private final ProblemTagMapper problemTagMapper;
+    private final ProblemDictionaryCache dictionaryCache;
 
-    public TagManagementService(TagMapper tagMapper, ProblemTagMapper problemTagMapper) {
+    public TagManagementService(
+            TagMapper tagMapper,
+            ProblemTagMapper problemTagMapper,
+            ProblemDictionaryCache dictionaryCache) {
         this.tagMapper = tagMapper;
         this.problemTagMapper = problemTagMapper;
+        this.dictionaryCache = dictionaryCache;
     }
 
     public PageResult<TagView> listTags(
@@ -70,6 +75,7 @@ public class TagManagementService {
         tag.setCreatedAt(now);
         tag.setUpdatedAt(now);
         tagMapper.insert(tag);
+        dictionaryCache.invalidateAfterCommit();
         return getTag(tag.getId());
     }
 
@@ -105,6 +111,7 @@ public class TagManagementService {
                     uw.set(Tag::getName, existing.getName());
                     uw.set(Tag::getUpdatedAt, existing.getUpdatedAt());
                 });
+        dictionaryCache.invalidateAfterCommit();
         return getTag(tagId);
     }
 
@@ -116,6 +123,7 @@ public class TagManagementService {
                         Wrappers.<ProblemTag>lambdaQuery().eq(ProblemTag::getTagId, tagId));
         assertNoRelations(relationCount, "仍有题目关联该标签，无法删除");
         tagMapper.deleteById(existing.getId());
+        dictionaryCache.invalidateAfterCommit();
     }
 
     private TagView toView(Tag tag) {
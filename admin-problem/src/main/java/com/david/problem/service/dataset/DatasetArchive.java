@@ -0,0 +1,30 @@
+package com.david.problem.service.dataset;
+
+import com.david.problem.dto.DatasetImportError;
+import com.david.problem.storage.StoredFile;
+
+import java.util.List;
+
+/** A parsed dataset zip: groups in name order, cases in index order. */
+public record DatasetArchive(List<Group> groups, List<DatasetImportError> errors) {
+
+    public record Group(String name, boolean sample, List<Case> cases) {}
+
+    public record Case(int index, Content input, Content output) {}
+
+    /** Exactly one of {@code text} and {@code stored} is set. */
+    public record Content(String text, StoredFile stored) {
+
+        static Content inline(String text) {
+            return new Content(text, null);
+        }
+
+        static Content stored(StoredFile stored) {
+            return new Content(null, stored);
+        }
+
+        public boolean isInline() {
+            return stored == null;
+        }
+    }
+}
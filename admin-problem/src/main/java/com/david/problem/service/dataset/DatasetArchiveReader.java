@@ -0,0 +1,342 @@
+package com.david.problem.service.dataset;
+
+import com.david.problem.dto.DatasetImportError;
+import com.david.problem.storage.TestcaseFileStorage;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads a dataset zip in one pass without extracting it: every directory holding {@code N.in} /
+ * {@code N.out} pairs becomes a testcase group. Small UTF-8 files are kept as text, anything else
+ * is streamed straight into {@link TestcaseFileStorage}.
+ *
+ * <p>A folder wrapping every group (zipping the dataset directory itself) is stripped from group
+ * names. Problems with individual entries are collected rather than thrown so the caller can
+ * report all of them at once. Every entry, kept or skipped, is inflated through the size limits, and
+ * reading stops at the first entry over the per-entry limit.
+ */
+public final class DatasetArchiveReader {
+
+    private static final Pattern CASE_FILE = Pattern.compile("(\\d{1,6})\\.(in|out)");
+    private static final Set<String> SAMPLE_GROUPS = Set.of("sample", "samples", "example", "examples");
+
+    private final TestcaseFileStorage storage;
+    private final Limits limits;
+
+    public DatasetArchiveReader(TestcaseFileStorage storage, Limits limits) {
+        this.storage = storage;
+        this.limits = limits;
+    }
+
+    public DatasetArchive read(InputStream in) throws IOException {
+        Map<String, Map<Integer, PendingCase>> byDirectory = new TreeMap<>();
+        Errors errors = new Errors(limits.maxReportedErrors());
+        long[] totalBytes = {0};
+        int entries = 0;
+
+        ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        try {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (++entries > limits.maxEntries()) {
+                    errors.add(null, "压缩包条目过多，最多允许 " + limits.maxEntries() + " 个");
+                    break;
+                }
+                String name = entry.getName().replace('\\', '/');
+                try {
+                    if (entry.isDirectory() || isIgnored(name)) {
+                        skip(zip, totalBytes);
+                        continue;
+                    }
+                    int slash = name.lastIndexOf('/');
+                    String fileName = name.substring(slash + 1);
+                    Matcher matcher = CASE_FILE.matcher(fileName.toLowerCase(Locale.ROOT));
+                    if (slash <= 0) {
+                        errors.add(name, "用例文件必须放在测试组目录下");
+                        skip(zip, totalBytes);
+                        continue;
+                    }
+                    if (name.contains("../") || name.startsWith("/")) {
+                        errors.add(name, "非法的文件路径");
+                        skip(zip, totalBytes);
+                        continue;
+                    }
+                    if (!matcher.matches()) {
+                        errors.add(name, "无法识别的文件，应为 N.in 或 N.out");
+                        skip(zip, totalBytes);
+                        continue;
+                    }
+                    String directory = name.substring(0, slash);
+                    int index = Integer.parseInt(matcher.group(1));
+                    boolean input = "in".equals(matcher.group(2));
+                    PendingCase known = byDirectory.getOrDefault(directory, Map.of()).get(index);
+                    if (known != null && (input ? known.input : known.output) != null) {
+                        errors.add(name, "同一用例的文件重复出现");
+                        skip(zip, totalBytes);
+                        continue;
+                    }
+                    DatasetArchive.Content content = readContent(zip, totalBytes);
+                    // registered only once read, so an entry cut short leaves no half-empty case
+                    PendingCase pending =
+                            byDirectory
+                                    .computeIfAbsent(directory, key -> new TreeMap<>())
+                                    .computeIfAbsent(index, PendingCase::new);
+                    if (input) {
+                        pending.input = content;
+                        pending.inputEntry = name;
+                    } else {
+                        pending.output = content;
+                        pending.outputEntry = name;
+                    }
+                } catch (EntryTooLargeException ex) {
+                    // Moving on would make getNextEntry inflate the rest of this entry uncounted.
+                    errors.add(name, "文件超过大小上限 " + limits.maxEntrySize() + " 字节，已停止读取");
+                    break;
+                } catch (ArchiveTooLargeException ex) {
+                    errors.add(null, "解压后总大小超过上限 " + limits.maxTotalSize() + " 字节");
+                    break;
+                }
+            }
+        } catch (ZipException | IllegalArgumentException ex) {
+            // IllegalArgumentException: entry names that are not valid UTF-8.
+            errors.add(null, "压缩包格式错误或文件名编码不是 UTF-8：" + ex.getMessage());
+        }
+
+        String wrapper = commonWrapper(byDirectory.keySet());
+        List<DatasetArchive.Group> groups = new ArrayList<>(byDirectory.size());
+        byDirectory.forEach(
+                (directory, cases) -> {
+                    List<DatasetArchive.Case> complete = new ArrayList<>(cases.size());
+                    for (PendingCase pending : cases.values()) {
+                        if (pending.input == null) {
+                            errors.add(pending.outputEntry, "缺少对应的 .in 文件");
+                        } else if (pending.output == null) {
+                            errors.add(pending.inputEntry, "缺少对应的 .out 文件");
+                        } else {
+                            complete.add(
+                                    new DatasetArchive.Case(
+                                            pending.index, pending.input, pending.output));
+                        }
+                    }
+                    String groupName = directory.substring(wrapper.length());
+                    String leaf = groupName.substring(groupName.lastIndexOf('/') + 1);
+                    groups.add(
+                            new DatasetArchive.Group(
+                                    groupName,
+                                    SAMPLE_GROUPS.contains(leaf.toLowerCase(Locale.ROOT)),
+                                    complete));
+                });
+        groups.sort(Comparator.comparing(DatasetArchive.Group::name, DatasetArchiveReader::natural));
+        if (groups.isEmpty() && errors.isEmpty()) {
+            errors.add(null, "压缩包中没有找到任何用例");
+        }
+        return new DatasetArchive(groups, errors.list());
+    }
+
+    private DatasetArchive.Content readContent(ZipInputStream zip, long[] totalBytes)
+            throws IOException {
+        int inlineLimit = (int) Math.min(limits.inlineLimit(), limits.maxEntrySize());
+        byte[] head = zip.readNBytes(inlineLimit + 1);
+        totalBytes[0] += head.length;
+        if (totalBytes[0] > limits.maxTotalSize()) {
+            throw new ArchiveTooLargeException();
+        }
+        if (head.length <= inlineLimit) {
+            String text = decodeUtf8(head);
+            if (text != null) {
+                return DatasetArchive.Content.inline(text);
+            }
+        }
+        InputStream rest =
+                new LimitedInputStream(zip, limits.maxEntrySize() - head.length, totalBytes);
+        return DatasetArchive.Content.stored(
+                storage.store(new SequenceInputStream(new ByteArrayInputStream(head), rest)));
+    }
+
+    /** Drains an entry that is not kept, still counting it against the size limits. */
+    private void skip(ZipInputStream zip, long[] totalBytes) throws IOException {
+        new LimitedInputStream(zip, limits.maxEntrySize(), totalBytes)
+                .transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static String decodeUtf8(byte[] bytes) {
+        try {
+            return StandardCharsets.UTF_8
+                    .newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+        } catch (CharacterCodingException ex) {
+            return null;
+        }
+    }
+
+    private static boolean isIgnored(String name) {
+        if (name.startsWith("__MACOSX/")) {
+            return true;
+        }
+        for (String segment : name.split("/")) {
+            if (segment.startsWith(".") && !segment.equals(".") && !segment.equals("..")) {
+                return true;
+            }
+        }
+        return name.endsWith("/Thumbs.db") || name.equals("Thumbs.db");
+    }
+
+    /** The leading "dir/" shared by every group directory, provided each group sits below it. */
+    private static String commonWrapper(Set<String> directories) {
+        String first = directories.stream().findFirst().orElse("");
+        int slash = first.indexOf('/');
+        if (slash < 0) {
+            return "";
+        }
+        String prefix = first.substring(0, slash + 1);
+        return directories.stream().allMatch(directory -> directory.startsWith(prefix))
+                ? prefix
+                : "";
+    }
+
+    /** Orders "2" before "10" by comparing digit runs numerically. */
+    static int natural(String left, String right) {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            char a = left.charAt(i);
+            char b = right.charAt(j);
+            if (Character.isDigit(a) && Character.isDigit(b)) {
+                int startA = i;
+                int startB = j;
+                while (i < left.length() && Character.isDigit(left.charAt(i))) {
+                    i++;
+                }
+                while (j < right.length() && Character.isDigit(right.charAt(j))) {
+                    j++;
+                }
+                String numberA = left.substring(startA, i).replaceFirst("^0+(?=.)", "");
+                String numberB = right.substring(startB, j).replaceFirst("^0+(?=.)", "");
+                int compare =
+                        numberA.length() != numberB.length()
+                                ? Integer.compare(numberA.length(), numberB.length())
+                                : numberA.compareTo(numberB);
+                if (compare != 0) {
+                    return compare;
+                }
+            } else {
+                if (a != b) {
+                    return Character.compare(a, b);
+                }
+                i++;
+                j++;
+            }
+        }
+        return Integer.compare(left.length() - i, right.length() - j);
+    }
+
+    public record Limits(
+            long inlineLimit,
+            long maxEntrySize,
+            long maxTotalSize,
+            int maxEntries,
+            int maxReportedErrors) {}
+
+    private static final class PendingCase {
+        private final int index;
+        private DatasetArchive.Content input;
+        private DatasetArchive.Content output;
+        private String inputEntry;
+        private String outputEntry;
+
+        private PendingCase(int index) {
+            this.index = index;
+        }
+    }
+
+    private static final class Errors {
+        private final int max;
+        private final List<DatasetImportError> list = new ArrayList<>();
+
+        private Errors(int max) {
+            this.max = Math.max(max, 1);
+        }
+
+        void add(String entry, String message) {
+            if (list.size() < max) {
+                list.add(new DatasetImportError(entry, message));
+            }
+        }
+
+        boolean isEmpty() {
+            return list.isEmpty();
+        }
+
+        List<DatasetImportError> list() {
+            return List.copyOf(list);
+        }
+    }
+
+    /** Caps one entry and feeds the archive-wide byte count; never closes the zip stream. */
+    private final class LimitedInputStream extends FilterInputStream {
+        private final long[] totalBytes;
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long remaining, long[] totalBytes) {
+            super(in);
+            this.remaining = remaining;
+            this.totalBytes = totalBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                remaining -= n;
+                totalBytes[0] += n;
+                if (remaining < 0) {
+                    throw new EntryTooLargeException();
+                }
+                if (totalBytes[0] > limits.maxTotalSize()) {
+                    throw new ArchiveTooLargeException();
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // The zip stream moves on to the next entry by itself.
+        }
+    }
+
+    private static final class EntryTooLargeException extends IOException {}
+
+    private static final class ArchiveTooLargeException extends IOException {}
+}
@@ -0,0 +1,10 @@
+package com.david.problem.service.search;
+
+import java.util.List;
+
+/** The searchable text of one problem: its slug, statements per language and tag names. */
+public record ProblemDocument(
+        long problemId, String slug, List<Statement> statements, List<String> tags) {
+
+    public record Statement(String langCode, String title, String descriptionMd) {}
+}
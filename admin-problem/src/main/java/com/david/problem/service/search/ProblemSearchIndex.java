@@ -0,0 +1,251 @@
+package com.david.problem.service.search;
+
+import com.david.problem.service.search.SearchTokenizer.QueryTerm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over problem titles, descriptions, slugs and tag names.
+ *
+ * <p>Every query term must match (the same semantics as the substring search it replaces, minus
+ * the table scan). Matches are ranked by field-weighted, log-scaled term frequency times IDF, so a
+ * hit in the title outranks a hit buried in the description.
+ */
+public class ProblemSearchIndex {
+
+    static final float TITLE_WEIGHT = 8f;
+    static final float SLUG_WEIGHT = 5f;
+    static final float TAG_WEIGHT = 5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final Map<Long, IndexedProblem> problems = new HashMap<>();
+
+    public void put(ProblemDocument document) {
+        IndexedProblem indexed = analyze(document);
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.problemId());
+            problems.put(document.problemId(), indexed);
+            for (String term : indexed.terms()) {
+                postings.computeIfAbsent(term, key -> new HashSet<>()).add(document.problemId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long problemId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(problemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return problems.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every problem id matching every term of {@code keyword}, best first. With a {@code langCode}
+     * only statements in that language count; slug and tags always do. Empty when a prefix term
+     * expands to more than {@link #MAX_PREFIX_EXPANSIONS} indexed terms: the index cannot answer
+     * such a query completely, so the caller falls back to its substring search.
+     */
+    public Optional<List<Long>> search(String keyword, String langCode) {
+        List<QueryTerm> queryTerms = SearchTokenizer.queryTerms(keyword);
+        if (queryTerms.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        lock.readLock().lock();
+        try {
+            List<Set<String>> expansions = new ArrayList<>(queryTerms.size());
+            List<Set<Long>> matches = new ArrayList<>(queryTerms.size());
+            for (QueryTerm queryTerm : queryTerms) {
+                Set<String> terms = expand(queryTerm);
+                if (terms == null) {
+                    return Optional.empty();
+                }
+                if (terms.isEmpty()) {
+                    return Optional.of(List.of());
+                }
+                expansions.add(terms);
+                matches.add(union(terms));
+            }
+            Set<Long> candidates = intersect(matches);
+            if (candidates.isEmpty()) {
+                return Optional.of(List.of());
+            }
+
+            int total = problems.size();
+            double[] idf = new double[queryTerms.size()];
+            for (int i = 0; i < idf.length; i++) {
+                idf[i] = Math.log(1 + (double) total / matches.get(i).size());
+            }
+            List<Hit> hits = new ArrayList<>(candidates.size());
+            for (Long problemId : candidates) {
+                IndexedProblem problem = problems.get(problemId);
+                double score = 0;
+                for (int i = 0; i < idf.length; i++) {
+                    float weight = problem.weight(expansions.get(i), langCode);
+                    if (weight == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += idf[i] * weight;
+                }
+                if (score > 0) {
+                    hits.add(new Hit(problemId, score));
+                }
+            }
+            return Optional.of(hits.stream()
+                    .sorted(Comparator.comparingDouble(Hit::score)
+                            .reversed()
+                            .thenComparing(Hit::problemId, Comparator.reverseOrder()))
+                    .map(Hit::problemId)
+                    .toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Indexed terms a query term stands for; null when a prefix matches too many of them. */
+    private Set<String> expand(QueryTerm queryTerm) {
+        if (!queryTerm.prefix()) {
+            return postings.containsKey(queryTerm.text()) ? Set.of(queryTerm.text()) : Set.of();
+        }
+        if (queryTerm.text().length() < MIN_PREFIX_LENGTH) {
+            return postings.containsKey(queryTerm.text()) ? Set.of(queryTerm.text()) : Set.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term :
+                postings.subMap(queryTerm.text(), true, queryTerm.text() + Character.MAX_VALUE, false)
+                        .keySet()) {
+            if (terms.size() == MAX_PREFIX_EXPANSIONS) {
+                return null;
+            }
+            terms.add(term);
+        }
+        return terms;
+    }
+
+    private Set<Long> union(Collection<String> terms) {
+        if (terms.size() == 1) {
+            return postings.get(terms.iterator().next());
+        }
+        Set<Long> result = new HashSet<>();
+        for (String term : terms) {
+            result.addAll(postings.get(term));
+        }
+        return result;
+    }
+
+    private static Set<Long> intersect(List<Set<Long>> sets) {
+        Set<Long> smallest = sets.stream().min(Comparator.comparingInt(Set::size)).orElseThrow();
+        Set<Long> result = new HashSet<>();
+        for (Long id : smallest) {
+            boolean all = true;
+            for (Set<Long> set : sets) {
+                if (set != smallest && !set.contains(id)) {
+                    all = false;
+                    break;
+                }
+            }
+            if (all) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private void removeLocked(long problemId) {
+        IndexedProblem previous = problems.remove(problemId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(problemId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static IndexedProblem analyze(ProblemDocument document) {
+        Map<String, Float> shared = new HashMap<>();
+        accumulate(shared, document.slug(), SLUG_WEIGHT);
+        for (String tag : document.tags()) {
+            accumulate(shared, tag, TAG_WEIGHT);
+        }
+        Map<String, Map<String, Float>> byLanguage = new HashMap<>();
+        for (ProblemDocument.Statement statement : document.statements()) {
+            Map<String, Float> weights =
+                    byLanguage.computeIfAbsent(statement.langCode(), key -> new HashMap<>());
+            accumulate(weights, statement.title(), TITLE_WEIGHT);
+            accumulate(weights, statement.descriptionMd(), DESCRIPTION_WEIGHT);
+        }
+        Set<String> terms = new HashSet<>(shared.keySet());
+        byLanguage.values().forEach(weights -> terms.addAll(weights.keySet()));
+        return new IndexedProblem(shared, byLanguage, terms);
+    }
+
+    private static void accumulate(Map<String, Float> weights, String text, float fieldWeight) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : SearchTokenizer.tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        frequencies.forEach((term, tf) ->
+                weights.merge(term, fieldWeight * (1 + (float) Math.log(tf)), Float::sum));
+    }
+
+    private record IndexedProblem(
+            Map<String, Float> shared,
+            Map<String, Map<String, Float>> byLanguage,
+            Set<String> terms) {
+
+        /** Best weight among the expanded terms; with no language, the best statement wins. */
+        float weight(Set<String> expanded, String langCode) {
+            float best = 0;
+            for (String term : expanded) {
+                float statementWeight = 0;
+                if (langCode != null) {
+                    statementWeight = byLanguage.getOrDefault(langCode, Map.of()).getOrDefault(term, 0f);
+                } else {
+                    for (Map<String, Float> weights : byLanguage.values()) {
+                        statementWeight = Math.max(statementWeight, weights.getOrDefault(term, 0f));
+                    }
+                }
+                best = Math.max(best, statementWeight + shared.getOrDefault(term, 0f));
+            }
+            return best;
+        }
+    }
+
+    private record Hit(long problemId, double score) {}
+}
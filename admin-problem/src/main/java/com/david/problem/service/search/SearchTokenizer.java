@@ -0,0 +1,103 @@
+package com.david.problem.service.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into index terms: runs of CJK characters become single characters plus overlapping
+ * bigrams, runs of letters and digits become lower-cased words. Markdown punctuation, code fences
+ * and whitespace are all treated as separators.
+ */
+public final class SearchTokenizer {
+
+    static final int MAX_WORD_LENGTH = 32;
+
+    private SearchTokenizer() {}
+
+    /** Terms of an indexed field, with repeats so callers can count term frequency. */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        scan(text, (run, cjk) -> {
+            if (cjk) {
+                for (int i = 0; i < run.length(); i++) {
+                    terms.add(run.substring(i, i + 1));
+                    if (i + 1 < run.length()) {
+                        terms.add(run.substring(i, i + 2));
+                    }
+                }
+            } else {
+                terms.add(run);
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * Terms a query must match. A CJK run longer than one character is matched by its bigrams only,
+     * and words are matched as prefixes so that "sor" still finds "sorting".
+     */
+    public static List<QueryTerm> queryTerms(String text) {
+        List<QueryTerm> terms = new ArrayList<>();
+        scan(text, (run, cjk) -> {
+            if (!cjk) {
+                terms.add(new QueryTerm(run, true));
+            } else if (run.length() == 1) {
+                terms.add(new QueryTerm(run, false));
+            } else {
+                for (int i = 0; i + 1 < run.length(); i++) {
+                    terms.add(new QueryTerm(run.substring(i, i + 2), false));
+                }
+            }
+        });
+        return terms.stream().distinct().toList();
+    }
+
+    private static void scan(String text, RunConsumer consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder run = new StringBuilder();
+        boolean runCjk = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            boolean cjk = isCjk(ch);
+            boolean word = !cjk && Character.isLetterOrDigit(ch);
+            if ((!cjk && !word) || (run.length() > 0 && cjk != runCjk)) {
+                flush(run, runCjk, consumer);
+            }
+            if (cjk || word) {
+                run.append(ch);
+                runCjk = cjk;
+            }
+        }
+        flush(run, runCjk, consumer);
+    }
+
+    private static void flush(StringBuilder run, boolean cjk, RunConsumer consumer) {
+        if (run.length() == 0) {
+            return;
+        }
+        String value = run.toString();
+        run.setLength(0);
+        if (!cjk && value.length() > MAX_WORD_LENGTH) {
+            // Long identifiers and base64 blobs only bloat the dictionary.
+            value = value.substring(0, MAX_WORD_LENGTH);
+        }
+        consumer.accept(cjk ? value : value.toLowerCase(Locale.ROOT), cjk);
+    }
+
+    private static boolean isCjk(char ch) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(ch);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    public record QueryTerm(String text, boolean prefix) {}
+
+    private interface RunConsumer {
+        void accept(String run, boolean cjk);
+    }
+}
@@ -0,0 +1,74 @@
+package com.david.problem.storage;
+
+import com.david.problem.config.ProblemStorageProperties;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@Component
+@ConditionalOnProperty(prefix = "problem.storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalTestcaseFileStorage implements TestcaseFileStorage {
+
+    private static final String KEY_PREFIX = "testcases/";
+
+    private final Path root;
+
+    public LocalTestcaseFileStorage(ProblemStorageProperties properties) {
+        this.root = Path.of(properties.localRoot()).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredFile store(InputStream content) throws IOException {
+        Path staging = root.resolve(".staging");
+        Files.createDirectories(staging);
+        Path temp = Files.createTempFile(staging, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = content.transferTo(out);
+            }
+            String sha256 = HexFormat.of().formatHex(digest.digest());
+            String storageKey = KEY_PREFIX + sha256.substring(0, 2) + "/" + sha256;
+            Path target = root.resolve(storageKey);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Same content is already stored; keys are content-addressed.
+                Files.delete(temp);
+            } else {
+                move(temp, target);
+            }
+            return new StoredFile(storageKey, sha256, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.david.problem.storage;
+
+/** An object written to file storage, addressed by {@code files.storage_key}. */
+public record StoredFile(String storageKey, String sha256, long sizeBytes) {}
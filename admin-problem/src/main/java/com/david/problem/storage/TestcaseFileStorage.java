@@ -0,0 +1,15 @@
+package com.david.problem.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Writes testcase files that are too large to keep inline. */
+public interface TestcaseFileStorage {
+
+    /**
+     * Copies {@code content} to its end into storage and returns its key. Keys are derived from the
+     * content hash, so storing the same bytes twice yields the same object. The stream is not
+     * closed.
+     */
+    StoredFile store(InputStream content) throws IOException;
+}
@@ -0,0 +1,133 @@
+package com.david.problem.service.dataset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.david.problem.dto.DatasetImportError;
+import com.david.problem.storage.StoredFile;
+import com.david.problem.storage.TestcaseFileStorage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+class DatasetArchiveReaderTest {
+
+    private final List<byte[]> stored = new ArrayList<>();
+    private final TestcaseFileStorage storage =
+            content -> {
+                byte[] bytes = content.readAllBytes();
+                stored.add(bytes);
+                return new StoredFile(
+                        "testcases/" + stored.size(), "sha-" + stored.size(), bytes.length);
+            };
+
+    @Test
+    void pairsCasesPerDirectoryAndSpillsLargeFiles() throws IOException {
+        byte[] zip =
+                zip(
+                        "data/secret/10.out", "b".repeat(40),
+                        "data/secret/2.in", "1 2",
+                        "data/sample/1.out", "3",
+                        "data/secret/10.in", "a".repeat(40),
+                        "data/sample/1.in", "1 2",
+                        "data/secret/2.out", "3",
+                        "__MACOSX/data/._1.in", "junk");
+
+        DatasetArchive archive = reader(16).read(new ByteArrayInputStream(zip));
+
+        assertThat(archive.errors()).isEmpty();
+        assertThat(archive.groups())
+                .extracting(DatasetArchive.Group::name, DatasetArchive.Group::sample)
+                .containsExactly(
+                        tuple("sample", true),
+                        tuple("secret", false));
+        DatasetArchive.Group secret = archive.groups().get(1);
+        assertThat(secret.cases()).extracting(DatasetArchive.Case::index).containsExactly(2, 10);
+        assertThat(secret.cases().get(0).input().text()).isEqualTo("1 2");
+        assertThat(secret.cases().get(1).input().isInline()).isFalse();
+        assertThat(stored).hasSize(2);
+        assertThat(new String(stored.get(0), StandardCharsets.UTF_8)).isEqualTo("b".repeat(40));
+    }
+
+    @Test
+    void reportsEveryBadEntry() throws IOException {
+        byte[] zip =
+                zip(
+                        "1.in", "root level",
+                        "g/1.in", "x",
+                        "g/2.out", "y",
+                        "g/readme.md", "z");
+
+        DatasetArchive archive = reader(1024).read(new ByteArrayInputStream(zip));
+
+        assertThat(archive.errors())
+                .extracting(DatasetImportError::entry)
+                .containsExactlyInAnyOrder("1.in", "g/readme.md", "g/1.in", "g/2.out");
+    }
+
+    @Test
+    void stopsAtTheEntrySizeLimit() throws IOException {
+        byte[] zip = zip("g/1.in", "x".repeat(100), "g/1.out", "y");
+
+        DatasetArchive archive =
+                new DatasetArchiveReader(
+                                storage, new DatasetArchiveReader.Limits(8, 50, 1_000, 10, 10))
+                        .read(new ByteArrayInputStream(zip));
+
+        assertThat(archive.errors())
+                .extracting(DatasetImportError::entry)
+                .contains("g/1.in");
+    }
+
+    @Test
+    void stopsReadingAfterAnOversizedEntry() throws IOException {
+        byte[] zip = zip("g/1.in", "x".repeat(100), "g/2.in", "ok", "g/2.out", "ok");
+
+        DatasetArchive archive =
+                new DatasetArchiveReader(
+                                storage, new DatasetArchiveReader.Limits(8, 50, 1_000, 10, 10))
+                        .read(new ByteArrayInputStream(zip));
+
+        assertThat(archive.errors()).extracting(DatasetImportError::entry).containsExactly("g/1.in");
+        assertThat(archive.groups()).isEmpty();
+    }
+
+    @Test
+    void countsSkippedEntriesAgainstTheTotalSize() throws IOException {
+        byte[] zip = zip("__MACOSX/g/._1.in", "z".repeat(40), "g/1.in", "a".repeat(20), "g/1.out", "b");
+
+        DatasetArchive archive =
+                new DatasetArchiveReader(
+                                storage, new DatasetArchiveReader.Limits(64, 50, 50, 10, 10))
+                        .read(new ByteArrayInputStream(zip));
+
+        assertThat(archive.errors())
+                .extracting(DatasetImportError::message)
+                .anyMatch(message -> message.startsWith("解压后总大小超过上限"));
+    }
+
+    private DatasetArchiveReader reader(long inlineLimit) {
+        return new DatasetArchiveReader(
+                storage, new DatasetArchiveReader.Limits(inlineLimit, 1 << 20, 1 << 24, 100, 100));
+    }
+
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < namesAndContents.length; i += 2) {
+                zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+                zip.write(namesAndContents[i + 1].getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
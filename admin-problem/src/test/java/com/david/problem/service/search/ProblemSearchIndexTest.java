@@ -0,0 +1,78 @@
+package com.david.problem.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ProblemSearchIndexTest {
+
+    @Test
+    void tokenizesChineseIntoBigramsAndEnglishIntoWords() {
+        assertThat(SearchTokenizer.tokenize("二叉树 Binary-Tree"))
+                .containsExactly("二", "二叉", "叉", "叉树", "树", "binary", "tree");
+        assertThat(SearchTokenizer.queryTerms("二叉树"))
+                .extracting(SearchTokenizer.QueryTerm::text)
+                .containsExactly("二叉", "叉树");
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        ProblemSearchIndex index = new ProblemSearchIndex();
+        index.put(document(1, "two-sum", "两数之和", "给定一个整数数组，找出和为目标值的两个数。", "数组"));
+        index.put(document(2, "binary-tree-paths", "二叉树的所有路径", "返回所有从根节点到叶子节点的路径，节点值为整数。", "树"));
+        index.put(document(3, "path-sum", "路径总和", "判断二叉树中是否存在和为目标值的路径。", "二叉树"));
+
+        assertThat(search(index, "二叉树", "zh-CN")).containsExactly(2L, 3L);
+        assertThat(search(index, "路径", "zh-CN")).containsExactly(3L, 2L);
+        assertThat(search(index, "整数", "zh-CN")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(search(index, "bin", null)).containsExactly(2L);
+        assertThat(search(index, "二叉树", "en")).containsExactly(3L);
+        assertThat(search(index, "红黑树", null)).isEmpty();
+    }
+
+    @Test
+    void replacingADocumentDropsItsOldTerms() {
+        ProblemSearchIndex index = new ProblemSearchIndex();
+        index.put(document(1, "two-sum", "两数之和", "数组", "哈希表"));
+        index.put(document(1, "two-sum", "三数之和", "数组", "双指针"));
+
+        assertThat(search(index, "两数", null)).isEmpty();
+        assertThat(search(index, "哈希", null)).isEmpty();
+        assertThat(search(index, "三数", null)).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(search(index, "三数", null)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void returnsEveryMatchAndRefusesPrefixesItCannotExpandCompletely() {
+        ProblemSearchIndex index = new ProblemSearchIndex();
+        for (long id = 1; id <= 1500; id++) {
+            index.put(document(id, "array-" + id, "数组练习 " + id, "数组", "sort" + id));
+        }
+
+        assertThat(search(index, "数组", null)).hasSize(1500).doesNotHaveDuplicates();
+        assertThat(search(index, "sort1499", null)).containsExactly(1499L);
+        // "sort1" alone is the prefix of hundreds of tag terms
+        assertThat(index.search("sort1", null)).isEmpty();
+        assertThat(search(index, "sort149", null))
+                .containsExactlyInAnyOrder(149L, 1490L, 1491L, 1492L, 1493L, 1494L, 1495L, 1496L, 1497L,
+                        1498L, 1499L);
+    }
+
+    private static List<Long> search(ProblemSearchIndex index, String keyword, String langCode) {
+        return index.search(keyword, langCode).orElseThrow();
+    }
+
+    private static ProblemDocument document(
+            long id, String slug, String title, String description, String tag) {
+        return new ProblemDocument(
+                id,
+                slug,
+                List.of(new ProblemDocument.Statement("zh-CN", title, description)),
+                List.of(tag));
+    }
+}